@@ -22,9 +22,9 @@ package org.sonar.java.checks;
 import org.sonar.api.server.rule.RulesDefinition;
 import org.sonar.check.Priority;
 import org.sonar.check.Rule;
+import org.sonar.java.ast.visitors.InterruptibleTreeVisitor;
 import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.MethodTree;
 import org.sonar.plugins.java.api.tree.ReturnStatementTree;
 import org.sonar.plugins.java.api.tree.TryStatementTree;
@@ -43,7 +43,7 @@ import java.util.LinkedList;
 @ActivatedByDefault
 @SqaleSubCharacteristic(RulesDefinition.SubCharacteristics.INSTRUCTION_RELIABILITY)
 @SqaleConstantRemediation("30min")
-public class ReturnInFinallyCheck extends BaseTreeVisitor implements JavaFileScanner{
+public class ReturnInFinallyCheck extends InterruptibleTreeVisitor implements JavaFileScanner{
 
   private final Deque<Boolean> isInFinally = new LinkedList<Boolean>();
   private JavaFileScannerContext context;
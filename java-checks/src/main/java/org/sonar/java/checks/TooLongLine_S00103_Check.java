@@ -19,7 +19,6 @@
  */
 package org.sonar.java.checks;
 
-import com.google.common.collect.Sets;
 import com.google.common.io.Files;
 import org.sonar.api.server.rule.RulesDefinition;
 import org.sonar.api.utils.SonarException;
@@ -27,6 +26,7 @@ import org.sonar.check.Priority;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
 import org.sonar.java.CharsetAwareVisitor;
+import org.sonar.java.collections.IntervalSet;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.tree.CompilationUnitTree;
 import org.sonar.plugins.java.api.tree.EmptyStatementTree;
@@ -42,7 +42,6 @@ import java.nio.charset.Charset;
 import java.text.MessageFormat;
 import java.util.Collections;
 import java.util.List;
-import java.util.Set;
 
 @Rule(
   key = "S00103",
@@ -62,7 +61,7 @@ public class TooLongLine_S00103_Check extends SubscriptionBaseVisitor implements
   public int maximumLineLength = DEFAULT_MAXIMUM_LINE_LENHGTH;
 
   private Charset charset;
-  private Set<Integer> ignoredLines = Sets.newHashSet();
+  private final IntervalSet ignoredLines = new IntervalSet();
 
   @Override
   public List<Tree.Kind> nodesToVisit() {
@@ -88,9 +87,7 @@ public class TooLongLine_S00103_Check extends SubscriptionBaseVisitor implements
     if (!imports.isEmpty()) {
       int start = getLine(imports.get(0), true);
       int end = getLine(imports.get(imports.size() - 1), false);
-      for (int i = start; i <= end; i++) {
-        ignoredLines.add(i);
-      }
+      ignoredLines.add(start, end);
     }
   }
 
@@ -19,9 +19,9 @@
  */
 package org.sonar.java.symexecengine;
 
+import org.sonar.java.ast.visitors.InterruptibleTreeVisitor;
 import org.sonar.plugins.java.api.semantic.Symbol;
 import org.sonar.plugins.java.api.tree.AssignmentExpressionTree;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.BlockTree;
 import org.sonar.plugins.java.api.tree.CaseGroupTree;
 import org.sonar.plugins.java.api.tree.CaseLabelTree;
@@ -51,7 +51,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
-public class DataFlowVisitor extends BaseTreeVisitor {
+public class DataFlowVisitor extends InterruptibleTreeVisitor {
 
   private final SymbolicExecutionCheck check;
 
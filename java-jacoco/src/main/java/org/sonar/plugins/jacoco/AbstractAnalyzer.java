@@ -20,12 +20,7 @@
 package org.sonar.plugins.jacoco;
 
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import org.apache.commons.lang.StringUtils;
-import org.jacoco.core.analysis.CoverageBuilder;
-import org.jacoco.core.analysis.ICounter;
-import org.jacoco.core.analysis.ILine;
-import org.jacoco.core.analysis.ISourceFileCoverage;
 import org.jacoco.core.data.ExecutionData;
 import org.jacoco.core.data.ExecutionDataStore;
 import org.sonar.api.batch.SensorContext;
@@ -41,6 +36,7 @@ import org.sonar.api.test.MutableTestCase;
 import org.sonar.api.test.MutableTestPlan;
 import org.sonar.api.test.MutableTestable;
 import org.sonar.api.test.Testable;
+import org.sonar.java.ClassFilesIndex;
 import org.sonar.java.JavaClasspath;
 import org.sonar.plugins.java.api.JavaResourceLocator;
 
@@ -58,32 +54,34 @@ public abstract class AbstractAnalyzer {
   private final PathResolver pathResolver;
   private final JavaResourceLocator javaResourceLocator;
   private final boolean readCoveragePerTests;
+  private final ClassCoverageCache classCoverageCache;
 
-  private Map<String, File> classFilesCache;
+  private ClassFilesIndex classFilesIndex;
   private JavaClasspath javaClasspath;
   private JacocoReportReader jacocoReportReader;
 
   public AbstractAnalyzer(ResourcePerspectives perspectives, ModuleFileSystem fileSystem, PathResolver pathResolver,
-    JavaResourceLocator javaResourceLocator, JavaClasspath javaClasspath) {
-    this(perspectives, fileSystem, pathResolver, javaResourceLocator, javaClasspath, true);
+    JavaResourceLocator javaResourceLocator, JavaClasspath javaClasspath, ClassCoverageCache classCoverageCache) {
+    this(perspectives, fileSystem, pathResolver, javaResourceLocator, javaClasspath, classCoverageCache, true);
   }
 
-  public AbstractAnalyzer(ResourcePerspectives perspectives, ModuleFileSystem fileSystem,
-    PathResolver pathResolver, JavaResourceLocator javaResourceLocator, JavaClasspath javaClasspath, boolean readCoveragePerTests) {
+  public AbstractAnalyzer(ResourcePerspectives perspectives, ModuleFileSystem fileSystem, PathResolver pathResolver,
+    JavaResourceLocator javaResourceLocator, JavaClasspath javaClasspath, ClassCoverageCache classCoverageCache, boolean readCoveragePerTests) {
     this.perspectives = perspectives;
     this.fileSystem = fileSystem;
     this.pathResolver = pathResolver;
     this.javaResourceLocator = javaResourceLocator;
     this.readCoveragePerTests = readCoveragePerTests;
     this.javaClasspath = javaClasspath;
+    this.classCoverageCache = classCoverageCache;
   }
 
   private static String fullyQualifiedClassName(String packageName, String simpleClassName) {
     return ("".equals(packageName) ? "" : (packageName + "/")) + StringUtils.substringBeforeLast(simpleClassName, ".");
   }
 
-  private Resource getResource(ISourceFileCoverage coverage, SensorContext context) {
-    String className = fullyQualifiedClassName(coverage.getPackageName(), coverage.getName());
+  private Resource getResource(LinesCoverage coverage, SensorContext context) {
+    String className = fullyQualifiedClassName(coverage.packageName(), coverage.sourceFileName());
 
     Resource resourceInContext = context.getResource(javaResourceLocator.findResourceByClassName(className));
     if (resourceInContext == null) {
@@ -99,12 +97,8 @@ public abstract class AbstractAnalyzer {
   }
 
   public final void analyse(Project project, SensorContext context) {
-    classFilesCache = Maps.newHashMap();
-    for (File classesDir : javaClasspath.getBinaryDirs()) {
-      populateClassFilesCache(classesDir, "");
-    }
-
-    if (classFilesCache.isEmpty()) {
+    classFilesIndex = javaClasspath.getClassFilesIndex();
+    if (classFilesIndex.isEmpty()) {
       JaCoCoExtensions.LOG.info("No JaCoCo analysis of project coverage can be done since there is no class files.");
       return;
     }
@@ -113,22 +107,7 @@ public abstract class AbstractAnalyzer {
 
     readExecutionData(jacocoExecutionData, context);
 
-    classFilesCache = null;
-  }
-
-  private void populateClassFilesCache(File dir, String path) {
-    File[] files = dir.listFiles();
-    if (files == null) {
-      return;
-    }
-    for (File file : files) {
-      if (file.isDirectory()) {
-        populateClassFilesCache(file, path + file.getName() + "/");
-      } else if (file.getName().endsWith(".class")) {
-        String className = path + StringUtils.removeEnd(file.getName(), ".class");
-        classFilesCache.put(className, file);
-      }
-    }
+    classFilesIndex = null;
   }
 
   private void readExecutionData(File jacocoExecutionData, SensorContext context) {
@@ -141,12 +120,13 @@ public abstract class AbstractAnalyzer {
 
     boolean collectedCoveragePerTest = readCoveragePerTests(context, executionDataVisitor);
 
-    CoverageBuilder coverageBuilder = jacocoReportReader.analyzeFiles(executionDataVisitor.getMerged(), classFilesCache.values());
+    Collection<LinesCoverage> sourceFilesCoverage = jacocoReportReader.analyzeFiles(executionDataVisitor.getMerged(), classFilesIndex.classFiles(), classCoverageCache);
+    classCoverageCache.save();
     int analyzedResources = 0;
-    for (ISourceFileCoverage coverage : coverageBuilder.getSourceFiles()) {
+    for (LinesCoverage coverage : sourceFilesCoverage) {
       Resource resource = getResource(coverage, context);
       if (resource != null) {
-        CoverageMeasuresBuilder builder = analyzeFile(resource, coverage);
+        CoverageMeasuresBuilder builder = analyzeFile(coverage);
         saveMeasures(context, resource, builder.createMeasures());
         analyzedResources++;
       }
@@ -186,11 +166,10 @@ public abstract class AbstractAnalyzer {
     }
 
     boolean result = false;
-    CoverageBuilder coverageBuilder = jacocoReportReader.analyzeFiles(executionDataStore, classFilesOfStore(executionDataStore));
-    for (ISourceFileCoverage coverage : coverageBuilder.getSourceFiles()) {
+    for (LinesCoverage coverage : jacocoReportReader.analyzeFiles(executionDataStore, classFilesOfStore(executionDataStore))) {
       Resource resource = getResource(coverage, context);
       if (resource != null) {
-        CoverageMeasuresBuilder builder = analyzeFile(resource, coverage);
+        CoverageMeasuresBuilder builder = analyzeFile(coverage);
         List<Integer> coveredLines = getCoveredLines(builder);
         if (!coveredLines.isEmpty() && addCoverage(resource, testResource, testName, coveredLines)) {
           result = true;
@@ -204,7 +183,7 @@ public abstract class AbstractAnalyzer {
     Collection<File> result = Lists.newArrayList();
     for (ExecutionData data : executionDataStore.getContents()) {
       String vmClassName = data.getName();
-      File classFile = classFilesCache.get(vmClassName);
+      File classFile = classFilesIndex.classFile(vmClassName);
       if (classFile != null) {
         result.add(classFile);
       }
@@ -237,32 +216,15 @@ public abstract class AbstractAnalyzer {
     return result;
   }
 
-  private static CoverageMeasuresBuilder analyzeFile(Resource resource, ISourceFileCoverage coverage) {
+  private static CoverageMeasuresBuilder analyzeFile(LinesCoverage coverage) {
     CoverageMeasuresBuilder builder = CoverageMeasuresBuilder.create();
-    for (int lineId = coverage.getFirstLine(); lineId <= coverage.getLastLine(); lineId++) {
-      final int hits;
-      ILine line = coverage.getLine(lineId);
-      switch (line.getInstructionCounter().getStatus()) {
-        case ICounter.FULLY_COVERED:
-        case ICounter.PARTLY_COVERED:
-          hits = 1;
-          break;
-        case ICounter.NOT_COVERED:
-          hits = 0;
-          break;
-        case ICounter.EMPTY:
-          continue;
-        default:
-          JaCoCoExtensions.LOG.warn("Unknown status for line {} in {}", lineId, resource);
-          continue;
-      }
-      builder.setHits(lineId, hits);
+    for (int lineId : coverage.lines()) {
+      // a line is hit when at least one of its instructions is covered
+      builder.setHits(lineId, coverage.coveredInstructions(lineId) > 0 ? 1 : 0);
 
-      ICounter branchCounter = line.getBranchCounter();
-      int conditions = branchCounter.getTotalCount();
+      int conditions = coverage.missedBranches(lineId) + coverage.coveredBranches(lineId);
       if (conditions > 0) {
-        int coveredConditions = branchCounter.getCoveredCount();
-        builder.setConditions(lineId, conditions, coveredConditions);
+        builder.setConditions(lineId, conditions, coverage.coveredBranches(lineId));
       }
     }
     return builder;
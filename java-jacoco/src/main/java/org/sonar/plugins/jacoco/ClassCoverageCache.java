@@ -0,0 +1,234 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * sonarqube@googlegroups.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.plugins.jacoco;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.io.Closeables;
+import com.google.common.io.Files;
+import org.jacoco.core.data.ExecutionData;
+import org.sonar.api.BatchExtension;
+import org.sonar.api.scan.filesystem.ModuleFileSystem;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Line coverage of the classes analyzed by the JaCoCo sensors, keyed by the CRC32 of the class file and a digest of the probes
+ * recorded for the class. A class which did not change and was executed the same way is not analyzed again, be it by another
+ * JaCoCo sensor of the module or by a later analysis of the module: the cache is read from the working directory of the module
+ * on first use, and {@link #save()} writes back the classes used by the current analysis.
+ */
+public class ClassCoverageCache implements BatchExtension {
+
+  static final String FILE_NAME = "jacoco-class-coverage.bin";
+  private static final int FORMAT_VERSION = 1;
+
+  private static final Comparator<ExecutionData> BY_ID = new Comparator<ExecutionData>() {
+    @Override
+    public int compare(ExecutionData data1, ExecutionData data2) {
+      return Long.valueOf(data1.getId()).compareTo(data2.getId());
+    }
+  };
+
+  @Nullable
+  private final File file;
+  private Map<Key, LinesCoverage> storedCoverage;
+  private final Map<Key, LinesCoverage> usedCoverage = Maps.newHashMap();
+
+  public ClassCoverageCache(ModuleFileSystem fileSystem) {
+    this(new File(fileSystem.workingDir(), FILE_NAME));
+  }
+
+  /**
+   * Cache kept in memory only.
+   */
+  @VisibleForTesting
+  ClassCoverageCache() {
+    this.file = null;
+  }
+
+  @VisibleForTesting
+  ClassCoverageCache(File file) {
+    this.file = file;
+  }
+
+  /**
+   * @param classBytes content of the class file
+   * @param executionData execution data recorded for the name of the class, whatever their class id
+   */
+  public static Key key(boolean currentBinaryFormat, byte[] classBytes, Collection<ExecutionData> executionData) {
+    CRC32 crc = new CRC32();
+    crc.update(classBytes);
+    MessageDigest digest = md5();
+    digest.update((byte) (currentBinaryFormat ? 1 : 0));
+    List<ExecutionData> sortedExecutionData = Lists.newArrayList(executionData);
+    Collections.sort(sortedExecutionData, BY_ID);
+    for (ExecutionData data : sortedExecutionData) {
+      long id = data.getId();
+      for (int i = 0; i < 8; i++) {
+        digest.update((byte) (id >>> (8 * i)));
+      }
+      for (boolean probe : data.getProbes()) {
+        digest.update((byte) (probe ? 1 : 0));
+      }
+      digest.update((byte) 2);
+    }
+    return new Key(crc.getValue(), digest.digest());
+  }
+
+  private static MessageDigest md5() {
+    try {
+      return MessageDigest.getInstance("MD5");
+    } catch (NoSuchAlgorithmException e) {
+      throw Throwables.propagate(e);
+    }
+  }
+
+  @CheckForNull
+  public LinesCoverage get(Key key) {
+    LinesCoverage coverage = usedCoverage.get(key);
+    if (coverage == null) {
+      coverage = storedCoverage().get(key);
+      if (coverage != null) {
+        usedCoverage.put(key, coverage);
+      }
+    }
+    return coverage;
+  }
+
+  public void put(Key key, LinesCoverage coverage) {
+    usedCoverage.put(key, coverage);
+  }
+
+  /**
+   * @return number of classes used by the current analysis
+   */
+  public int size() {
+    return usedCoverage.size();
+  }
+
+  /**
+   * Writes the classes used by the current analysis, so that the classes which are no longer analyzed are dropped.
+   */
+  public void save() {
+    if (file == null) {
+      return;
+    }
+    DataOutputStream output = null;
+    try {
+      Files.createParentDirs(file);
+      output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+      output.writeInt(FORMAT_VERSION);
+      output.writeInt(usedCoverage.size());
+      for (Map.Entry<Key, LinesCoverage> entry : usedCoverage.entrySet()) {
+        output.writeLong(entry.getKey().classCrc);
+        output.write(entry.getKey().probesDigest);
+        entry.getValue().write(output);
+      }
+    } catch (IOException e) {
+      JaCoCoExtensions.LOG.warn("Unable to save the JaCoCo class coverage cache to " + file.getAbsolutePath(), e);
+    } finally {
+      Closeables.closeQuietly(output);
+    }
+  }
+
+  private Map<Key, LinesCoverage> storedCoverage() {
+    if (storedCoverage == null) {
+      storedCoverage = Maps.newHashMap();
+      if (file != null && file.isFile()) {
+        load(file);
+      }
+    }
+    return storedCoverage;
+  }
+
+  private void load(File cacheFile) {
+    DataInputStream input = null;
+    try {
+      input = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)));
+      if (input.readInt() != FORMAT_VERSION) {
+        return;
+      }
+      int count = input.readInt();
+      for (int i = 0; i < count; i++) {
+        long classCrc = input.readLong();
+        byte[] probesDigest = new byte[Key.DIGEST_LENGTH];
+        input.readFully(probesDigest);
+        storedCoverage.put(new Key(classCrc, probesDigest), LinesCoverage.read(input));
+      }
+    } catch (IOException e) {
+      JaCoCoExtensions.LOG.warn("Unable to read the JaCoCo class coverage cache " + cacheFile.getAbsolutePath() + ", all classes are analyzed", e);
+      storedCoverage.clear();
+    } finally {
+      Closeables.closeQuietly(input);
+    }
+  }
+
+  public static final class Key {
+    private static final int DIGEST_LENGTH = 16;
+
+    private final long classCrc;
+    private final byte[] probesDigest;
+
+    private Key(long classCrc, byte[] probesDigest) {
+      this.classCrc = classCrc;
+      this.probesDigest = probesDigest;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key other = (Key) o;
+      return classCrc == other.classCrc && Arrays.equals(probesDigest, other.probesDigest);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * (int) (classCrc ^ (classCrc >>> 32)) + Arrays.hashCode(probesDigest);
+    }
+  }
+
+}
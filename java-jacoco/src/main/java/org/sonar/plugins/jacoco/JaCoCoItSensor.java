@@ -41,15 +41,17 @@ public class JaCoCoItSensor implements Sensor {
   private final PathResolver pathResolver;
   private final JavaResourceLocator javaResourceLocator;
   private final JavaClasspath javaClasspath;
+  private final ClassCoverageCache classCoverageCache;
 
   public JaCoCoItSensor(JacocoConfiguration configuration, ResourcePerspectives perspectives, ModuleFileSystem fileSystem, PathResolver pathResolver,
-                        JavaResourceLocator javaResourceLocator, JavaClasspath javaClasspath) {
+                        JavaResourceLocator javaResourceLocator, JavaClasspath javaClasspath, ClassCoverageCache classCoverageCache) {
     this.configuration = configuration;
     this.perspectives = perspectives;
     this.fileSystem = fileSystem;
     this.pathResolver = pathResolver;
     this.javaResourceLocator = javaResourceLocator;
     this.javaClasspath = javaClasspath;
+    this.classCoverageCache = classCoverageCache;
   }
 
   @Override
@@ -70,7 +72,7 @@ public class JaCoCoItSensor implements Sensor {
 
   class ITAnalyzer extends AbstractAnalyzer {
     public ITAnalyzer(ResourcePerspectives perspectives) {
-      super(perspectives, fileSystem, pathResolver, javaResourceLocator, javaClasspath);
+      super(perspectives, fileSystem, pathResolver, javaResourceLocator, javaClasspath, classCoverageCache);
     }
 
     @Override
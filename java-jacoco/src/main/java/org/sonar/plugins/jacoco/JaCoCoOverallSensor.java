@@ -44,15 +44,17 @@ public class JaCoCoOverallSensor implements Sensor {
   private final PathResolver pathResolver;
   private final JavaResourceLocator javaResourceLocator;
   private final JavaClasspath javaClasspath;
+  private final ClassCoverageCache classCoverageCache;
 
   public JaCoCoOverallSensor(JacocoConfiguration configuration, ResourcePerspectives perspectives, ModuleFileSystem fileSystem, PathResolver pathResolver,
-                             JavaResourceLocator javaResourceLocator, JavaClasspath javaClasspath) {
+                             JavaResourceLocator javaResourceLocator, JavaClasspath javaClasspath, ClassCoverageCache classCoverageCache) {
     this.configuration = configuration;
     this.perspectives = perspectives;
     this.fileSystem = fileSystem;
     this.pathResolver = pathResolver;
     this.javaResourceLocator = javaResourceLocator;
     this.javaClasspath = javaClasspath;
+    this.classCoverageCache = classCoverageCache;
   }
 
   @Override
@@ -84,7 +86,7 @@ public class JaCoCoOverallSensor implements Sensor {
     private final File report;
 
     OverallAnalyzer(File report, ResourcePerspectives perspectives) {
-      super(perspectives, fileSystem, pathResolver, javaResourceLocator, javaClasspath, false);
+      super(perspectives, fileSystem, pathResolver, javaResourceLocator, javaClasspath, classCoverageCache, false);
       this.report = report;
     }
 
@@ -42,15 +42,17 @@ public class JaCoCoSensor implements Sensor {
   private final PathResolver pathResolver;
   private final JavaResourceLocator javaResourceLocator;
   private final JavaClasspath javaClasspath;
+  private final ClassCoverageCache classCoverageCache;
 
   public JaCoCoSensor(JacocoConfiguration configuration, ResourcePerspectives perspectives, ModuleFileSystem fileSystem, PathResolver pathResolver,
-                      JavaResourceLocator javaResourceLocator, JavaClasspath javaClasspath) {
+                      JavaResourceLocator javaResourceLocator, JavaClasspath javaClasspath, ClassCoverageCache classCoverageCache) {
     this.configuration = configuration;
     this.perspectives = perspectives;
     this.fileSystem = fileSystem;
     this.pathResolver = pathResolver;
     this.javaResourceLocator = javaResourceLocator;
     this.javaClasspath = javaClasspath;
+    this.classCoverageCache = classCoverageCache;
   }
 
   /**
@@ -79,7 +81,7 @@ public class JaCoCoSensor implements Sensor {
 
   class UnitTestsAnalyzer extends AbstractAnalyzer {
     public UnitTestsAnalyzer(ResourcePerspectives perspectives) {
-      super(perspectives, fileSystem, pathResolver, javaResourceLocator, javaClasspath);
+      super(perspectives, fileSystem, pathResolver, javaResourceLocator, javaClasspath, classCoverageCache);
     }
 
     @Override
@@ -20,13 +20,21 @@
 package org.sonar.plugins.jacoco;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
+import com.google.common.io.Files;
 import org.jacoco.core.analysis.Analyzer;
-import org.jacoco.core.analysis.CoverageBuilder;
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.analysis.ICoverageVisitor;
+import org.jacoco.core.data.ExecutionData;
 import org.jacoco.core.data.ExecutionDataReader;
 import org.jacoco.core.data.ExecutionDataStore;
 import org.jacoco.core.data.ExecutionDataWriter;
 import org.jacoco.core.data.IExecutionDataVisitor;
 import org.jacoco.core.data.ISessionInfoVisitor;
+import org.objectweb.asm.ClassReader;
 import org.sonar.api.utils.SonarException;
 
 import javax.annotation.Nullable;
@@ -38,6 +46,8 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 public class JacocoReportReader {
 
@@ -106,42 +116,99 @@ public class JacocoReportReader {
 
   /**
    * Caller must guarantee that {@code classFiles} are actually class file.
+   * @return coverage of the source files of the classes
    */
-  public CoverageBuilder analyzeFiles(ExecutionDataStore executionDataStore, Collection<File> classFiles) {
-    CoverageBuilder coverageBuilder = new CoverageBuilder();
-    if (useCurrentBinaryFormat) {
-      Analyzer analyzer = new Analyzer(executionDataStore, coverageBuilder);
-      for (File classFile : classFiles) {
-        analyzeClassFile(analyzer, classFile);
+  public Collection<LinesCoverage> analyzeFiles(ExecutionDataStore executionDataStore, Collection<File> classFiles) {
+    return analyzeFiles(executionDataStore, classFiles, null);
+  }
+
+  /**
+   * Same as {@link #analyzeFiles(ExecutionDataStore, Collection)}, but classes already analyzed against the same probes
+   * are taken from the cache rather than analyzed again.
+   * Caller must guarantee that {@code classFiles} are actually class file.
+   */
+  public Collection<LinesCoverage> analyzeFiles(ExecutionDataStore executionDataStore, Collection<File> classFiles, @Nullable ClassCoverageCache cache) {
+    Map<String, LinesCoverage> coverageBySourceFile = Maps.newLinkedHashMap();
+    final List<LinesCoverage> analyzedClasses = Lists.newArrayList();
+    ClassAnalyzer analyzer = createAnalyzer(executionDataStore, new ICoverageVisitor() {
+      @Override
+      public void visitCoverage(IClassCoverage coverage) {
+        analyzedClasses.add(LinesCoverage.of(coverage));
       }
-    } else {
-      org.jacoco.previous.core.analysis.Analyzer analyzer = new org.jacoco.previous.core.analysis.Analyzer(executionDataStore, coverageBuilder);
-      for (File classFile : classFiles) {
-        analyzeClassFile(analyzer, classFile);
+    });
+    Multimap<String, ExecutionData> executionDataByClassName = cache == null ? null : executionDataByClassName(executionDataStore);
+    for (File classFile : classFiles) {
+      try {
+        byte[] bytes = Files.toByteArray(classFile);
+        ClassCoverageCache.Key key = null;
+        LinesCoverage cachedCoverage = null;
+        if (cache != null) {
+          key = ClassCoverageCache.key(useCurrentBinaryFormat, bytes, executionDataByClassName.get(new ClassReader(bytes).getClassName()));
+          cachedCoverage = cache.get(key);
+        }
+        analyzedClasses.clear();
+        if (cachedCoverage != null) {
+          analyzedClasses.add(cachedCoverage);
+        } else {
+          analyzer.analyzeClass(bytes, classFile.getPath());
+        }
+        for (LinesCoverage classCoverage : analyzedClasses) {
+          if (key != null) {
+            cache.put(key, classCoverage);
+          }
+          addToSourceFile(coverageBySourceFile, classCoverage);
+        }
+      } catch (IOException e) {
+        // (Godin): in fact JaCoCo includes name into exception
+        JaCoCoExtensions.LOG.warn("Exception during analysis of file " + classFile.getAbsolutePath(), e);
       }
     }
-    return coverageBuilder;
+    return coverageBySourceFile.values();
   }
 
-  /**
-   * Caller must guarantee that {@code classFile} is actually class file.
-   */
-  private static void analyzeClassFile(org.jacoco.previous.core.analysis.Analyzer analyzer, File classFile) {
-    try (InputStream inputStream = new FileInputStream(classFile)) {
-      analyzer.analyzeClass(inputStream, classFile.getPath());
-    } catch (IOException e) {
-      // (Godin): in fact JaCoCo includes name into exception
-      JaCoCoExtensions.LOG.warn("Exception during analysis of file " + classFile.getAbsolutePath(), e);
+  private static Multimap<String, ExecutionData> executionDataByClassName(ExecutionDataStore executionDataStore) {
+    Multimap<String, ExecutionData> result = ArrayListMultimap.create();
+    for (ExecutionData data : executionDataStore.getContents()) {
+      result.put(data.getName(), data);
     }
+    return result;
   }
 
-  private static void analyzeClassFile(Analyzer analyzer, File classFile) {
-    try (InputStream inputStream = new FileInputStream(classFile)) {
-      analyzer.analyzeClass(inputStream, classFile.getPath());
-    } catch (IOException e) {
-      // (Godin): in fact JaCoCo includes name into exception
-      JaCoCoExtensions.LOG.warn("Exception during analysis of file " + classFile.getAbsolutePath(), e);
+  private static void addToSourceFile(Map<String, LinesCoverage> coverageBySourceFile, LinesCoverage classCoverage) {
+    if (classCoverage.sourceFileName().isEmpty()) {
+      // class compiled without debug information
+      return;
+    }
+    String sourceFileKey = classCoverage.packageName() + "/" + classCoverage.sourceFileName();
+    LinesCoverage sourceFileCoverage = coverageBySourceFile.get(sourceFileKey);
+    if (sourceFileCoverage == null) {
+      sourceFileCoverage = new LinesCoverage(classCoverage.packageName(), classCoverage.sourceFileName());
+      coverageBySourceFile.put(sourceFileKey, sourceFileCoverage);
     }
+    sourceFileCoverage.addAll(classCoverage);
+  }
+
+  private ClassAnalyzer createAnalyzer(ExecutionDataStore executionDataStore, ICoverageVisitor coverageVisitor) {
+    if (useCurrentBinaryFormat) {
+      final Analyzer analyzer = new Analyzer(executionDataStore, coverageVisitor);
+      return new ClassAnalyzer() {
+        @Override
+        public void analyzeClass(byte[] bytes, String location) throws IOException {
+          analyzer.analyzeClass(bytes, location);
+        }
+      };
+    }
+    final org.jacoco.previous.core.analysis.Analyzer analyzer = new org.jacoco.previous.core.analysis.Analyzer(executionDataStore, coverageVisitor);
+    return new ClassAnalyzer() {
+      @Override
+      public void analyzeClass(byte[] bytes, String location) throws IOException {
+        analyzer.analyzeClass(bytes, location);
+      }
+    };
+  }
+
+  private interface ClassAnalyzer {
+    void analyzeClass(byte[] bytes, String location) throws IOException;
   }
 
 }
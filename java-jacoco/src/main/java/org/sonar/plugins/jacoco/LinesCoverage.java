@@ -0,0 +1,154 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * sonarqube@googlegroups.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.plugins.jacoco;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.Maps;
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.analysis.ILine;
+import org.jacoco.core.analysis.ISourceNode;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+
+/**
+ * Instruction and branch counters of each line of a class or of a source file, which is all the sensors need from the
+ * coverage computed by JaCoCo.
+ */
+public class LinesCoverage {
+
+  private static final int MISSED_INSTRUCTIONS = 0;
+  private static final int COVERED_INSTRUCTIONS = 1;
+  private static final int MISSED_BRANCHES = 2;
+  private static final int COVERED_BRANCHES = 3;
+
+  private final String packageName;
+  private final String sourceFileName;
+  private final SortedMap<Integer, int[]> countersByLine = Maps.newTreeMap();
+
+  /**
+   * @param packageName VM name of the package, like "org/example"
+   * @param sourceFileName name of the source file, empty when the class has no debug information
+   */
+  LinesCoverage(String packageName, String sourceFileName) {
+    this.packageName = packageName;
+    this.sourceFileName = sourceFileName;
+  }
+
+  static LinesCoverage of(IClassCoverage coverage) {
+    LinesCoverage result = new LinesCoverage(coverage.getPackageName(), Strings.nullToEmpty(coverage.getSourceFileName()));
+    if (coverage.getFirstLine() != ISourceNode.UNKNOWN_LINE) {
+      for (int line = coverage.getFirstLine(); line <= coverage.getLastLine(); line++) {
+        ILine counters = coverage.getLine(line);
+        result.add(line,
+          counters.getInstructionCounter().getMissedCount(), counters.getInstructionCounter().getCoveredCount(),
+          counters.getBranchCounter().getMissedCount(), counters.getBranchCounter().getCoveredCount());
+      }
+    }
+    return result;
+  }
+
+  public String packageName() {
+    return packageName;
+  }
+
+  public String sourceFileName() {
+    return sourceFileName;
+  }
+
+  /**
+   * @return lines with at least one instruction, in ascending order
+   */
+  public Set<Integer> lines() {
+    return countersByLine.keySet();
+  }
+
+  public int missedInstructions(int line) {
+    return counter(line, MISSED_INSTRUCTIONS);
+  }
+
+  public int coveredInstructions(int line) {
+    return counter(line, COVERED_INSTRUCTIONS);
+  }
+
+  public int missedBranches(int line) {
+    return counter(line, MISSED_BRANCHES);
+  }
+
+  public int coveredBranches(int line) {
+    return counter(line, COVERED_BRANCHES);
+  }
+
+  private int counter(int line, int counter) {
+    int[] counters = countersByLine.get(line);
+    return counters == null ? 0 : counters[counter];
+  }
+
+  /**
+   * Adds the counters of a class to the ones of its source file.
+   */
+  void addAll(LinesCoverage other) {
+    for (Map.Entry<Integer, int[]> entry : other.countersByLine.entrySet()) {
+      int[] counters = entry.getValue();
+      add(entry.getKey(), counters[MISSED_INSTRUCTIONS], counters[COVERED_INSTRUCTIONS], counters[MISSED_BRANCHES], counters[COVERED_BRANCHES]);
+    }
+  }
+
+  void add(int line, int missedInstructions, int coveredInstructions, int missedBranches, int coveredBranches) {
+    if (missedInstructions + coveredInstructions == 0) {
+      return;
+    }
+    int[] counters = countersByLine.get(line);
+    if (counters == null) {
+      counters = new int[4];
+      countersByLine.put(line, counters);
+    }
+    counters[MISSED_INSTRUCTIONS] += missedInstructions;
+    counters[COVERED_INSTRUCTIONS] += coveredInstructions;
+    counters[MISSED_BRANCHES] += missedBranches;
+    counters[COVERED_BRANCHES] += coveredBranches;
+  }
+
+  void write(DataOutput output) throws IOException {
+    output.writeUTF(packageName);
+    output.writeUTF(sourceFileName);
+    output.writeInt(countersByLine.size());
+    for (Map.Entry<Integer, int[]> entry : countersByLine.entrySet()) {
+      output.writeInt(entry.getKey());
+      for (int counter : entry.getValue()) {
+        output.writeInt(counter);
+      }
+    }
+  }
+
+  static LinesCoverage read(DataInput input) throws IOException {
+    LinesCoverage result = new LinesCoverage(input.readUTF(), input.readUTF());
+    int lineCount = input.readInt();
+    for (int i = 0; i < lineCount; i++) {
+      result.add(input.readInt(), input.readInt(), input.readInt(), input.readInt(), input.readInt());
+    }
+    return result;
+  }
+
+}
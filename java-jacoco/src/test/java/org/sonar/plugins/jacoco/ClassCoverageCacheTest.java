@@ -0,0 +1,127 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * sonarqube@googlegroups.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.plugins.jacoco;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.Files;
+import org.jacoco.core.data.ExecutionData;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sonar.api.scan.filesystem.ModuleFileSystem;
+
+import java.io.File;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ClassCoverageCacheTest {
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  private static final byte[] CLASS_BYTES = {1, 2, 3};
+
+  @Test
+  public void key_should_depend_on_class_content_and_probes() {
+    ClassCoverageCache.Key key = key(CLASS_BYTES, true, false);
+
+    assertThat(key(CLASS_BYTES, true, false)).isEqualTo(key);
+    assertThat(key(new byte[] {1, 2, 4}, true, false)).isNotEqualTo(key);
+    assertThat(key(CLASS_BYTES, true, true)).isNotEqualTo(key);
+    assertThat(ClassCoverageCache.key(false, CLASS_BYTES, ImmutableList.of(new ExecutionData(1, "A", new boolean[] {true, false}))))
+      .isNotEqualTo(key);
+    assertThat(ClassCoverageCache.key(true, CLASS_BYTES, ImmutableList.<ExecutionData>of())).isNotEqualTo(key);
+  }
+
+  @Test
+  public void should_save_used_classes_to_working_directory() throws Exception {
+    ModuleFileSystem fileSystem = mock(ModuleFileSystem.class);
+    when(fileSystem.workingDir()).thenReturn(temp.getRoot());
+    ClassCoverageCache cache = new ClassCoverageCache(fileSystem);
+    ClassCoverageCache.Key key = key(CLASS_BYTES, true, false);
+    assertThat(cache.get(key)).isNull();
+    cache.put(key, coverage());
+    cache.save();
+    assertThat(new File(temp.getRoot(), ClassCoverageCache.FILE_NAME)).exists();
+
+    ClassCoverageCache reloaded = new ClassCoverageCache(fileSystem);
+    assertThat(reloaded.size()).isEqualTo(0);
+    LinesCoverage coverage = reloaded.get(key);
+    assertThat(coverage.packageName()).isEqualTo("org/example");
+    assertThat(coverage.sourceFileName()).isEqualTo("A.java");
+    assertThat(coverage.lines()).containsOnly(3, 5);
+    assertThat(coverage.coveredInstructions(3)).isEqualTo(2);
+    assertThat(coverage.missedBranches(5)).isEqualTo(1);
+    assertThat(reloaded.size()).isEqualTo(1);
+    assertThat(reloaded.get(key(CLASS_BYTES, true, true))).isNull();
+  }
+
+  @Test
+  public void should_drop_classes_not_used_by_last_analysis() throws Exception {
+    File file = new File(temp.getRoot(), ClassCoverageCache.FILE_NAME);
+    ClassCoverageCache cache = new ClassCoverageCache(file);
+    cache.put(key(CLASS_BYTES, true, false), coverage());
+    cache.save();
+
+    ClassCoverageCache secondAnalysis = new ClassCoverageCache(file);
+    secondAnalysis.put(key(CLASS_BYTES, true, true), coverage());
+    secondAnalysis.save();
+
+    ClassCoverageCache thirdAnalysis = new ClassCoverageCache(file);
+    assertThat(thirdAnalysis.get(key(CLASS_BYTES, true, false))).isNull();
+    assertThat(thirdAnalysis.get(key(CLASS_BYTES, true, true))).isNotNull();
+  }
+
+  @Test
+  public void should_ignore_unreadable_file() throws Exception {
+    File file = new File(temp.getRoot(), ClassCoverageCache.FILE_NAME);
+    Files.write("not a cache", file, Charsets.UTF_8);
+    ClassCoverageCache cache = new ClassCoverageCache(file);
+    assertThat(cache.get(key(CLASS_BYTES, true, false))).isNull();
+
+    cache.put(key(CLASS_BYTES, true, false), coverage());
+    cache.save();
+    assertThat(new ClassCoverageCache(file).get(key(CLASS_BYTES, true, false))).isNotNull();
+  }
+
+  @Test
+  public void in_memory_cache_should_not_be_saved() {
+    ClassCoverageCache cache = new ClassCoverageCache();
+    cache.put(key(CLASS_BYTES, true, false), coverage());
+    cache.save();
+    assertThat(cache.get(key(CLASS_BYTES, true, false))).isNotNull();
+  }
+
+  private static ClassCoverageCache.Key key(byte[] classBytes, boolean currentBinaryFormat, boolean firstProbe) {
+    return ClassCoverageCache.key(currentBinaryFormat, classBytes, ImmutableList.of(new ExecutionData(1, "A", new boolean[] {firstProbe, false})));
+  }
+
+  private static LinesCoverage coverage() {
+    LinesCoverage coverage = new LinesCoverage("org/example", "A.java");
+    coverage.add(3, 1, 2, 0, 0);
+    coverage.add(4, 0, 0, 0, 0);
+    coverage.add(5, 3, 0, 1, 1);
+    return coverage;
+  }
+
+}
@@ -33,6 +33,7 @@ import org.sonar.api.resources.Resource;
 import org.sonar.api.scan.filesystem.ModuleFileSystem;
 import org.sonar.api.scan.filesystem.PathResolver;
 import org.sonar.api.test.IsMeasure;
+import org.sonar.java.ClassFilesIndex;
 import org.sonar.java.JavaClasspath;
 import org.sonar.plugins.java.api.JavaResourceLocator;
 import org.sonar.test.TestUtils;
@@ -74,7 +75,7 @@ public class JaCoCoItSensorTest {
     ResourcePerspectives perspectives = mock(ResourcePerspectives.class);
     ModuleFileSystem fileSystem = mock(ModuleFileSystem.class);
     pathResolver = mock(PathResolver.class);
-    sensor = new JaCoCoItSensor(configuration, perspectives, fileSystem, pathResolver, javaResourceLocator, javaClasspath);
+    sensor = new JaCoCoItSensor(configuration, perspectives, fileSystem, pathResolver, javaResourceLocator, javaClasspath, new ClassCoverageCache());
   }
 
   @Test
@@ -103,7 +104,7 @@ public class JaCoCoItSensorTest {
     SensorContext context = mock(SensorContext.class);
     Project project = mock(Project.class);
     when(context.getResource(any(Resource.class))).thenReturn(resource);
-    when(javaClasspath.getBinaryDirs()).thenReturn(ImmutableList.of(outputDir));
+    when(javaClasspath.getClassFilesIndex()).thenReturn(ClassFilesIndex.create(ImmutableList.of(outputDir)));
     when(pathResolver.relativeFile(any(File.class), any(String.class))).thenReturn(jacocoExecutionData);
 
     sensor.analyse(project, context);
@@ -124,7 +125,7 @@ public class JaCoCoItSensorTest {
     SensorContext context = mock(SensorContext.class);
     Project project = mock(Project.class);
     when(context.getResource(any(Resource.class))).thenReturn(null);
-    when(javaClasspath.getBinaryDirs()).thenReturn(ImmutableList.of(outputDir));
+    when(javaClasspath.getClassFilesIndex()).thenReturn(ClassFilesIndex.create(ImmutableList.of(outputDir)));
 
     sensor.analyse(project, context);
 
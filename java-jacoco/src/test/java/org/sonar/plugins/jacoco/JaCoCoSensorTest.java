@@ -40,6 +40,7 @@ import org.sonar.api.test.IsMeasure;
 import org.sonar.api.test.MutableTestCase;
 import org.sonar.api.test.MutableTestPlan;
 import org.sonar.api.test.MutableTestable;
+import org.sonar.java.ClassFilesIndex;
 import org.sonar.java.JavaClasspath;
 import org.sonar.plugins.java.api.JavaResourceLocator;
 import org.sonar.test.TestUtils;
@@ -89,7 +90,7 @@ public class JaCoCoSensorTest {
     configuration = mock(JacocoConfiguration.class);
     perspectives = mock(ResourcePerspectives.class);
     javaClasspath = mock(JavaClasspath.class);
-    sensor = new JaCoCoSensor(configuration, perspectives, fileSystem, pathResolver, javaResourceLocator, javaClasspath);
+    sensor = new JaCoCoSensor(configuration, perspectives, fileSystem, pathResolver, javaResourceLocator, javaClasspath, new ClassCoverageCache());
   }
 
   @Test
@@ -121,7 +122,7 @@ public class JaCoCoSensorTest {
     when(javaResourceLocator.findResourceByClassName("org/sonar/plugins/jacoco/tests/Hello")).thenReturn(resource);
     when(context.getResource(any(Resource.class))).thenReturn(resource);
 
-    when(javaClasspath.getBinaryDirs()).thenReturn(ImmutableList.of(outputDir));
+    when(javaClasspath.getClassFilesIndex()).thenReturn(ClassFilesIndex.create(ImmutableList.of(outputDir)));
     when(pathResolver.relativeFile(any(File.class), any(String.class))).thenReturn(jacocoExecutionData);
 
     sensor.analyse(project, context);
@@ -146,7 +147,7 @@ public class JaCoCoSensorTest {
 
     org.sonar.api.resources.File resource = mock(org.sonar.api.resources.File.class);
     when(context.getResource(any(Resource.class))).thenReturn(resource);
-    when(javaClasspath.getBinaryDirs()).thenReturn(ImmutableList.of(outputDir));
+    when(javaClasspath.getClassFilesIndex()).thenReturn(ClassFilesIndex.create(ImmutableList.of(outputDir)));
     when(pathResolver.relativeFile(any(File.class), any(String.class))).thenReturn(jacocoExecutionData);
 
     MutableTestable testAbleFile = mock(MutableTestable.class);
@@ -190,7 +191,7 @@ public class JaCoCoSensorTest {
 
     org.sonar.api.resources.File resource = mock(org.sonar.api.resources.File.class);
     when(context.getResource(any(Resource.class))).thenReturn(resource);
-    when(javaClasspath.getBinaryDirs()).thenReturn(ImmutableList.of(outputDir));
+    when(javaClasspath.getClassFilesIndex()).thenReturn(ClassFilesIndex.create(ImmutableList.of(outputDir)));
     when(pathResolver.relativeFile(any(File.class), any(String.class))).thenReturn(jacocoExecutionData);
 
     MutableTestable testAbleFile = mock(MutableTestable.class);
@@ -215,11 +216,11 @@ public class JaCoCoSensorTest {
     DefaultFileSystem fileSystem = new DefaultFileSystem(null);
     fileSystem.add(new DefaultInputFile("foo").setLanguage("java"));
     JacocoConfiguration configuration = new JacocoConfiguration(new Settings().addProperties(props), fileSystem);
-    JaCoCoSensor sensor_force_coverage = new JaCoCoSensor(configuration, perspectives, fs, pathResolver, javaResourceLocator, javaClasspath);
+    JaCoCoSensor sensor_force_coverage = new JaCoCoSensor(configuration, perspectives, fs, pathResolver, javaResourceLocator, javaClasspath, new ClassCoverageCache());
     outputDir = TestUtils.getResource("/org/sonar/plugins/jacoco/JaCoCoSensorTest/");
     org.sonar.api.resources.File resource = mock(org.sonar.api.resources.File.class);
     when(context.getResource(any(Resource.class))).thenReturn(resource);
-    when(javaClasspath.getBinaryDirs()).thenReturn(ImmutableList.of(outputDir));
+    when(javaClasspath.getClassFilesIndex()).thenReturn(ClassFilesIndex.create(ImmutableList.of(outputDir)));
     when(pathResolver.relativeFile(any(File.class), any(String.class))).thenReturn(new File("foo"));
     assertThat(sensor_force_coverage.shouldExecuteOnProject(project)).isTrue();
     sensor_force_coverage.analyse(project, context);
@@ -254,7 +255,7 @@ public class JaCoCoSensorTest {
   @Test
   public void do_not_save_measure_on_resource_which_doesnt_exist_in_the_context() {
     when(context.getResource(any(Resource.class))).thenReturn(null);
-    when(javaClasspath.getBinaryDirs()).thenReturn(ImmutableList.of(outputDir));
+    when(javaClasspath.getClassFilesIndex()).thenReturn(ClassFilesIndex.create(ImmutableList.of(outputDir)));
 
     sensor.analyse(project, context);
 
@@ -263,7 +264,7 @@ public class JaCoCoSensorTest {
 
   @Test
   public void should_do_nothing_if_output_dir_does_not_exists() {
-    when(javaClasspath.getBinaryDirs()).thenReturn(ImmutableList.of(new File("nowhere")));
+    when(javaClasspath.getClassFilesIndex()).thenReturn(ClassFilesIndex.create(ImmutableList.of(new File("nowhere"))));
 
     sensor.analyse(project, context);
 
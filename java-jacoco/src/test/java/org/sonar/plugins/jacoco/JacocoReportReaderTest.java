@@ -22,6 +22,7 @@ package org.sonar.plugins.jacoco;
 import com.google.common.collect.Lists;
 import org.apache.commons.io.FileUtils;
 import org.fest.assertions.Fail;
+import org.jacoco.core.data.ExecutionDataStore;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -31,6 +32,9 @@ import org.sonar.test.TestUtils;
 
 import java.io.File;
 import java.util.Collection;
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
 
 public class JacocoReportReaderTest {
 
@@ -62,6 +66,66 @@ public class JacocoReportReaderTest {
     new JacocoReportReader(report).analyzeFiles(null, classFile);
   }
 
+  @Test
+  public void classes_analyzed_against_same_probes_should_be_taken_from_cache() throws Exception {
+    File report = TestUtils.getResource("/org/sonar/plugins/jacoco/JaCoCov0_7_5_coverage_per_test/jacoco.exec");
+    Collection<File> classFile = Lists.newArrayList(TestUtils.getResource("/org/sonar/plugins/jacoco/JaCoCov0_7_5_coverage_per_test/example/One.class"));
+    ExecutionDataVisitor edv = new ExecutionDataVisitor();
+    JacocoReportReader jacocoReportReader = new JacocoReportReader(report).readJacocoReport(edv, edv);
+    File cacheFile = new File(testFolder.getRoot(), ClassCoverageCache.FILE_NAME);
+    ClassCoverageCache cache = new ClassCoverageCache(cacheFile);
+
+    Collection<LinesCoverage> firstAnalysis = jacocoReportReader.analyzeFiles(edv.getMerged(), classFile, cache);
+    assertThat(cache.size()).isEqualTo(1);
+    assertThat(firstAnalysis).hasSize(1);
+    LinesCoverage sourceFile = firstAnalysis.iterator().next();
+    assertThat(sourceFile.packageName()).isEqualTo("example");
+    assertThat(sourceFile.sourceFileName()).isEqualTo("One.java");
+    assertThat(coveredLines(sourceFile)).isNotEmpty();
+    cache.save();
+
+    // a later analysis reads the coverage of the class from the working directory
+    ClassCoverageCache reloadedCache = new ClassCoverageCache(cacheFile);
+    Collection<LinesCoverage> secondAnalysis = jacocoReportReader.analyzeFiles(edv.getMerged(), classFile, reloadedCache);
+    assertThat(reloadedCache.size()).isEqualTo(1);
+    assertThat(secondAnalysis).hasSize(1);
+    assertThat(secondAnalysis.iterator().next().lines()).isEqualTo(sourceFile.lines());
+    assertThat(coveredLines(secondAnalysis.iterator().next())).isEqualTo(coveredLines(sourceFile));
+
+    Collection<LinesCoverage> withoutProbes = jacocoReportReader.analyzeFiles(new ExecutionDataStore(), classFile, reloadedCache);
+    assertThat(reloadedCache.size()).isEqualTo(2);
+    assertThat(coveredLines(withoutProbes.iterator().next())).isEmpty();
+  }
+
+  @Test
+  public void cached_and_analyzed_coverage_should_be_the_same() {
+    File report = TestUtils.getResource("/org/sonar/plugins/jacoco/JaCoCov0_7_5_coverage_per_test/jacoco.exec");
+    Collection<File> classFile = Lists.newArrayList(TestUtils.getResource("/org/sonar/plugins/jacoco/JaCoCov0_7_5_coverage_per_test/example/One.class"));
+    ExecutionDataVisitor edv = new ExecutionDataVisitor();
+    JacocoReportReader jacocoReportReader = new JacocoReportReader(report).readJacocoReport(edv, edv);
+    ClassCoverageCache cache = new ClassCoverageCache();
+    jacocoReportReader.analyzeFiles(edv.getMerged(), classFile, cache);
+
+    LinesCoverage analyzed = jacocoReportReader.analyzeFiles(edv.getMerged(), classFile).iterator().next();
+    LinesCoverage cached = jacocoReportReader.analyzeFiles(edv.getMerged(), classFile, cache).iterator().next();
+    for (int line : analyzed.lines()) {
+      assertThat(cached.coveredInstructions(line)).isEqualTo(analyzed.coveredInstructions(line));
+      assertThat(cached.missedInstructions(line)).isEqualTo(analyzed.missedInstructions(line));
+      assertThat(cached.coveredBranches(line)).isEqualTo(analyzed.coveredBranches(line));
+      assertThat(cached.missedBranches(line)).isEqualTo(analyzed.missedBranches(line));
+    }
+  }
+
+  private static List<Integer> coveredLines(LinesCoverage coverage) {
+    List<Integer> lines = Lists.newArrayList();
+    for (int line : coverage.lines()) {
+      if (coverage.coveredInstructions(line) > 0) {
+        lines.add(line);
+      }
+    }
+    return lines;
+  }
+
   @Test
   public void analyzing_a_deleted_file_should_fail() throws Exception {
     File report = testFolder.newFile("jacoco.exec");
@@ -61,6 +61,7 @@ public abstract class AbstractJavaClasspath implements BatchExtension {
   protected List<File> elements;
   protected boolean validateLibraries;
   protected boolean initialized;
+  private ClassFilesIndex classFilesIndex;
 
   public AbstractJavaClasspath(Project project, Settings settings, FileSystem fs, InputFile.Type fileType) {
     this.project = project;
@@ -176,6 +177,16 @@ public abstract class AbstractJavaClasspath implements BatchExtension {
     return binaries;
   }
 
+  /**
+   * Index of the class files of binary directories, computed once and shared by all the users of this classpath.
+   */
+  public ClassFilesIndex getClassFilesIndex() {
+    if (classFilesIndex == null) {
+      classFilesIndex = ClassFilesIndex.create(getBinaryDirs());
+    }
+    return classFilesIndex;
+  }
+
   private static class WilcardPatternFileFilter implements IOFileFilter {
     private File baseDir;
     private WildcardPattern wildcardPattern;
@@ -0,0 +1,171 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * sonarqube@googlegroups.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import javax.annotation.CheckForNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Index of the class files contained in binary directories, by internal name of the class (for instance "org/foo/Bar$Baz").
+ * When a class is found in several binary directories, the first directory wins.
+ */
+public class ClassFilesIndex {
+
+  private static final String CLASS_SUFFIX = ".class";
+
+  private final Map<String, File> classFiles;
+
+  private ClassFilesIndex(Map<String, File> classFiles) {
+    this.classFiles = classFiles;
+  }
+
+  /**
+   * Walks the binary directories: sub-directories of each binary directory are walked concurrently.
+   */
+  public static ClassFilesIndex create(List<File> binaryDirs) {
+    List<Callable<Map<String, File>>> tasks = Lists.newArrayList();
+    for (File binaryDir : binaryDirs) {
+      File[] children = binaryDir.listFiles();
+      if (children == null) {
+        continue;
+      }
+      Path root = binaryDir.toPath();
+      for (File child : children) {
+        tasks.add(new Walker(root, child.toPath()));
+      }
+    }
+    Map<String, File> classFiles = Maps.newHashMap();
+    for (Map<String, File> classFilesOfTask : execute(tasks)) {
+      for (Map.Entry<String, File> entry : classFilesOfTask.entrySet()) {
+        if (!classFiles.containsKey(entry.getKey())) {
+          classFiles.put(entry.getKey(), entry.getValue());
+        }
+      }
+    }
+    return new ClassFilesIndex(classFiles);
+  }
+
+  private static List<Map<String, File>> execute(List<Callable<Map<String, File>>> tasks) {
+    List<Map<String, File>> results = Lists.newArrayList();
+    int nbThreads = Math.min(Runtime.getRuntime().availableProcessors(), tasks.size());
+    if (nbThreads <= 1) {
+      for (Callable<Map<String, File>> task : tasks) {
+        results.add(call(task));
+      }
+      return results;
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(nbThreads);
+    try {
+      // futures are returned in the order of the tasks, so that the first binary directory still wins
+      for (Future<Map<String, File>> future : executor.invokeAll(tasks)) {
+        results.add(future.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while indexing class files", e);
+    } catch (ExecutionException e) {
+      throw Throwables.propagate(e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+    return results;
+  }
+
+  private static Map<String, File> call(Callable<Map<String, File>> task) {
+    try {
+      return task.call();
+    } catch (Exception e) {
+      throw Throwables.propagate(e);
+    }
+  }
+
+  @CheckForNull
+  public File classFile(String internalName) {
+    return classFiles.get(internalName);
+  }
+
+  public Collection<File> classFiles() {
+    return Collections.unmodifiableCollection(classFiles.values());
+  }
+
+  public boolean isEmpty() {
+    return classFiles.isEmpty();
+  }
+
+  public int size() {
+    return classFiles.size();
+  }
+
+  private static class Walker extends SimpleFileVisitor<Path> implements Callable<Map<String, File>> {
+    private final Path root;
+    private final Path start;
+    private final Map<String, File> classFiles = Maps.newHashMap();
+
+    Walker(Path root, Path start) {
+      this.root = root;
+      this.start = start;
+    }
+
+    @Override
+    public Map<String, File> call() throws IOException {
+      Files.walkFileTree(start, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, this);
+      return classFiles;
+    }
+
+    @Override
+    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+      String fileName = file.getFileName().toString();
+      if (attrs.isRegularFile() && fileName.endsWith(CLASS_SUFFIX)) {
+        String relativePath = root.relativize(file).toString().replace(File.separatorChar, '/');
+        classFiles.put(relativePath.substring(0, relativePath.length() - CLASS_SUFFIX.length()), file.toFile());
+      }
+      return FileVisitResult.CONTINUE;
+    }
+
+    @Override
+    public FileVisitResult visitFileFailed(Path file, IOException exc) {
+      // unreadable files and directories are ignored
+      return FileVisitResult.CONTINUE;
+    }
+  }
+
+}
@@ -91,14 +91,11 @@ public class DefaultJavaResourceLocator implements JavaResourceLocator {
   @Override
   public Collection<File> classFilesToAnalyze() {
     ImmutableList.Builder<File> result = ImmutableList.builder();
+    ClassFilesIndex classFilesIndex = javaClasspath.getClassFilesIndex();
     for (String key : classKeys()) {
-      String filePath = key + ".class";
-      for (File binaryDir : javaClasspath.getBinaryDirs()) {
-        File classFile = new File(binaryDir, filePath);
-        if (classFile.isFile()) {
-          result.add(classFile);
-          break;
-        }
+      File classFile = classFilesIndex.classFile(key);
+      if (classFile != null) {
+        result.add(classFile);
       }
     }
     return result.build();
@@ -25,6 +25,11 @@ public class JavaConfiguration {
 
   private final Charset charset;
   private boolean separateAccessorsFromMethods = true;
+  private boolean analysisMetricsEnabled = false;
+  private long checkTimeBudgetMillis = 0;
+  private long parseTimeBudgetMillis = 0;
+  private long semanticTimeBudgetMillis = 0;
+  private int maxSkippedMembersOnParseError = 0;
 
   public JavaConfiguration(Charset charset) {
     this.charset = charset;
@@ -42,4 +47,60 @@ public class JavaConfiguration {
     this.separateAccessorsFromMethods = separateAccessorsFromMethods;
   }
 
+  /**
+   * @return whether time and allocations of the analysis are measured, see {@link org.sonar.java.monitoring.AnalysisMetrics}
+   */
+  public boolean isAnalysisMetricsEnabled() {
+    return analysisMetricsEnabled;
+  }
+
+  public void setAnalysisMetricsEnabled(boolean analysisMetricsEnabled) {
+    this.analysisMetricsEnabled = analysisMetricsEnabled;
+  }
+
+  /**
+   * @return time allowed to each check on each file, in milliseconds, or 0 when checks are not limited
+   */
+  public long getCheckTimeBudgetMillis() {
+    return checkTimeBudgetMillis;
+  }
+
+  public void setCheckTimeBudgetMillis(long checkTimeBudgetMillis) {
+    this.checkTimeBudgetMillis = checkTimeBudgetMillis;
+  }
+
+  /**
+   * @return time allowed to the parsing of each file, in milliseconds, or 0 when parsing is not limited
+   */
+  public long getParseTimeBudgetMillis() {
+    return parseTimeBudgetMillis;
+  }
+
+  public void setParseTimeBudgetMillis(long parseTimeBudgetMillis) {
+    this.parseTimeBudgetMillis = parseTimeBudgetMillis;
+  }
+
+  /**
+   * @return time allowed to the semantic analysis of each file, in milliseconds, or 0 when it is not limited
+   */
+  public long getSemanticTimeBudgetMillis() {
+    return semanticTimeBudgetMillis;
+  }
+
+  public void setSemanticTimeBudgetMillis(long semanticTimeBudgetMillis) {
+    this.semanticTimeBudgetMillis = semanticTimeBudgetMillis;
+  }
+
+  /**
+   * @return number of members with parse errors that can be skipped to analyze the rest of a file, or 0 when files with parse
+   * errors are not analyzed
+   */
+  public int getMaxSkippedMembersOnParseError() {
+    return maxSkippedMembersOnParseError;
+  }
+
+  public void setMaxSkippedMembersOnParseError(int maxSkippedMembersOnParseError) {
+    this.maxSkippedMembersOnParseError = maxSkippedMembersOnParseError;
+  }
+
 }
@@ -20,11 +20,10 @@
 package org.sonar.java;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Multimap;
 import org.apache.commons.lang.StringUtils;
+import org.sonar.java.collections.IntervalSet;
 import org.sonar.java.model.JavaTree;
 import org.sonar.java.model.JavaTree.PackageDeclarationTreeImpl;
 import org.sonar.java.model.LiteralUtils;
@@ -58,8 +57,11 @@ public class JavaFilesCache extends BaseTreeVisitor implements JavaFileScanner {
   @VisibleForTesting
   Map<String, Integer> methodStartLines = Maps.newHashMap();
 
+  /**
+   * Lines covered by each warning of <code>@SuppressWarnings</code> annotations.
+   */
   @VisibleForTesting
-  Multimap<Integer, String> suppressWarningLines = HashMultimap.create();
+  Map<String, IntervalSet> suppressWarningLines = Maps.newHashMap();
 
   private File currentFile;
   private Deque<String> currentClassKey = new LinkedList<>();
@@ -75,7 +77,7 @@ public class JavaFilesCache extends BaseTreeVisitor implements JavaFileScanner {
     return methodStartLines;
   }
 
-  public Multimap<Integer, String> getSuppressWarningLines() {
+  public Map<String, IntervalSet> getSuppressWarningLines() {
     return suppressWarningLines;
   }
 
@@ -169,18 +171,20 @@ public class JavaFilesCache extends BaseTreeVisitor implements JavaFileScanner {
   }
 
   private void handleSuppressWarning(List<AnnotationTree> annotationTrees, int endLine) {
-    int startLine = 0;
-    List<String> warnings = Lists.newArrayList();
     for (AnnotationTree annotationTree : annotationTrees) {
       if (isSuppressWarningsAnnotation(annotationTree)) {
-        startLine = ((JavaTree) annotationTree).getLine();
-        warnings.addAll(getSuppressWarningArgs(annotationTree));
+        int startLine = ((JavaTree) annotationTree).getLine();
+        for (String warning : getSuppressWarningArgs(annotationTree)) {
+          IntervalSet lines = suppressWarningLines.get(warning);
+          if (lines == null) {
+            lines = new IntervalSet();
+            suppressWarningLines.put(warning, lines);
+          }
+          lines.add(startLine, endLine);
+        }
         break;
       }
     }
-    for (int i = startLine; i <= endLine; i++) {
-      suppressWarningLines.putAll(i, warnings);
-    }
   }
 
   private static boolean isSuppressWarningsAnnotation(AnnotationTree annotationTree) {
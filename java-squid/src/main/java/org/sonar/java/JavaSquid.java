@@ -37,6 +37,9 @@ import org.sonar.java.ast.visitors.SyntaxHighlighterVisitor;
 import org.sonar.java.bytecode.BytecodeScanner;
 import org.sonar.java.bytecode.visitor.DependenciesVisitor;
 import org.sonar.java.model.VisitorsBridge;
+import org.sonar.java.monitoring.AnalysisMetrics;
+import org.sonar.java.monitoring.AnalysisMetricsReport;
+import org.sonar.java.monitoring.CheckTimeBudget;
 import org.sonar.plugins.java.api.JavaResourceLocator;
 import org.sonar.squidbridge.api.CodeVisitor;
 import org.sonar.squidbridge.api.Query;
@@ -53,12 +56,18 @@ import java.util.List;
 public class JavaSquid implements SourceCodeSearchEngine {
 
   private static final Logger LOG = LoggerFactory.getLogger(JavaSquid.class);
+  private static final int COSTLIEST_CHECKS_COUNT = 10;
 
   private final SquidIndex squidIndex;
   private final JavaAstScanner astScanner;
   private final JavaAstScanner astScannerForTests;
   private final BytecodeScanner bytecodeScanner;
   private final DirectedGraph<Resource, Dependency> graph = new DirectedGraph<>();
+  private final DependenciesVisitor dependenciesVisitor = new DependenciesVisitor(graph);
+  private final AnalysisMetrics metrics;
+  private final CheckTimeBudget checkTimeBudget;
+  private final CheckTimeBudget parseTimeBudget;
+  private final CheckTimeBudget semanticTimeBudget;
 
   private boolean bytecodeScanned = false;
 
@@ -72,6 +81,10 @@ public class JavaSquid implements SourceCodeSearchEngine {
                    JavaResourceLocator javaResourceLocator, CodeVisitor... visitors) {
 
 
+    checkTimeBudget = createTimeBudget(conf.getCheckTimeBudgetMillis());
+    metrics = createMetrics(conf.isAnalysisMetricsEnabled(), checkTimeBudget != null);
+    parseTimeBudget = createTimeBudget(conf.getParseTimeBudgetMillis());
+    semanticTimeBudget = createTimeBudget(conf.getSemanticTimeBudgetMillis());
     Iterable<CodeVisitor> codeVisitors = Iterables.concat(Arrays.asList(javaResourceLocator), Arrays.asList(visitors));
     if (measurer != null) {
       Iterable<CodeVisitor> measurers = Arrays.asList((CodeVisitor) measurer);
@@ -85,35 +98,57 @@ public class JavaSquid implements SourceCodeSearchEngine {
           codeVisitors,
           Arrays.asList(
               new FileLinesVisitor(sonarComponents, conf.getCharset()),
-              new SyntaxHighlighterVisitor(sonarComponents, conf.getCharset())
+              new SyntaxHighlighterVisitor(sonarComponents)
           )
       );
-      testCodeVisitors.add(new SyntaxHighlighterVisitor(sonarComponents, conf.getCharset()));
+      testCodeVisitors.add(new SyntaxHighlighterVisitor(sonarComponents));
       classpath = sonarComponents.getJavaClasspath();
       testClasspath = sonarComponents.getJavaTestClasspath();
       testCodeVisitors.addAll(sonarComponents.testCheckClasses());
     }
 
     //AstScanner for main files
-    astScanner = new JavaAstScanner(JavaParser.createParser(conf.getCharset()));
+    astScanner = new JavaAstScanner(JavaParser.createParser(conf.getCharset(), parseTimeBudget));
+    astScanner.setMetrics(metrics);
+    astScanner.setParseTimeBudget(parseTimeBudget);
+    astScanner.setParseErrorRecovery(conf.getCharset(), conf.getMaxSkippedMembersOnParseError());
     astScanner.setVisitorBridge(createVisitorBridge(codeVisitors, classpath, conf, sonarComponents));
 
     //AstScanner for test files
     astScannerForTests = new JavaAstScanner(astScanner);
+    astScannerForTests.setParseTimeBudget(parseTimeBudget);
+    astScannerForTests.setParseErrorRecovery(conf.getCharset(), conf.getMaxSkippedMembersOnParseError());
     astScannerForTests.setVisitorBridge(createVisitorBridge(testCodeVisitors, testClasspath, conf, sonarComponents));
 
     //Bytecode scanner
     squidIndex = (SquidIndex) astScanner.getIndex();
     bytecodeScanner = new BytecodeScanner(squidIndex, javaResourceLocator);
-    bytecodeScanner.accept(new DependenciesVisitor(graph));
+    bytecodeScanner.setMetrics(metrics);
+    bytecodeScanner.accept(dependenciesVisitor);
     for (CodeVisitor visitor : visitors) {
       bytecodeScanner.accept(visitor);
     }
 
   }
 
-  private static VisitorsBridge createVisitorBridge(Iterable<CodeVisitor> codeVisitors, List<File> classpath, JavaConfiguration conf, @Nullable SonarComponents sonarComponents) {
+  private static AnalysisMetrics createMetrics(boolean analysisMetricsEnabled, boolean checkTimeBudgetEnabled) {
+    if (analysisMetricsEnabled) {
+      return new AnalysisMetrics();
+    }
+    // checks are timed anyway when they have a budget, so that the costliest ones are reported
+    return checkTimeBudgetEnabled ? AnalysisMetrics.checksOnly() : AnalysisMetrics.disabled();
+  }
+
+  @Nullable
+  private static CheckTimeBudget createTimeBudget(long budgetMillis) {
+    return budgetMillis > 0 ? new CheckTimeBudget(budgetMillis) : null;
+  }
+
+  private VisitorsBridge createVisitorBridge(Iterable<CodeVisitor> codeVisitors, List<File> classpath, JavaConfiguration conf, @Nullable SonarComponents sonarComponents) {
     VisitorsBridge visitorsBridge = new VisitorsBridge(codeVisitors, classpath, sonarComponents);
+    visitorsBridge.setMetrics(metrics);
+    visitorsBridge.setCheckTimeBudget(checkTimeBudget);
+    visitorsBridge.setSemanticTimeBudget(semanticTimeBudget);
     visitorsBridge.setCharset(conf.getCharset());
     visitorsBridge.setAnalyseAccessors(conf.separatesAccessorsFromMethods());
     return visitorsBridge;
@@ -121,9 +156,20 @@ public class JavaSquid implements SourceCodeSearchEngine {
 
 
   public void scan(Iterable<File> sourceFiles, Iterable<File> testFiles, Collection<File> bytecodeFilesOrDirectories) {
-    scanSources(sourceFiles);
-    scanBytecode(bytecodeFilesOrDirectories);
-    scanTests(testFiles);
+    try {
+      scanSources(sourceFiles);
+      scanBytecode(bytecodeFilesOrDirectories);
+      scanTests(testFiles);
+    } finally {
+      for (CheckTimeBudget budget : Arrays.asList(checkTimeBudget, parseTimeBudget, semanticTimeBudget)) {
+        if (budget != null) {
+          budget.close();
+        }
+      }
+    }
+    if (LOG.isInfoEnabled() && !metrics.slowestChecks(1).isEmpty()) {
+      LOG.info("Costliest checks:\n" + AnalysisMetricsReport.checksSummary(metrics, COSTLIEST_CHECKS_COUNT));
+    }
   }
 
   private void scanSources(Iterable<File> sourceFiles) {
@@ -143,6 +189,9 @@ public class JavaSquid implements SourceCodeSearchEngine {
       TimeProfiler profiler = new TimeProfiler(getClass()).start("Java bytecode scan");
 
       bytecodeScanner.scan(bytecodeFilesOrDirectories);
+      AnalysisMetrics.Probe probe = metrics.start();
+      dependenciesVisitor.buildGraph();
+      metrics.record(AnalysisMetrics.BYTECODE_DEPENDENCIES, probe);
       bytecodeScanned = true;
       profiler.stop();
     } else {
@@ -177,6 +226,10 @@ public class JavaSquid implements SourceCodeSearchEngine {
     return graph;
   }
 
+  public AnalysisMetrics getMetrics() {
+    return metrics;
+  }
+
   @Override
   public SourceCode search(String key) {
     return squidIndex.search(key);
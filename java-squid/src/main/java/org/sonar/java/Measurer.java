@@ -31,8 +31,7 @@ import org.sonar.api.measures.Metric;
 import org.sonar.api.measures.PersistenceMode;
 import org.sonar.api.measures.RangeDistributionBuilder;
 import org.sonar.java.ast.visitors.AccessorsUtils;
-import org.sonar.java.ast.visitors.CommentLinesVisitor;
-import org.sonar.java.ast.visitors.LinesOfCodeVisitor;
+import org.sonar.java.ast.visitors.LineMetricsVisitor;
 import org.sonar.java.ast.visitors.PublicApiChecker;
 import org.sonar.java.ast.visitors.StatementVisitor;
 import org.sonar.java.ast.visitors.SubscriptionVisitor;
@@ -94,9 +93,8 @@ public class Measurer extends SubscriptionVisitor implements CharsetAwareVisitor
     }
     publicApiChecker.scan(context.getTree());
     methodComplexityDistribution = new RangeDistributionBuilder(CoreMetrics.FUNCTION_COMPLEXITY_DISTRIBUTION, LIMITS_COMPLEXITY_METHODS);
-    CommentLinesVisitor commentLinesVisitor = new CommentLinesVisitor();
-    commentLinesVisitor.analyzeCommentLines(context.getTree());
-    context.addNoSonarLines(commentLinesVisitor.noSonarLines());
+    LineMetricsVisitor lineMetrics = LineMetricsVisitor.forContext(context);
+    context.addNoSonarLines(lineMetrics.noSonarLines());
     super.scanFile(context);
     //leave file.
     int fileComplexity = context.getComplexity(context.getTree());
@@ -108,19 +106,23 @@ public class Measurer extends SubscriptionVisitor implements CharsetAwareVisitor
     saveMetricOnFile(CoreMetrics.PUBLIC_API, publicApiChecker.getPublicApi());
     saveMetricOnFile(CoreMetrics.PUBLIC_DOCUMENTED_API_DENSITY, publicApiChecker.getDocumentedPublicApiDensity());
     saveMetricOnFile(CoreMetrics.PUBLIC_UNDOCUMENTED_API, publicApiChecker.getUndocumentedPublicApi());
-    saveMetricOnFile(CoreMetrics.COMMENT_LINES, commentLinesVisitor.commentLinesMetric());
+    saveMetricOnFile(CoreMetrics.COMMENT_LINES, lineMetrics.commentLines());
     saveMetricOnFile(CoreMetrics.STATEMENTS, new StatementVisitor().numberOfStatements(context.getTree()));
-    saveMetricOnFile(CoreMetrics.NCLOC, new LinesOfCodeVisitor().linesOfCode(context.getTree()));
+    saveMetricOnFile(CoreMetrics.NCLOC, lineMetrics.linesOfCode());
 
     sensorContext.saveMeasure(sonarFile, methodComplexityDistribution.build(true).setPersistenceMode(PersistenceMode.MEMORY));
 
     RangeDistributionBuilder fileComplexityDistribution = new RangeDistributionBuilder(CoreMetrics.FILE_COMPLEXITY_DISTRIBUTION, LIMITS_COMPLEXITY_FILES);
     sensorContext.saveMeasure(sonarFile, fileComplexityDistribution.add(fileComplexity).build(true).setPersistenceMode(PersistenceMode.MEMORY));
-    saveLinesMetric();
+    saveLinesMetric(lineMetrics);
 
   }
 
-  private void saveLinesMetric() {
+  private void saveLinesMetric(LineMetricsVisitor lineMetrics) {
+    if (lineMetrics.lines() >= 0) {
+      saveMetricOnFile(CoreMetrics.LINES, lineMetrics.lines());
+      return;
+    }
     try {
       String content = Files.toString(context.getFile(), charset);
       saveMetricOnFile(CoreMetrics.LINES, content.split("(\r)?\n|\r", -1).length);
@@ -0,0 +1,83 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * sonarqube@googlegroups.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.ast;
+
+import com.google.common.io.Closeables;
+import org.sonar.java.JavaConfiguration;
+import org.sonar.java.bytecode.ClassLoaderBuilder;
+import org.sonar.java.model.VisitorsBridge;
+import org.sonar.squidbridge.api.SourceFile;
+
+import java.io.Closeable;
+import java.io.File;
+import java.util.Collections;
+
+/**
+ * Analysis of single files kept open between analyses, for integrations analyzing a file each time it is saved.
+ * The parser, the index and the class loader of the project classpath are created once per session instead of once per
+ * analyzed file. Each call to {@link #analyze(File)} parses and analyzes the whole file.
+ */
+public class JavaAnalysisSession implements Closeable {
+
+  private final JavaAstScanner scanner;
+  private final VisitorsBridge visitorsBridge;
+  private ClassLoader classLoader;
+
+  public JavaAnalysisSession(JavaConfiguration conf, VisitorsBridge visitorsBridge) {
+    this.scanner = JavaAstScanner.create(conf, visitorsBridge);
+    this.scanner.setParseErrorRecovery(conf.getCharset(), conf.getMaxSkippedMembersOnParseError());
+    this.visitorsBridge = visitorsBridge;
+    this.classLoader = createClassLoader();
+  }
+
+  public SourceFile analyze(File file) {
+    if (!file.isFile()) {
+      throw new IllegalArgumentException("File '" + file + "' not found.");
+    }
+    scanner.scan(Collections.singleton(file));
+    return (SourceFile) scanner.getIndex().search(file.getAbsolutePath());
+  }
+
+  /**
+   * Loads the project classpath again, to be called when its bytecode changed (for instance after a compilation).
+   */
+  public void refreshClasspath() {
+    closeClassLoader();
+    classLoader = createClassLoader();
+  }
+
+  @Override
+  public void close() {
+    closeClassLoader();
+  }
+
+  private ClassLoader createClassLoader() {
+    ClassLoader result = ClassLoaderBuilder.create(visitorsBridge.getProjectClasspath());
+    visitorsBridge.setClassLoader(result);
+    return result;
+  }
+
+  private void closeClassLoader() {
+    if (classLoader instanceof Closeable) {
+      Closeables.closeQuietly((Closeable) classLoader);
+    }
+  }
+
+}
@@ -21,13 +21,17 @@ package org.sonar.java.ast;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
+import com.google.common.io.Files;
 import com.sonar.sslr.api.RecognitionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.java.JavaConfiguration;
 import org.sonar.java.ast.parser.JavaParser;
 import org.sonar.java.ast.visitors.VisitorContext;
+import org.sonar.java.collections.IntervalSet;
 import org.sonar.java.model.VisitorsBridge;
+import org.sonar.java.monitoring.AnalysisMetrics;
+import org.sonar.java.monitoring.CheckTimeBudget;
 import com.sonar.sslr.api.typed.ActionParser;
 import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.squidbridge.ProgressReport;
@@ -41,6 +45,7 @@ import org.sonar.squidbridge.indexer.SquidIndex;
 
 import javax.annotation.Nullable;
 import java.io.File;
+import java.io.IOException;
 import java.nio.charset.Charset;
 import java.util.Collection;
 import java.util.Collections;
@@ -53,18 +58,24 @@ public class JavaAstScanner {
   private final SquidIndex index;
   private final ActionParser<Tree> parser;
   private VisitorsBridge visitor;
+  private AnalysisMetrics metrics;
+  private CheckTimeBudget parseTimeBudget;
+  private Charset charset;
+  private int maxSkippedMembers;
 
   public JavaAstScanner(ActionParser<Tree> parser) {
     this.parser = parser;
     this.index = new SquidIndex();
+    this.metrics = AnalysisMetrics.disabled();
   }
 
   /**
-   * Takes parser and index from another instance of {@link JavaAstScanner}
+   * Takes parser, index and metrics from another instance of {@link JavaAstScanner}
    */
   public JavaAstScanner(JavaAstScanner astScanner) {
     this.parser = astScanner.parser;
     this.index = astScanner.index;
+    this.metrics = astScanner.metrics;
   }
 
   public void scan(Iterable<File> files) {
@@ -89,15 +100,17 @@ public class JavaAstScanner {
     progressReport.start(Lists.newArrayList(files));
     for (File file : files) {
       context.setFile(file);
+      AnalysisMetrics.Probe probe = metrics.start();
       try {
-        Tree ast = parser.parse(file);
+        Tree ast = parse(file);
+        metrics.record(file, AnalysisMetrics.PARSE, probe);
         visitor.visitFile(ast);
         progressReport.nextFile();
       } catch (RecognitionException e) {
         LOG.error("Unable to parse source file : " + file.getAbsolutePath());
         LOG.error(e.getMessage());
 
-        parseErrorWalkAndVisit(e, file);
+        parseErrorWalkAndVisit(e, file, probe);
       } catch (Exception e) {
         throw new AnalysisException(getAnalyisExceptionMessage(file), e);
       }
@@ -105,16 +118,95 @@ public class JavaAstScanner {
     progressReport.stop();
   }
 
-  private void parseErrorWalkAndVisit(RecognitionException e, File file) {
+  /**
+   * @return the syntax tree of the file, or null when parsing exceeded the parse time budget: the file is then visited
+   * as an empty compilation unit, as for files with parse errors
+   */
+  @Nullable
+  private Tree parse(File file) {
+    return parse(file, null);
+  }
+
+  /**
+   * @param source content of the file to parse instead of the file itself, or null to parse the file
+   */
+  @Nullable
+  private Tree parse(File file, @Nullable String source) {
+    if (parseTimeBudget == null) {
+      return source == null ? parser.parse(file) : parser.parse(source);
+    }
+    parseTimeBudget.start();
     try {
+      return source == null ? parser.parse(file) : parser.parse(source);
+    } catch (CheckTimeBudget.ExceededException e) {
+      LOG.warn("Parsing of file " + file.getAbsolutePath() + " has been aborted: it exceeded its time budget of "
+        + parseTimeBudget.budgetMillis() + " ms. The file is not analyzed.");
+      return null;
+    } finally {
+      parseTimeBudget.stop();
+    }
+  }
+
+  private void parseErrorWalkAndVisit(RecognitionException e, File file, AnalysisMetrics.Probe probe) {
+    try {
+      IntervalSet skippedLines = new IntervalSet();
+      Tree recoveredTree = recover(file, e, skippedLines);
+      // the parse time includes the time spent in recovery
+      metrics.record(file, AnalysisMetrics.PARSE, probe);
+      if (recoveredTree == null) {
+        visitor.visitFile(null);
+      } else {
+        visitor.visitRecoveredFile(recoveredTree, skippedLines);
+      }
       // Process the exception
-      visitor.visitFile(null);
       visitor.processRecognitionException(e);
     } catch (Exception e2) {
       throw new AnalysisException(getAnalyisExceptionMessage(file), e2);
     }
   }
 
+  /**
+   * Skips the members of top-level types and the top-level declarations which cannot be parsed, see {@link ParseErrorRecovery}.
+   * Each of them from the one with the parse error is parsed once on its own, then the file is parsed once without the ones
+   * which failed: recovery costs about two parses of the file whatever the number of parse errors.
+   * @param skippedLines filled with the lines of the skipped members and preprocessor directives
+   * @return the syntax tree of the file without the skipped members, or null when recovery is disabled or fails
+   */
+  @Nullable
+  private Tree recover(File file, RecognitionException e, IntervalSet skippedLines) throws IOException {
+    if (maxSkippedMembers <= 0) {
+      return null;
+    }
+    ParseErrorRecovery recovery = new ParseErrorRecovery(Files.toString(file, charset), skippedLines);
+    int skippedMembers = 0;
+    for (ParseErrorRecovery.Region region : recovery.regionsFrom(e.getLine())) {
+      if (!isParsable(file, recovery.parsableSource(region))) {
+        skippedMembers++;
+        if (skippedMembers > maxSkippedMembers) {
+          return null;
+        }
+        recovery.skip(region);
+      }
+    }
+    try {
+      Tree tree = parse(file, recovery.source());
+      if (tree != null) {
+        LOG.warn("File " + file.getAbsolutePath() + " is analyzed without the lines that could not be parsed: " + skippedLines);
+      }
+      return tree;
+    } catch (RecognitionException next) {
+      return null;
+    }
+  }
+
+  private boolean isParsable(File file, String source) {
+    try {
+      return parse(file, source) != null;
+    } catch (RecognitionException e) {
+      return false;
+    }
+  }
+
   private static String getAnalyisExceptionMessage(File file) {
     return "SonarQube is unable to analyze file : '" + file.getAbsolutePath() + "'";
   }
@@ -123,6 +215,30 @@ public class JavaAstScanner {
     this.visitor = visitor;
   }
 
+  public void setMetrics(AnalysisMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  /**
+   * @param parseTimeBudget budget started around each parse, which interrupts only a parser created with that same budget,
+   * see {@link JavaParser#createParser(Charset, CheckTimeBudget)}
+   */
+  public void setParseTimeBudget(@Nullable CheckTimeBudget parseTimeBudget) {
+    this.parseTimeBudget = parseTimeBudget;
+  }
+
+  /**
+   * @param maxSkippedMembers number of members with parse errors that can be skipped to analyze the rest of a file, 0 to disable recovery
+   */
+  public void setParseErrorRecovery(Charset charset, int maxSkippedMembers) {
+    this.charset = charset;
+    this.maxSkippedMembers = maxSkippedMembers;
+  }
+
+  public AnalysisMetrics getMetrics() {
+    return metrics;
+  }
+
   public SourceCodeSearchEngine getIndex() {
     return index;
   }
@@ -145,7 +261,7 @@ public class JavaAstScanner {
     return (SourceFile) sources.iterator().next();
   }
 
-  private static JavaAstScanner create(JavaConfiguration conf, @Nullable VisitorsBridge visitorsBridge) {
+  static JavaAstScanner create(JavaConfiguration conf, @Nullable VisitorsBridge visitorsBridge) {
     JavaAstScanner astScanner = new JavaAstScanner(JavaParser.createParser(conf.getCharset()));
     if(visitorsBridge != null) {
       visitorsBridge.setCharset(conf.getCharset());
@@ -0,0 +1,261 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * sonarqube@googlegroups.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.ast;
+
+import com.google.common.collect.Lists;
+import org.sonar.java.ast.parser.LineOffsets;
+import org.sonar.java.collections.IntervalSet;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Removes the parts of a source which cannot be parsed, at the granularity of the top-level declarations and of the members of
+ * top-level types, so that the rest of it can be parsed and analyzed.
+ * <p/>
+ * The source is split into regions in a single lexical pass, braces being counted outside of literals and comments. Each region
+ * can be parsed on its own, wrapped into a type of the same kind as the type declaring it, see {@link #parsableSource(Region)}.
+ * Preprocessor directive lines, whose first character is '#', are always removed.
+ * Removed characters are replaced by spaces and line terminators are kept, so that lines, columns and offsets of the remaining
+ * tokens are those of the original source.
+ */
+final class ParseErrorRecovery {
+
+  private static final Pattern ANNOTATION_TYPE = Pattern.compile("@\\s*interface\\b");
+  private static final Pattern ENUM = Pattern.compile("\\benum\\b");
+  private static final Pattern INTERFACE = Pattern.compile("\\binterface\\b");
+  private static final String ENUM_CONSTANTS_WRAPPER = "enum Recovered {";
+  private static final String ENUM_MEMBERS_WRAPPER = "enum Recovered {;";
+
+  private final char[] chars;
+  private final LineOffsets offsets;
+  private final IntervalSet skippedLines;
+  private final List<Region> regions = Lists.newArrayList();
+
+  /**
+   * @param skippedLines filled with the lines removed from the source
+   */
+  ParseErrorRecovery(String source, IntervalSet skippedLines) {
+    this.chars = source.toCharArray();
+    this.offsets = LineOffsets.of(chars);
+    this.skippedLines = skippedLines;
+    scan();
+  }
+
+  /**
+   * @param line starts from 1
+   * @return the regions from the one preceding the given line, which may be the one actually containing a parse error
+   * reported on that line
+   */
+  List<Region> regionsFrom(int line) {
+    int offset = offsets.lineStart(Math.max(1, Math.min(line, offsets.lineCount())));
+    int first = 0;
+    while (first < regions.size() && regions.get(first).end <= offset) {
+      first++;
+    }
+    return regions.subList(Math.max(0, first - 1), regions.size());
+  }
+
+  /**
+   * @return the region of the current source, wrapped into a type when it is a member
+   */
+  String parsableSource(Region region) {
+    String text = new String(chars, region.start, region.end - region.start);
+    return region.wrapper.isEmpty() ? text : (region.wrapper + text + "\n}");
+  }
+
+  void skip(Region region) {
+    int lastCode = region.end - 1;
+    while (lastCode > region.codeStart && Character.isWhitespace(chars[lastCode])) {
+      lastCode--;
+    }
+    blank(region.start, region.end);
+    skippedLines.add(offsets.line(region.codeStart), offsets.line(lastCode));
+  }
+
+  String source() {
+    return new String(chars);
+  }
+
+  private void scan() {
+    int depth = 0;
+    int regionStart = 0;
+    int codeStart = -1;
+    String wrapper = "";
+    boolean lineStart = true;
+    // state of the current region, to tell the body of a member or type from the blocks of initializers and annotations
+    int parenDepth = 0;
+    boolean initializer = false;
+    boolean bodyOpen = false;
+    int i = 0;
+    while (i < chars.length) {
+      char c = chars[i];
+      char next = i + 1 < chars.length ? chars[i + 1] : 0;
+      if (c == '\n' || c == '\r') {
+        lineStart = true;
+        i++;
+      } else if (Character.isWhitespace(c)) {
+        i++;
+      } else if (lineStart && c == '#') {
+        int end = lineEnd(i);
+        blank(i, end);
+        skippedLines.add(offsets.line(i));
+        i = end;
+      } else if (c == '/' && next == '/') {
+        i = lineEnd(i);
+      } else if (c == '/' && next == '*') {
+        lineStart = false;
+        i = blockCommentEnd(i + 2);
+      } else {
+        lineStart = false;
+        if (codeStart < 0) {
+          codeStart = i;
+        }
+        if (c == '"' || c == '\'') {
+          i = literalEnd(i);
+          continue;
+        }
+        boolean regionEnd = false;
+        if (c == '(') {
+          parenDepth++;
+        } else if (c == ')') {
+          parenDepth = Math.max(0, parenDepth - 1);
+        } else if (c == '=' && parenDepth == 0) {
+          initializer = true;
+        } else if (c == '{' && depth == 0 && parenDepth == 0) {
+          wrapper = wrapperOf(new String(chars, regionStart, i - regionStart));
+          depth = 1;
+          regionStart = i + 1;
+          codeStart = -1;
+          initializer = false;
+        } else if (c == '{' && depth > 0) {
+          if (depth == 1) {
+            bodyOpen = parenDepth == 0 && !initializer && !endsWithDefault(regionStart, i);
+          }
+          depth++;
+        } else if (c == '}' && depth == 1) {
+          // end of the body of a top-level type, which is not part of its last member
+          addRegion(regionStart, i, codeStart, wrapper);
+          depth = 0;
+          regionStart = i + 1;
+          codeStart = -1;
+          initializer = false;
+          bodyOpen = false;
+        } else if (c == '}' && depth > 1) {
+          depth--;
+          regionEnd = depth == 1 && bodyOpen && !ENUM_CONSTANTS_WRAPPER.equals(wrapper);
+        } else if (c == ';') {
+          regionEnd = depth <= 1;
+        }
+        i++;
+        if (regionEnd) {
+          addRegion(regionStart, i, codeStart, depth == 0 ? "" : wrapper);
+          if (ENUM_CONSTANTS_WRAPPER.equals(wrapper)) {
+            wrapper = ENUM_MEMBERS_WRAPPER;
+          }
+          regionStart = i;
+          codeStart = -1;
+          parenDepth = 0;
+          initializer = false;
+          bodyOpen = false;
+        }
+      }
+    }
+    addRegion(regionStart, chars.length, codeStart, depth == 0 ? "" : wrapper);
+  }
+
+  private boolean endsWithDefault(int start, int end) {
+    String text = new String(chars, start, end - start).trim();
+    return text.endsWith("default");
+  }
+
+  private void addRegion(int start, int end, int codeStart, String wrapper) {
+    if (codeStart >= 0 && codeStart < end) {
+      regions.add(new Region(start, end, codeStart, wrapper));
+    }
+  }
+
+  private static String wrapperOf(String typeHeader) {
+    if (ANNOTATION_TYPE.matcher(typeHeader).find()) {
+      return "@interface Recovered {";
+    } else if (ENUM.matcher(typeHeader).find()) {
+      return ENUM_CONSTANTS_WRAPPER;
+    } else if (INTERFACE.matcher(typeHeader).find()) {
+      return "interface Recovered {";
+    }
+    return "class Recovered {";
+  }
+
+  private int lineEnd(int from) {
+    int i = from;
+    while (i < chars.length && chars[i] != '\n' && chars[i] != '\r') {
+      i++;
+    }
+    return i;
+  }
+
+  private int blockCommentEnd(int from) {
+    for (int i = from; i + 1 < chars.length; i++) {
+      if (chars[i] == '*' && chars[i + 1] == '/') {
+        return i + 2;
+      }
+    }
+    return chars.length;
+  }
+
+  private int literalEnd(int quoteIndex) {
+    char quote = chars[quoteIndex];
+    int i = quoteIndex + 1;
+    while (i < chars.length && chars[i] != '\n' && chars[i] != '\r') {
+      if (chars[i] == quote) {
+        return i + 1;
+      }
+      i += chars[i] == '\\' ? 2 : 1;
+    }
+    // unterminated literal
+    return Math.min(i, chars.length);
+  }
+
+  private void blank(int start, int end) {
+    for (int i = start; i < end; i++) {
+      if (chars[i] != '\n' && chars[i] != '\r') {
+        chars[i] = ' ';
+      }
+    }
+  }
+
+  /**
+   * Top-level declaration, or member of a top-level type including its leading comments.
+   */
+  static final class Region {
+    private final int start;
+    private final int end;
+    private final int codeStart;
+    private final String wrapper;
+
+    private Region(int start, int end, int codeStart, String wrapper) {
+      this.start = start;
+      this.end = end;
+      this.codeStart = codeStart;
+      this.wrapper = wrapper;
+    }
+  }
+
+}
@@ -20,13 +20,13 @@
 package org.sonar.java.ast.parser;
 
 import com.sonar.sslr.api.GenericTokenType;
-import org.apache.commons.lang.ArrayUtils;
 import org.sonar.java.ast.api.JavaKeyword;
 import org.sonar.java.ast.api.JavaTokenType;
+import org.sonar.java.monitoring.CheckTimeBudget;
 import org.sonar.sslr.grammar.GrammarRuleKey;
 import org.sonar.sslr.grammar.LexerlessGrammarBuilder;
 
-import java.util.Arrays;
+import javax.annotation.Nullable;
 
 import static org.sonar.java.ast.api.JavaKeyword.ENUM;
 import static org.sonar.java.ast.api.JavaPunctuator.AND;
@@ -274,12 +274,20 @@ public enum JavaLexer implements GrammarRuleKey {
   ANNOTATED_PARAMETERIZED_IDENTIFIER;
 
   public static LexerlessGrammarBuilder createGrammarBuilder() {
+    return createGrammarBuilder(null);
+  }
+
+  /**
+   * @param parseTimeBudget budget checked before each spacing, so that a parse running out of time is interrupted. Without
+   * budget, the grammar does not contain any check at all.
+   */
+  public static LexerlessGrammarBuilder createGrammarBuilder(@Nullable CheckTimeBudget parseTimeBudget) {
     LexerlessGrammarBuilder b = LexerlessGrammarBuilder.create();
 
     punctuators(b);
     keywords(b);
 
-    literals(b);
+    literals(b, parseTimeBudget);
 
     b.setRootRule(COMPILATION_UNIT);
 
@@ -344,19 +352,11 @@ public enum JavaLexer implements GrammarRuleKey {
   }
 
   private static void keywords(LexerlessGrammarBuilder b) {
-    b.rule(LETTER_OR_DIGIT).is(javaIdentifierPart(b));
+    b.rule(LETTER_OR_DIGIT).is(LexicalExpressions.identifierPart());
     for (JavaKeyword tokenType : JavaKeyword.values()) {
       b.rule(tokenType).is(tokenType.getValue(), b.nextNot(LETTER_OR_DIGIT), SPACING);
     }
-    String[] keywords = JavaKeyword.keywordValues();
-    Arrays.sort(keywords);
-    ArrayUtils.reverse(keywords);
-    b.rule(KEYWORD).is(
-      b.firstOf(
-        keywords[0],
-        keywords[1],
-        ArrayUtils.subarray(keywords, 2, keywords.length)),
-      b.nextNot(LETTER_OR_DIGIT));
+    b.rule(KEYWORD).is(LexicalExpressions.keyword(JavaKeyword.keywordValues()));
   }
 
   private static void punctuator(LexerlessGrammarBuilder b, GrammarRuleKey ruleKey, String value) {
@@ -391,17 +391,23 @@ public enum JavaLexer implements GrammarRuleKey {
   /**
    * 3.10. Literals
    */
-  private static void literals(LexerlessGrammarBuilder b) {
-    b.rule(SPACING).is(
-      b.skippedTrivia(whitespace(b)),
+  private static void literals(LexerlessGrammarBuilder b, @Nullable CheckTimeBudget parseTimeBudget) {
+    Object spacing = b.sequence(
+      b.skippedTrivia(LexicalExpressions.whitespace()),
       b.zeroOrMore(
-        b.commentTrivia(b.firstOf(inlineComment(b), multilineComment(b))),
-        b.skippedTrivia(whitespace(b))));
+        b.commentTrivia(b.firstOf(LexicalExpressions.inlineComment(), LexicalExpressions.multilineComment())),
+        b.skippedTrivia(LexicalExpressions.whitespace())));
+    if (parseTimeBudget == null) {
+      b.rule(SPACING).is(spacing);
+    } else {
+      // spacing follows every token, and is evaluated again each time the parser backtracks over a token
+      b.rule(SPACING).is(LexicalExpressions.timeBudget(parseTimeBudget), spacing);
+    }
 
     b.rule(EOF).is(b.token(GenericTokenType.EOF, b.endOfInput()));
 
-    b.rule(CHARACTER_LITERAL).is(characterLiteral(b), SPACING);
-    b.rule(JavaTokenType.LITERAL).is(stringLiteral(b), SPACING);
+    b.rule(CHARACTER_LITERAL).is(b.next("'"), LexicalExpressions.characterLiteral(), SPACING);
+    b.rule(JavaTokenType.LITERAL).is(b.next("\""), LexicalExpressions.stringLiteral(), SPACING);
 
     b.rule(FLOAT_LITERAL).is(b.regexp(FLOATING_LITERAL_WITHOUT_SUFFIX_REGEXP + "[fF]|[0-9][0-9_]*+[fF]"), SPACING);
     b.rule(DOUBLE_LITERAL).is(b.regexp(FLOATING_LITERAL_WITHOUT_SUFFIX_REGEXP + "[dD]?+|[0-9][0-9_]*+[dD]"), SPACING);
@@ -413,38 +419,10 @@ public enum JavaLexer implements GrammarRuleKey {
       b.firstOf(
         b.next(ENUM),
         b.nextNot(KEYWORD)),
-      javaIdentifier(b),
+      LexicalExpressions.identifier(),
       SPACING);
   }
 
-  private static Object characterLiteral(LexerlessGrammarBuilder b) {
-    return b.sequence(b.next("'"), b.regexp("'([^'\\\\]*+(\\\\[\\s\\S])?+)*+'"));
-  }
-
-  private static Object stringLiteral(LexerlessGrammarBuilder b) {
-    return b.sequence(b.next("\""), b.regexp("\"([^\"\\\\]*+(\\\\[\\s\\S])?+)*+\""));
-  }
-
-  private static Object whitespace(LexerlessGrammarBuilder b) {
-    return b.regexp("\\s*+");
-  }
-
-  private static Object inlineComment(LexerlessGrammarBuilder b) {
-    return b.regexp("//[^\\n\\r]*+");
-  }
-
-  private static Object multilineComment(LexerlessGrammarBuilder b) {
-    return b.regexp("/\\*[\\s\\S]*?\\*\\/");
-  }
-
-  private static Object javaIdentifier(LexerlessGrammarBuilder b) {
-    return b.regexp("\\p{javaJavaIdentifierStart}++\\p{javaJavaIdentifierPart}*+");
-  }
-
-  private static Object javaIdentifierPart(LexerlessGrammarBuilder b) {
-    return b.regexp("\\p{javaJavaIdentifierPart}");
-  }
-
   private final String internalName;
 
   private JavaLexer() {
@@ -33,10 +33,18 @@ import org.sonar.java.model.InternalSyntaxTrivia;
 import org.sonar.plugins.java.api.tree.SyntaxTrivia;
 import org.sonar.sslr.grammar.GrammarRuleKey;
 
+import java.util.Collections;
 import java.util.List;
 
 public class JavaNodeBuilder implements NodeBuilder {
 
+  private static final List<SyntaxTrivia> NO_TRIVIA = Collections.emptyList();
+
+  private final TokenTextTable tokenTexts = new TokenTextTable();
+  private Input currentInput;
+  private char[] currentChars;
+  private LineOffsets lineOffsets;
+
   @Override
   public Object createNonTerminal(GrammarRuleKey ruleKey, Rule rule, List<Object> children, int startIndex, int endIndex) {
     for (Object child : children) {
@@ -52,36 +60,50 @@ public class JavaNodeBuilder implements NodeBuilder {
   @Override
   public Object createTerminal(Input input, int startIndex, int endIndex, List<Trivia> trivias, TokenType type) {
     boolean isEof = GenericTokenType.EOF.equals(type);
-    LineColumnValue lineColumnValue = tokenPosition(input, startIndex, endIndex);
-    return new InternalSyntaxToken(lineColumnValue.line, lineColumnValue.column, lineColumnValue.value,
-      createTrivias(trivias), startIndex, endIndex, isEof);
-  }
-
-  private static List<SyntaxTrivia> createTrivias(List<Trivia> trivias) {
-    List<SyntaxTrivia> result = Lists.newArrayList();
-    for (Trivia trivia : trivias) {
-      Token trivialToken = trivia.getToken();
-      result.add(InternalSyntaxTrivia.create(trivialToken.getValue(), trivialToken.getLine(), trivialToken.getColumn()));
+    LineOffsets offsets = lineOffsets(input);
+    String value = tokenTexts.intern(currentChars, startIndex, endIndex);
+    InternalSyntaxToken token = new InternalSyntaxToken(offsets.line(startIndex), offsets.column(startIndex), value,
+      createTrivias(offsets, trivias), startIndex, endIndex, isEof);
+    if (isEof) {
+      // last token of the input: its content does not have to be retained until the next parse
+      currentInput = null;
+      currentChars = null;
     }
-    return result;
+    return token;
   }
 
-  private static LineColumnValue tokenPosition(Input input, int startIndex, int endIndex) {
-    int[] lineAndColumn = input.lineAndColumnAt(startIndex);
-    String value = input.substring(startIndex, endIndex);
-    return new LineColumnValue(lineAndColumn[0], lineAndColumn[1] - 1, value);
+  /**
+   * Line starts are computed once per input rather than scanning the input from its beginning for every token.
+   * Token texts are shared within an input, but not across inputs so that the table does not grow with the project.
+   * Both tables are cleared and reused from one input to the next. This saves little: most of the memory allocated by a parse
+   * is the memoization of the SSLR parser and the tree itself.
+   */
+  private LineOffsets lineOffsets(Input input) {
+    if (input != currentInput) {
+      currentInput = input;
+      currentChars = input.input();
+      if (lineOffsets == null) {
+        lineOffsets = LineOffsets.of(currentChars);
+      } else {
+        lineOffsets.reset(currentChars);
+      }
+      tokenTexts.clear();
+    }
+    return lineOffsets;
   }
 
-  private static class LineColumnValue {
-    final int line;
-    final int column;
-    final String value;
-
-    private LineColumnValue(int line, int column, String value) {
-      this.line = line;
-      this.column = column;
-      this.value = value;
+  private static List<SyntaxTrivia> createTrivias(LineOffsets offsets, List<Trivia> trivias) {
+    if (trivias.isEmpty()) {
+      return NO_TRIVIA;
     }
+    List<SyntaxTrivia> result = Lists.newArrayListWithCapacity(trivias.size());
+    for (Trivia trivia : trivias) {
+      Token trivialToken = trivia.getToken();
+      int line = trivialToken.getLine();
+      int column = trivialToken.getColumn();
+      result.add(InternalSyntaxTrivia.create(trivialToken.getValue(), line, column, offsets.offset(line, column)));
+    }
+    return result;
   }
 
 }
@@ -20,8 +20,10 @@
 package org.sonar.java.ast.parser;
 
 import com.sonar.sslr.api.typed.ActionParser;
+import org.sonar.java.monitoring.CheckTimeBudget;
 import org.sonar.plugins.java.api.tree.Tree;
 
+import javax.annotation.Nullable;
 import java.nio.charset.Charset;
 
 public class JavaParser {
@@ -30,9 +32,16 @@ public class JavaParser {
   }
 
   public static ActionParser<Tree> createParser(Charset charset) {
+    return createParser(charset, null);
+  }
+
+  /**
+   * @param parseTimeBudget budget which can interrupt the parser, to be started and stopped around each parse
+   */
+  public static ActionParser<Tree> createParser(Charset charset, @Nullable CheckTimeBudget parseTimeBudget) {
     return new ActionParser<Tree>(
       charset,
-      JavaLexer.createGrammarBuilder(),
+      JavaLexer.createGrammarBuilder(parseTimeBudget),
       JavaGrammar.class,
       new TreeFactory(),
       new JavaNodeBuilder(),
@@ -0,0 +1,297 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * sonarqube@googlegroups.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.ast.parser;
+
+import org.sonar.java.monitoring.CheckTimeBudget;
+import org.sonar.sslr.internal.matchers.Matcher;
+import org.sonar.sslr.internal.vm.Machine;
+import org.sonar.sslr.internal.vm.NativeExpression;
+
+import java.util.Arrays;
+
+/**
+ * Hand-written equivalents of the regular expressions matching spacing, comments, identifiers and quoted literals.
+ * Those expressions are evaluated at almost every choice point of the lexerless grammar, and backtracking evaluates them
+ * again on the same characters: a single forward scan, without the setup cost of a regular expression matcher, makes each
+ * evaluation much cheaper. Each expression matches exactly what the regular expression given in its description matches,
+ * so that the trees built by {@link TreeFactory} are unchanged.
+ */
+final class LexicalExpressions {
+
+  private static final int NO_MATCH = -1;
+
+  private LexicalExpressions() {
+  }
+
+  /**
+   * {@code \s*+}
+   */
+  static Object whitespace() {
+    return new ScannerExpression("whitespace") {
+      @Override
+      int match(CharSequence input) {
+        int i = 0;
+        while (i < input.length() && isWhitespace(input.charAt(i))) {
+          i++;
+        }
+        return i;
+      }
+    };
+  }
+
+  /**
+   * {@code //[^\n\r]*+}
+   */
+  static Object inlineComment() {
+    return new ScannerExpression("inlineComment") {
+      @Override
+      int match(CharSequence input) {
+        if (input.length() < 2 || input.charAt(0) != '/' || input.charAt(1) != '/') {
+          return NO_MATCH;
+        }
+        int i = 2;
+        while (i < input.length() && input.charAt(i) != '\n' && input.charAt(i) != '\r') {
+          i++;
+        }
+        return i;
+      }
+    };
+  }
+
+  /**
+   * {@code /\*[\s\S]*?\*\/}
+   */
+  static Object multilineComment() {
+    return new ScannerExpression("multilineComment") {
+      @Override
+      int match(CharSequence input) {
+        if (input.length() < 4 || input.charAt(0) != '/' || input.charAt(1) != '*') {
+          return NO_MATCH;
+        }
+        for (int i = 2; i + 1 < input.length(); i++) {
+          if (input.charAt(i) == '*' && input.charAt(i + 1) == '/') {
+            return i + 2;
+          }
+        }
+        return NO_MATCH;
+      }
+    };
+  }
+
+  /**
+   * {@code \p{javaJavaIdentifierStart}++\p{javaJavaIdentifierPart}*+}
+   */
+  static Object identifier() {
+    return new ScannerExpression("identifier") {
+      @Override
+      int match(CharSequence input) {
+        if (input.length() == 0) {
+          return NO_MATCH;
+        }
+        int codePoint = Character.codePointAt(input, 0);
+        if (!Character.isJavaIdentifierStart(codePoint)) {
+          return NO_MATCH;
+        }
+        return identifierPartsEnd(input, Character.charCount(codePoint));
+      }
+    };
+  }
+
+  /**
+   * {@code \p{javaJavaIdentifierPart}}
+   */
+  static Object identifierPart() {
+    return new ScannerExpression("identifierPart") {
+      @Override
+      int match(CharSequence input) {
+        if (input.length() == 0) {
+          return NO_MATCH;
+        }
+        int codePoint = Character.codePointAt(input, 0);
+        return Character.isJavaIdentifierPart(codePoint) ? Character.charCount(codePoint) : NO_MATCH;
+      }
+    };
+  }
+
+  /**
+   * One of the given keywords, not followed by an identifier part: {@code firstOf(keywords), nextNot(\p{javaJavaIdentifierPart})}.
+   * As keywords only contain identifier parts, this is a keyword equal to the longest sequence of identifier parts.
+   */
+  static Object keyword(String[] keywords) {
+    final int maxLength = maxLength(keywords);
+    final String[][] keywordsByLength = new String[maxLength + 1][];
+    for (int length = 0; length <= maxLength; length++) {
+      keywordsByLength[length] = withLength(keywords, length);
+    }
+    return new ScannerExpression("keyword") {
+      @Override
+      int match(CharSequence input) {
+        int end = identifierPartsEnd(input, 0);
+        if (end == 0 || end > maxLength) {
+          return NO_MATCH;
+        }
+        for (String keyword : keywordsByLength[end]) {
+          if (startsWith(input, keyword)) {
+            return end;
+          }
+        }
+        return NO_MATCH;
+      }
+    };
+  }
+
+  /**
+   * {@code '([^'\\]*+(\\[\s\S])?+)*+'}
+   */
+  static Object characterLiteral() {
+    return quotedLiteral('\'');
+  }
+
+  /**
+   * {@code "([^"\\]*+(\\[\s\S])?+)*+"}
+   */
+  static Object stringLiteral() {
+    return quotedLiteral('"');
+  }
+
+  private static Object quotedLiteral(final char quote) {
+    return new ScannerExpression("quotedLiteral " + quote) {
+      @Override
+      int match(CharSequence input) {
+        if (input.length() == 0 || input.charAt(0) != quote) {
+          return NO_MATCH;
+        }
+        int i = 1;
+        while (i < input.length()) {
+          char c = input.charAt(i);
+          if (c == quote) {
+            return i + 1;
+          } else if (c == '\\') {
+            // an escape sequence consumes the next character, whatever it is
+            i += 2;
+          } else {
+            i++;
+          }
+        }
+        return NO_MATCH;
+      }
+    };
+  }
+
+  /**
+   * Matches the empty string once it checked that the parse time budget is not exceeded, see {@link CheckTimeBudget}.
+   */
+  static Object timeBudget(final CheckTimeBudget budget) {
+    return new NativeExpression() {
+      @Override
+      public void execute(Machine machine) {
+        budget.checkNotExceeded();
+        machine.jump(1);
+      }
+
+      @Override
+      public String toString() {
+        return "Time budget";
+      }
+    };
+  }
+
+  private static int identifierPartsEnd(CharSequence input, int start) {
+    int i = start;
+    while (i < input.length()) {
+      int codePoint = Character.codePointAt(input, i);
+      if (!Character.isJavaIdentifierPart(codePoint)) {
+        break;
+      }
+      i += Character.charCount(codePoint);
+    }
+    return i;
+  }
+
+  /**
+   * Same characters as {@code \s} in a regular expression, which is not {@link Character#isWhitespace(char)}.
+   */
+  private static boolean isWhitespace(char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+  }
+
+  private static boolean startsWith(CharSequence input, String prefix) {
+    for (int i = 0; i < prefix.length(); i++) {
+      if (input.charAt(i) != prefix.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int maxLength(String[] values) {
+    int max = 0;
+    for (String value : values) {
+      max = Math.max(max, value.length());
+    }
+    return max;
+  }
+
+  private static String[] withLength(String[] values, int length) {
+    String[] result = new String[0];
+    for (String value : values) {
+      if (value.length() == length) {
+        result = Arrays.copyOf(result, result.length + 1);
+        result[result.length - 1] = value;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Evaluated the same way as the expressions created by {@code b.regexp(...)}: a leaf node on success, backtracking on failure.
+   */
+  abstract static class ScannerExpression extends NativeExpression implements Matcher {
+
+    private final String name;
+
+    ScannerExpression(String name) {
+      this.name = name;
+    }
+
+    /**
+     * @return length of the match at the beginning of the input, or -1 when it does not match
+     */
+    abstract int match(CharSequence input);
+
+    @Override
+    public void execute(Machine machine) {
+      int length = match(machine);
+      if (length == NO_MATCH) {
+        machine.backtrack();
+      } else {
+        machine.createLeafNode(this, length);
+        machine.jump(1);
+      }
+    }
+
+    @Override
+    public String toString() {
+      return "Scanner " + name;
+    }
+
+  }
+
+}
@@ -0,0 +1,133 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * sonarqube@googlegroups.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.ast.parser;
+
+import java.util.Arrays;
+
+/**
+ * Start offsets of the lines of a source, computed once so that the line and column of any offset can be found without
+ * scanning the source again. A line ends with {@code \n}, or with {@code \r} when it is not followed by {@code \n}, exactly
+ * as in {@link com.sonar.sslr.api.typed.Input}.
+ * Tokens are created in increasing offset order, so lookups first try the line of the previous lookup and the following
+ * one, and only fall back to a binary search otherwise. Instances are therefore not thread-safe.
+ * An instance can be {@link #reset(char[]) reset} for another content, so that a parser reuses the same storage for all files.
+ */
+public final class LineOffsets {
+
+  private int[] lineStarts;
+  private int lineCount;
+  private int lastLine;
+
+  private LineOffsets() {
+    this.lineStarts = new int[16];
+  }
+
+  public static LineOffsets of(char[] content) {
+    LineOffsets offsets = new LineOffsets();
+    offsets.reset(content);
+    return offsets;
+  }
+
+  /**
+   * Computes the line starts of another content, reusing the storage of the previous one.
+   */
+  public void reset(char[] content) {
+    int[] starts = lineStarts;
+    int count = 1;
+    for (int i = 0; i < content.length; i++) {
+      if (isNewLine(content, i)) {
+        if (count == starts.length) {
+          starts = Arrays.copyOf(starts, count * 2);
+        }
+        starts[count] = i + 1;
+        count++;
+      }
+    }
+    lineStarts = starts;
+    lineCount = count;
+    lastLine = 0;
+  }
+
+  private static boolean isNewLine(char[] content, int i) {
+    return content[i] == '\n' || (content[i] == '\r' && (i + 1 == content.length || content[i + 1] != '\n'));
+  }
+
+  public int lineCount() {
+    return lineCount;
+  }
+
+  /**
+   * @param line starts from 1
+   */
+  public int lineStart(int line) {
+    if (line < 1 || line > lineCount) {
+      throw new IllegalArgumentException("Line " + line + " is out of range [1, " + lineCount + "]");
+    }
+    return lineStarts[line - 1];
+  }
+
+  /**
+   * @return line of the given offset, starting from 1
+   */
+  public int line(int offset) {
+    return lineIndex(offset) + 1;
+  }
+
+  /**
+   * @return column of the given offset, starting from 0
+   */
+  public int column(int offset) {
+    return offset - lineStarts[lineIndex(offset)];
+  }
+
+  /**
+   * @param line starts from 1
+   * @param column starts from 0
+   */
+  public int offset(int line, int column) {
+    return lineStart(line) + column;
+  }
+
+  private int lineIndex(int offset) {
+    if (offset < 0) {
+      throw new IllegalArgumentException("Negative offset: " + offset);
+    }
+    int index = lastLine;
+    if (!contains(index, offset)) {
+      index++;
+      if (!contains(index, offset)) {
+        index = binarySearch(offset);
+      }
+    }
+    lastLine = index;
+    return index;
+  }
+
+  private boolean contains(int index, int offset) {
+    return index < lineCount && lineStarts[index] <= offset && (index + 1 == lineCount || offset < lineStarts[index + 1]);
+  }
+
+  private int binarySearch(int offset) {
+    int index = Arrays.binarySearch(lineStarts, 0, lineCount, offset);
+    // when the offset is not a line start, the insertion point is the line following the one containing it
+    return index >= 0 ? index : (-index - 2);
+  }
+
+}
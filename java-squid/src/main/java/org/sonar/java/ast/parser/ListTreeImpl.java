@@ -21,8 +21,7 @@ package org.sonar.java.ast.parser;
 
 import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Lists;
-import org.sonar.java.model.JavaTree;
+import org.sonar.java.model.CompositeTree;
 import org.sonar.plugins.java.api.tree.ListTree;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
 import org.sonar.plugins.java.api.tree.Tree;
@@ -35,7 +34,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
 
-public abstract class ListTreeImpl<T> extends JavaTree implements ListTree<T> {
+public abstract class ListTreeImpl<T> extends CompositeTree implements ListTree<T> {
 
   private final List<T> list;
   private final List<SyntaxToken> separators;
@@ -43,7 +42,7 @@ public abstract class ListTreeImpl<T> extends JavaTree implements ListTree<T> {
   public ListTreeImpl(GrammarRuleKey grammarRuleKey, List<T> list) {
     super(grammarRuleKey);
     this.list = list;
-    this.separators = Lists.newArrayList();
+    this.separators = ImmutableList.of();
   }
   public ListTreeImpl(GrammarRuleKey grammarRuleKey, List<T> list, List<SyntaxToken> separators) {
     super(grammarRuleKey);
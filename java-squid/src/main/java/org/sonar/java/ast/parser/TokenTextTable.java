@@ -0,0 +1,141 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * sonarqube@googlegroups.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.ast.parser;
+
+import org.sonar.java.ast.api.JavaKeyword;
+import org.sonar.java.ast.api.JavaPunctuator;
+
+import java.util.Arrays;
+
+/**
+ * Table of the token texts of one parsed input: a text repeated in the input (an identifier, a type name, a literal)
+ * is stored once and shared by all its tokens. Keywords and punctuators always resolve to the values of
+ * {@link JavaKeyword} and {@link JavaPunctuator}, so that those texts are shared by all inputs.
+ * Lookups compare the characters of the input directly, so no string is allocated for a text already in the table.
+ */
+final class TokenTextTable {
+
+  private static final int INITIAL_CAPACITY = 512;
+  /**
+   * Beyond this capacity, the table of a large file is dropped rather than cleared, so that it is not retained for all files.
+   */
+  private static final int MAX_REUSED_CAPACITY = 1 << 16;
+
+  private String[] entries;
+  private int size;
+
+  TokenTextTable() {
+    clear();
+  }
+
+  /**
+   * Forgets the texts of the previous input, only keywords and punctuators are kept.
+   */
+  void clear() {
+    if (entries == null || entries.length > MAX_REUSED_CAPACITY) {
+      entries = new String[INITIAL_CAPACITY];
+    } else {
+      Arrays.fill(entries, null);
+    }
+    size = 0;
+    for (JavaKeyword keyword : JavaKeyword.values()) {
+      add(keyword.getValue());
+    }
+    for (JavaPunctuator punctuator : JavaPunctuator.values()) {
+      add(punctuator.getValue());
+    }
+  }
+
+  int size() {
+    return size;
+  }
+
+  String intern(char[] input, int startIndex, int endIndex) {
+    int index = indexFor(hash(input, startIndex, endIndex));
+    String entry = entries[index];
+    while (entry != null) {
+      if (matches(entry, input, startIndex, endIndex)) {
+        return entry;
+      }
+      index = (index + 1) & (entries.length - 1);
+      entry = entries[index];
+    }
+    String text = new String(input, startIndex, endIndex - startIndex);
+    insert(index, text);
+    return text;
+  }
+
+  private void add(String text) {
+    int index = indexFor(text.hashCode());
+    while (entries[index] != null) {
+      if (entries[index].equals(text)) {
+        return;
+      }
+      index = (index + 1) & (entries.length - 1);
+    }
+    insert(index, text);
+  }
+
+  private void insert(int index, String text) {
+    entries[index] = text;
+    size++;
+    if (size * 2 > entries.length) {
+      String[] previous = entries;
+      entries = new String[previous.length * 2];
+      for (String entry : previous) {
+        if (entry != null) {
+          int i = indexFor(entry.hashCode());
+          while (entries[i] != null) {
+            i = (i + 1) & (entries.length - 1);
+          }
+          entries[i] = entry;
+        }
+      }
+    }
+  }
+
+  private int indexFor(int hash) {
+    return (hash ^ (hash >>> 16)) & (entries.length - 1);
+  }
+
+  /**
+   * Same value as {@link String#hashCode()} of the text, so that entries can be relocated from their own hash code.
+   */
+  private static int hash(char[] input, int startIndex, int endIndex) {
+    int hash = 0;
+    for (int i = startIndex; i < endIndex; i++) {
+      hash = 31 * hash + input[i];
+    }
+    return hash;
+  }
+
+  private static boolean matches(String entry, char[] input, int startIndex, int endIndex) {
+    if (entry.length() != endIndex - startIndex) {
+      return false;
+    }
+    for (int i = 0; i < entry.length(); i++) {
+      if (entry.charAt(i) != input[startIndex + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+}
@@ -21,21 +21,31 @@ package org.sonar.java.ast.visitors;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.sonar.plugins.java.api.tree.BlockTree;
 import org.sonar.plugins.java.api.tree.CaseLabelTree;
 import org.sonar.plugins.java.api.tree.ClassTree;
 import org.sonar.plugins.java.api.tree.MethodTree;
 import org.sonar.plugins.java.api.tree.Tree;
 
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+
 import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class ComplexityVisitor extends SubscriptionVisitor {
 
   private int complexity;
   private Deque<ClassTree> classTrees = new LinkedList<>();
   private boolean analyseAccessors;
+  @Nullable
+  private FileComplexity fileComplexity;
+  private final Deque<Integer> complexitiesAtEntry = new LinkedList<>();
 
   public ComplexityVisitor(boolean analyseAccessors) {
     this.analyseAccessors = analyseAccessors;
@@ -79,8 +89,25 @@ public class ComplexityVisitor extends SubscriptionVisitor {
     return complexity;
   }
 
+  /**
+   * Computes in a single scan the complexity of the given tree and of each class and method it contains.
+   */
+  public FileComplexity scanFile(Tree tree) {
+    fileComplexity = new FileComplexity(tree);
+    complexitiesAtEntry.clear();
+    try {
+      fileComplexity.total = scan(tree);
+      return fileComplexity;
+    } finally {
+      fileComplexity = null;
+    }
+  }
+
   @Override
   public void visitNode(Tree tree) {
+    if (fileComplexity != null && (isClass(tree) || isMethod(tree))) {
+      complexitiesAtEntry.push(complexity);
+    }
     if (isClass(tree)) {
       classTrees.push((ClassTree) tree);
     } else if (isMethod(tree)) {
@@ -107,9 +134,14 @@ public class ComplexityVisitor extends SubscriptionVisitor {
 
   private void computeMethodComplexity(MethodTree methodTree) {
     BlockTree block = methodTree.block();
+    if (fileComplexity != null) {
+      fileComplexity.enclosingClasses.put(methodTree, classTrees.peek());
+    }
     if (block != null) {
       if (classTrees.isEmpty() || !isAccessor(methodTree)) {
         complexity++;
+      } else if (fileComplexity != null) {
+        fileComplexity.accessors.add(methodTree);
       }
       if (!block.body().isEmpty() && Iterables.getLast(block.body()).is(Tree.Kind.RETURN_STATEMENT)) {
         //minus one because we are going to count the return with +1
@@ -125,8 +157,55 @@ public class ComplexityVisitor extends SubscriptionVisitor {
 
   @Override
   public void leaveNode(Tree tree) {
+    if (fileComplexity != null && (isClass(tree) || isMethod(tree))) {
+      fileComplexity.complexities.put(tree, complexity - complexitiesAtEntry.pop());
+    }
     if (isClass(tree)) {
       classTrees.pop();
     }
   }
+
+  /**
+   * Complexities of a tree and of its classes and methods, identical to what {@link #scan(Tree)} and
+   * {@link #scan(ClassTree, MethodTree)} would return for them.
+   */
+  public static class FileComplexity {
+
+    private final Tree tree;
+    private int total;
+    private final Map<Tree, Integer> complexities = Maps.newIdentityHashMap();
+    private final Map<MethodTree, ClassTree> enclosingClasses = Maps.newIdentityHashMap();
+    private final Set<MethodTree> accessors = Sets.newIdentityHashSet();
+
+    private FileComplexity(Tree tree) {
+      this.tree = tree;
+    }
+
+    /**
+     * @return complexity of the given tree, or null when it is neither the scanned tree nor one of its classes or methods
+     */
+    @CheckForNull
+    public Integer complexity(Tree tree) {
+      if (tree == this.tree) {
+        return total;
+      }
+      Integer result = complexities.get(tree);
+      if (result != null && accessors.contains(tree)) {
+        // scanned on its own, a method has no enclosing class and is never considered as an accessor
+        result++;
+      }
+      return result;
+    }
+
+    /**
+     * @return complexity of the method, or null when it was not scanned within the given class
+     */
+    @CheckForNull
+    public Integer methodComplexity(ClassTree enclosingClass, MethodTree methodTree) {
+      if (enclosingClasses.get(methodTree) != enclosingClass) {
+        return null;
+      }
+      return complexities.get(methodTree);
+    }
+  }
 }
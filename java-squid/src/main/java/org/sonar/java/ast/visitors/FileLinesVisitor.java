@@ -21,20 +21,16 @@ package org.sonar.java.ast.visitors;
 
 import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Sets;
 import com.google.common.io.Files;
 import org.sonar.api.measures.CoreMetrics;
 import org.sonar.api.measures.FileLinesContext;
 import org.sonar.java.SonarComponents;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
-import org.sonar.plugins.java.api.tree.SyntaxToken;
-import org.sonar.plugins.java.api.tree.SyntaxTrivia;
 import org.sonar.plugins.java.api.tree.Tree;
 
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.util.List;
-import java.util.Set;
 
 /**
  * Saves information about lines directly into Sonar by using {@link FileLinesContext}.
@@ -43,8 +39,6 @@ public class FileLinesVisitor extends SubscriptionVisitor {
 
   private final SonarComponents sonarComponents;
   private final Charset charset;
-  private final Set<Integer> linesOfCode = Sets.newHashSet();
-  private final Set<Integer> linesOfComments = Sets.newHashSet();
 
   public FileLinesVisitor(SonarComponents sonarComponents, Charset charset) {
     this.sonarComponents = sonarComponents;
@@ -53,40 +47,30 @@ public class FileLinesVisitor extends SubscriptionVisitor {
 
   @Override
   public List<Tree.Kind> nodesToVisit() {
-    return ImmutableList.of(Tree.Kind.TOKEN);
+    return ImmutableList.of();
   }
 
   @Override
   public void scanFile(JavaFileScannerContext context) {
-    super.scanFile(context);
+    LineMetricsVisitor lineMetrics = LineMetricsVisitor.forContext(context);
 
     FileLinesContext fileLinesContext = sonarComponents.fileLinesContextFor(context.getFile());
-    // TODO minimize access to files, another one in LinesVisitor
-    int fileLength;
-    try {
-      fileLength = Files.readLines(context.getFile(), charset).size();
-    } catch (IOException e) {
-      throw Throwables.propagate(e);
+    int fileLength = lineMetrics.linesOfText();
+    if (fileLength < 0) {
+      fileLength = readFileLength(context);
     }
     for (int line = 1; line <= fileLength; line++) {
-      fileLinesContext.setIntValue(CoreMetrics.NCLOC_DATA_KEY, line, linesOfCode.contains(line) ? 1 : 0);
-      fileLinesContext.setIntValue(CoreMetrics.COMMENT_LINES_DATA_KEY, line, linesOfComments.contains(line) ? 1 : 0);
+      fileLinesContext.setIntValue(CoreMetrics.NCLOC_DATA_KEY, line, lineMetrics.isLineOfCode(line) ? 1 : 0);
+      fileLinesContext.setIntValue(CoreMetrics.COMMENT_LINES_DATA_KEY, line, lineMetrics.isLineOfComment(line) ? 1 : 0);
     }
     fileLinesContext.save();
-
-    linesOfCode.clear();
-    linesOfComments.clear();
   }
 
-  @Override
-  public void visitToken(SyntaxToken syntaxToken) {
-    linesOfCode.add(syntaxToken.line());
-    for (SyntaxTrivia trivia : syntaxToken.trivias()) {
-      int baseLine = trivia.startLine();
-      String[] lines = trivia.comment().split("(\r)?\n|\r", -1);
-      for (int i = 0; i < lines.length; i++) {
-        linesOfComments.add(baseLine + i);
-      }
+  private int readFileLength(JavaFileScannerContext context) {
+    try {
+      return Files.readLines(context.getFile(), charset).size();
+    } catch (IOException e) {
+      throw Throwables.propagate(e);
     }
   }
 }
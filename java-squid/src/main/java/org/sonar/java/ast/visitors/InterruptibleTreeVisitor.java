@@ -19,35 +19,31 @@
  */
 package org.sonar.java.ast.visitors;
 
-import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Sets;
-import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.plugins.java.api.tree.CompilationUnitTree;
-import org.sonar.plugins.java.api.tree.SyntaxToken;
+import org.sonar.java.monitoring.CheckTimeBudget;
+import org.sonar.java.monitoring.Interruptible;
+import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.Tree;
 
-import java.util.List;
-import java.util.Set;
+import javax.annotation.Nullable;
 
-public class LinesOfCodeVisitor extends SubscriptionVisitor{
-
-  private Set<Integer> lines = Sets.newHashSet();
+/**
+ * {@link BaseTreeVisitor} which checks its time budget, if any, before visiting each node.
+ */
+public class InterruptibleTreeVisitor extends BaseTreeVisitor implements Interruptible {
 
-  public int linesOfCode(CompilationUnitTree tree) {
-    lines.clear();
-    scanTree(tree);
-    return lines.size();
-  }
+  private CheckTimeBudget timeBudget;
 
   @Override
-  public List<Tree.Kind> nodesToVisit() {
-    return ImmutableList.of(Tree.Kind.TOKEN);
+  public void setTimeBudget(@Nullable CheckTimeBudget timeBudget) {
+    this.timeBudget = timeBudget;
   }
 
   @Override
-  public void visitToken(SyntaxToken syntaxToken) {
-    if (!((InternalSyntaxToken) syntaxToken).isEOF()) {
-      lines.add(syntaxToken.line());
+  protected void scan(@Nullable Tree tree) {
+    if (timeBudget != null) {
+      timeBudget.checkNotExceeded();
     }
+    super.scan(tree);
   }
+
 }
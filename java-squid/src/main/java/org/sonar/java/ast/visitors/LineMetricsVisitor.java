@@ -0,0 +1,201 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * sonarqube@googlegroups.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.ast.visitors;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+import org.sonar.java.model.InternalSyntaxToken;
+import org.sonar.java.model.VisitorsBridge;
+import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.SyntaxToken;
+import org.sonar.plugins.java.api.tree.SyntaxTrivia;
+import org.sonar.plugins.java.api.tree.Tree;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Computes all line based metrics of a file in a single pass over its tokens: lines of code, comment lines, NOSONAR lines and
+ * number of lines. Results are kept as one bit per line.
+ */
+public class LineMetricsVisitor extends SubscriptionVisitor {
+
+  private static final String NOSONAR = "NOSONAR";
+
+  private final BitSet linesOfCode = new BitSet();
+  /**
+   * Every line covered by a comment, including the header of the file and blank comment lines.
+   */
+  private final BitSet linesOfComments = new BitSet();
+  /**
+   * Non blank comment lines, excluding the header of the file and NOSONAR lines.
+   */
+  private final BitSet commentLines = new BitSet();
+  private final BitSet noSonarLines = new BitSet();
+  private boolean seenFirstToken;
+  private int lines;
+  private boolean endsWithLineBreak;
+
+  /**
+   * Line metrics of the file currently scanned, computed only once per file when the context allows it.
+   */
+  public static LineMetricsVisitor forContext(JavaFileScannerContext context) {
+    if (context instanceof VisitorsBridge.DefaultJavaFileScannerContext) {
+      return ((VisitorsBridge.DefaultJavaFileScannerContext) context).getLineMetrics();
+    }
+    LineMetricsVisitor lineMetrics = new LineMetricsVisitor();
+    lineMetrics.analyze(context.getTree());
+    return lineMetrics;
+  }
+
+  @Override
+  public List<Tree.Kind> nodesToVisit() {
+    return ImmutableList.of(Tree.Kind.TOKEN);
+  }
+
+  public void analyze(CompilationUnitTree tree) {
+    linesOfCode.clear();
+    linesOfComments.clear();
+    commentLines.clear();
+    noSonarLines.clear();
+    seenFirstToken = false;
+    lines = -1;
+    endsWithLineBreak = false;
+    scanTree(tree);
+  }
+
+  @Override
+  public void visitToken(SyntaxToken syntaxToken) {
+    List<SyntaxTrivia> trivias = syntaxToken.trivias();
+    for (int i = 0; i < trivias.size(); i++) {
+      // first comment of the file is considered as its header
+      visitComment(trivias.get(i), seenFirstToken || i > 0);
+    }
+    seenFirstToken = true;
+    if (((InternalSyntaxToken) syntaxToken).isEOF()) {
+      lines = syntaxToken.line();
+      endsWithLineBreak = syntaxToken.column() == 0;
+    } else {
+      linesOfCode.set(syntaxToken.line());
+    }
+  }
+
+  private void visitComment(SyntaxTrivia trivia, boolean measured) {
+    String comment = trivia.comment();
+    int length = comment.length();
+    int contentEnd = comment.startsWith("//") ? length : (length - 2);
+    int line = trivia.startLine();
+    int lineStart = 2;
+    int nextNoSonar = measured ? comment.indexOf(NOSONAR) : -1;
+    linesOfComments.set(line);
+    for (int i = 0; i < length; i++) {
+      char c = comment.charAt(i);
+      if (c == '\n' || c == '\r') {
+        if (measured) {
+          nextNoSonar = visitCommentLine(comment, lineStart, i, line, nextNoSonar);
+        }
+        if (c == '\r' && i + 1 < length && comment.charAt(i + 1) == '\n') {
+          i++;
+        }
+        line++;
+        linesOfComments.set(line);
+        lineStart = i + 1;
+      }
+    }
+    if (measured) {
+      visitCommentLine(comment, lineStart, contentEnd, line, nextNoSonar);
+    }
+  }
+
+  /**
+   * @return position of the next NOSONAR tag in the comment after this line, or -1 if there is none
+   */
+  private int visitCommentLine(String comment, int start, int end, int line, int noSonar) {
+    int nextNoSonar = noSonar;
+    while (nextNoSonar >= 0 && nextNoSonar < start) {
+      nextNoSonar = comment.indexOf(NOSONAR, nextNoSonar + 1);
+    }
+    if (nextNoSonar >= 0 && nextNoSonar + NOSONAR.length() <= end) {
+      noSonarLines.set(line);
+    } else if (!isBlank(comment, start, end)) {
+      commentLines.set(line);
+    }
+    return nextNoSonar;
+  }
+
+  private static boolean isBlank(String comment, int start, int end) {
+    for (int i = start; i < end; i++) {
+      char character = comment.charAt(i);
+      if (!Character.isWhitespace(character) && character != '*' && character != '/') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public int linesOfCode() {
+    return linesOfCode.cardinality();
+  }
+
+  public boolean isLineOfCode(int line) {
+    return linesOfCode.get(line);
+  }
+
+  public boolean isLineOfComment(int line) {
+    return linesOfComments.get(line);
+  }
+
+  public int commentLines() {
+    return commentLines.cardinality();
+  }
+
+  public Set<Integer> noSonarLines() {
+    Set<Integer> result = Sets.newHashSetWithExpectedSize(noSonarLines.cardinality());
+    for (int line = noSonarLines.nextSetBit(0); line >= 0; line = noSonarLines.nextSetBit(line + 1)) {
+      result.add(line);
+    }
+    return result;
+  }
+
+  /**
+   * Number of lines of the file, as counted by the {@link org.sonar.api.measures.CoreMetrics#LINES} metric: a file ending with a line break
+   * has a last empty line.
+   *
+   * @return -1 if the tree has no end of file token, which is the case when the file could not be parsed
+   */
+  public int lines() {
+    return lines;
+  }
+
+  /**
+   * Number of lines holding text, not counting the empty line following a trailing line break.
+   *
+   * @return -1 if the tree has no end of file token, which is the case when the file could not be parsed
+   */
+  public int linesOfText() {
+    if (lines < 0 || !endsWithLineBreak) {
+      return lines;
+    }
+    return lines - 1;
+  }
+
+}
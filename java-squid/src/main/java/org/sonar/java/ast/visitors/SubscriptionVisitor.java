@@ -20,6 +20,8 @@
 package org.sonar.java.ast.visitors;
 
 import org.sonar.java.model.JavaTree;
+import org.sonar.java.monitoring.CheckTimeBudget;
+import org.sonar.java.monitoring.Interruptible;
 import org.sonar.java.resolve.SemanticModel;
 import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
@@ -27,11 +29,12 @@ import org.sonar.plugins.java.api.tree.SyntaxToken;
 import org.sonar.plugins.java.api.tree.SyntaxTrivia;
 import org.sonar.plugins.java.api.tree.Tree;
 
+import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 
-public abstract class SubscriptionVisitor implements JavaFileScanner {
+public abstract class SubscriptionVisitor implements JavaFileScanner, Interruptible {
 
 
   protected JavaFileScannerContext context;
@@ -39,9 +42,15 @@ public abstract class SubscriptionVisitor implements JavaFileScanner {
   private boolean visitToken;
   private boolean visitTrivia;
   private SemanticModel semanticModel;
+  private CheckTimeBudget timeBudget;
 
   public abstract List<Tree.Kind> nodesToVisit();
 
+  @Override
+  public void setTimeBudget(@Nullable CheckTimeBudget timeBudget) {
+    this.timeBudget = timeBudget;
+  }
+
   public void visitNode(Tree tree) {
     //Default behavior : do nothing.
   }
@@ -73,6 +82,9 @@ public abstract class SubscriptionVisitor implements JavaFileScanner {
   }
 
   private void visit(Tree tree) {
+    if (timeBudget != null) {
+      timeBudget.checkNotExceeded();
+    }
     boolean isSubscribed = isSubscribed(tree);
     boolean isSyntaxToken = tree.is(Tree.Kind.TOKEN);
     if (isSyntaxToken) {
@@ -19,15 +19,12 @@
  */
 package org.sonar.java.ast.visitors;
 
-import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Lists;
-import com.google.common.io.Files;
 import org.sonar.api.source.Highlightable;
 import org.sonar.java.SonarComponents;
-import org.sonar.java.ast.api.JavaKeyword;
+import org.sonar.java.model.InternalSyntaxToken;
+import org.sonar.java.model.InternalSyntaxTrivia;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.tree.AnnotationTree;
 import org.sonar.plugins.java.api.tree.IdentifierTree;
@@ -38,30 +35,18 @@ import org.sonar.plugins.java.api.tree.SyntaxTrivia;
 import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.TypeTree;
 
-import java.io.File;
-import java.io.IOException;
-import java.nio.charset.Charset;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 public class SyntaxHighlighterVisitor extends SubscriptionVisitor {
 
   private final SonarComponents sonarComponents;
   private final Map<Tree.Kind, String> typesByKind;
-  private final Set<String> keywords;
-  private final Charset charset;
 
   private Highlightable.HighlightingBuilder highlighting;
-  private List<Integer> lineStart;
 
-  public SyntaxHighlighterVisitor(SonarComponents sonarComponents, Charset charset) {
+  public SyntaxHighlighterVisitor(SonarComponents sonarComponents) {
     this.sonarComponents = sonarComponents;
-    this.charset = charset;
-
-    ImmutableSet.Builder<String> keywordsBuilder = ImmutableSet.builder();
-    keywordsBuilder.add(JavaKeyword.keywordValues());
-    keywords = keywordsBuilder.build();
 
     ImmutableMap.Builder<Tree.Kind, String> typesByKindBuilder = ImmutableMap.builder();
     typesByKindBuilder.put(Tree.Kind.STRING_LITERAL, "s");
@@ -85,14 +70,11 @@ public class SyntaxHighlighterVisitor extends SubscriptionVisitor {
 
   @Override
   public void scanFile(JavaFileScannerContext context) {
-    File file = context.getFile();
-    highlighting = sonarComponents.highlightableFor(file).newHighlighting();
-    lineStart = startLines(file, this.charset);
+    highlighting = sonarComponents.highlightableFor(context.getFile()).newHighlighting();
 
     super.scanFile(context);
 
     highlighting.done();
-    lineStart.clear();
   }
 
   @Override
@@ -111,8 +93,7 @@ public class SyntaxHighlighterVisitor extends SubscriptionVisitor {
 
   @Override
   public void visitToken(SyntaxToken syntaxToken) {
-    String text = syntaxToken.text();
-    if (keywords.contains(text)) {
+    if (((InternalSyntaxToken) syntaxToken).javaKeyword() != null) {
       highlighting.highlight(start(syntaxToken), end(syntaxToken), "k");
     }
   }
@@ -126,20 +107,15 @@ public class SyntaxHighlighterVisitor extends SubscriptionVisitor {
     return start(annotationTree.atToken());
   }
 
-  private int start(SyntaxToken token) {
-    return getOffset(token.line(), token.column());
-  }
-
-  private int start(SyntaxTrivia syntaxTrivia) {
-    return getOffset(syntaxTrivia.startLine(), syntaxTrivia.column());
-  }
-
   /**
-   * @param line starts from 1
-   * @param column starts from 0
+   * Offsets are computed by the parser from the line table of the source, so the file does not have to be read again.
    */
-  private int getOffset(int line, int column) {
-    return lineStart.get(line - 1) + column;
+  private static int start(SyntaxToken token) {
+    return ((InternalSyntaxToken) token).fromIndex();
+  }
+
+  private static int start(SyntaxTrivia syntaxTrivia) {
+    return ((InternalSyntaxTrivia) syntaxTrivia).fromIndex();
   }
 
   private int end(AnnotationTree annotationTree) {
@@ -153,28 +129,11 @@ public class SyntaxHighlighterVisitor extends SubscriptionVisitor {
     return end(token);
   }
 
-  private int end(SyntaxToken token) {
-    return getOffset(token.line(), token.column()) + token.text().length();
-  }
-
-  private int end(SyntaxTrivia trivia) {
-    return getOffset(trivia.startLine(), trivia.column()) + trivia.comment().length();
+  private static int end(SyntaxToken token) {
+    return start(token) + token.text().length();
   }
 
-  private static List<Integer> startLines(File file, Charset charset) {
-    List<Integer> startLines = Lists.newArrayList();
-    final String content;
-    try {
-      content = Files.toString(file, charset);
-    } catch (IOException e) {
-      throw Throwables.propagate(e);
-    }
-    startLines.add(0);
-    for (int i = 0; i < content.length(); i++) {
-      if (content.charAt(i) == '\n' || (content.charAt(i) == '\r' && i + 1 < content.length() && content.charAt(i + 1) != '\n')) {
-        startLines.add(i + 1);
-      }
-    }
-    return startLines;
+  private static int end(SyntaxTrivia trivia) {
+    return start(trivia) + trivia.comment().length();
   }
 }
@@ -19,13 +19,14 @@
  */
 package org.sonar.java.bytecode;
 
+import com.google.common.collect.Lists;
 import org.sonar.java.bytecode.asm.AsmClass;
 import org.sonar.java.bytecode.asm.AsmClassProvider;
 import org.sonar.java.bytecode.asm.AsmClassProvider.DETAIL_LEVEL;
 import org.sonar.java.bytecode.asm.AsmClassProviderImpl;
-import org.sonar.java.bytecode.asm.AsmMethod;
 import org.sonar.java.bytecode.loader.SquidClassLoader;
 import org.sonar.java.bytecode.visitor.BytecodeVisitor;
+import org.sonar.java.monitoring.AnalysisMetrics;
 import org.sonar.plugins.java.api.JavaResourceLocator;
 import org.sonar.squidbridge.api.AnalysisException;
 import org.sonar.squidbridge.api.CodeScanner;
@@ -35,11 +36,13 @@ import org.sonar.squidbridge.indexer.SquidIndex;
 import java.io.File;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 public class BytecodeScanner extends CodeScanner<BytecodeVisitor> {
 
   private final SquidIndex indexer;
   private JavaResourceLocator javaResourceLocator;
+  private AnalysisMetrics metrics = AnalysisMetrics.disabled();
 
   public BytecodeScanner(SquidIndex indexer, JavaResourceLocator javaResourceLocator) {
     this.indexer = indexer;
@@ -54,21 +57,29 @@ public class BytecodeScanner extends CodeScanner<BytecodeVisitor> {
     return this;
   }
 
+  public void setMetrics(AnalysisMetrics metrics) {
+    this.metrics = metrics;
+  }
+
   protected BytecodeScanner scanClasses(Collection<String> classes, AsmClassProvider classProvider) {
+    AnalysisMetrics.Probe probe = metrics.start();
     loadByteCodeInformation(classes, classProvider);
+    metrics.record(AnalysisMetrics.BYTECODE_LOAD, probe);
+    probe = metrics.start();
     linkVirtualMethods(classes, classProvider);
+    metrics.record(AnalysisMetrics.BYTECODE_LINK, probe);
+    probe = metrics.start();
     notifyBytecodeVisitors(classes, classProvider);
+    metrics.record(AnalysisMetrics.BYTECODE_VISIT, probe);
     return this;
   }
 
   private static void linkVirtualMethods(Collection<String> keys, AsmClassProvider classProvider) {
-    VirtualMethodsLinker linker = new VirtualMethodsLinker();
+    List<AsmClass> asmClasses = Lists.newArrayListWithCapacity(keys.size());
     for (String key : keys) {
-      AsmClass asmClass = classProvider.getClass(key, DETAIL_LEVEL.STRUCTURE_AND_CALLS);
-      for (AsmMethod method : asmClass.getMethods()) {
-        linker.process(method);
-      }
+      asmClasses.add(classProvider.getClass(key, DETAIL_LEVEL.STRUCTURE_AND_CALLS));
     }
+    new VirtualMethodsLinker().process(asmClasses);
   }
 
   private void notifyBytecodeVisitors(Collection<String> keys, AsmClassProvider classProvider) {
@@ -19,11 +19,48 @@
  */
 package org.sonar.java.bytecode;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.primitives.Ints;
 import org.sonar.java.bytecode.asm.AsmClass;
 import org.sonar.java.bytecode.asm.AsmMethod;
 
+import javax.annotation.CheckForNull;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Links methods which are called but whose body is not loaded to the implementation inherited from a superclass.
+ * Implementations are resolved once per class and method key: each class keeps a table of the resolutions made through it,
+ * which is shared by all its subclasses, so deep hierarchies are not walked again for every method.
+ */
 public class VirtualMethodsLinker {
 
+  private final Map<AsmClass, Map<String, AsmMethod>> resolvedMethods = Maps.newHashMap();
+  private final Map<AsmClass, Integer> depths = Maps.newHashMap();
+
+  /**
+   * Links the methods of the given classes, superclasses being processed before their subclasses.
+   */
+  public void process(Collection<AsmClass> asmClasses) {
+    List<AsmClass> sortedClasses = Lists.newArrayList(asmClasses);
+    Collections.sort(sortedClasses, new Comparator<AsmClass>() {
+      @Override
+      public int compare(AsmClass class1, AsmClass class2) {
+        return Ints.compare(depth(class1), depth(class2));
+      }
+    });
+    for (AsmClass asmClass : sortedClasses) {
+      for (AsmMethod method : asmClass.getMethods()) {
+        process(method);
+      }
+    }
+  }
+
   public void process(AsmMethod method) {
     if (!method.isBodyLoaded() && method.isUsed()) {
       AsmMethod implementation = findImplementation(method.getParent(), method.getKey());
@@ -34,15 +71,58 @@ public class VirtualMethodsLinker {
     }
   }
 
-  private static AsmMethod findImplementation(AsmClass asmClass, String methodKey) {
-    AsmMethod method = asmClass.getMethod(methodKey);
-    if (method != null && method.isBodyLoaded()) {
-      return method;
+  @CheckForNull
+  private AsmMethod findImplementation(AsmClass asmClass, String methodKey) {
+    List<AsmClass> visited = Lists.newArrayList();
+    AsmMethod implementation = null;
+    AsmClass current = asmClass;
+    while (current != null) {
+      Map<String, AsmMethod> resolved = resolvedMethods.get(current);
+      if (resolved != null && resolved.containsKey(methodKey)) {
+        implementation = resolved.get(methodKey);
+        break;
+      }
+      visited.add(current);
+      AsmMethod method = current.getMethod(methodKey);
+      if (method != null && method.isBodyLoaded()) {
+        implementation = method;
+        break;
+      }
+      current = current.getSuperClass();
+    }
+    for (AsmClass visitedClass : visited) {
+      resolvedTable(visitedClass).put(methodKey, implementation);
+    }
+    return implementation;
+  }
+
+  private Map<String, AsmMethod> resolvedTable(AsmClass asmClass) {
+    Map<String, AsmMethod> resolved = resolvedMethods.get(asmClass);
+    if (resolved == null) {
+      resolved = Maps.newHashMap();
+      resolvedMethods.put(asmClass, resolved);
+    }
+    return resolved;
+  }
+
+  private int depth(AsmClass asmClass) {
+    List<AsmClass> chain = Lists.newArrayList();
+    int depth = 0;
+    AsmClass current = asmClass;
+    while (current != null) {
+      Integer knownDepth = depths.get(current);
+      if (knownDepth != null) {
+        depth = knownDepth + 1;
+        break;
+      }
+      chain.add(current);
+      current = current.getSuperClass();
     }
-    if (asmClass.getSuperClass() != null) {
-      return findImplementation(asmClass.getSuperClass(), methodKey);
+    for (int i = chain.size() - 1; i >= 0; i--) {
+      depths.put(chain.get(i), depth);
+      depth++;
     }
-    return null;
+    return depths.get(asmClass);
   }
 
 }
@@ -19,11 +19,9 @@
  */
 package org.sonar.java.bytecode.asm;
 
-import com.google.common.collect.Maps;
 import org.sonar.java.bytecode.asm.AsmClassProvider.DETAIL_LEVEL;
 
 import java.util.Collection;
-import java.util.Map;
 import java.util.Set;
 
 public class AsmClass extends AsmResource {
@@ -31,8 +29,8 @@ public class AsmClass extends AsmResource {
   private final String internalName;
   private DETAIL_LEVEL level;
   private AsmClass superClass;
-  private final Map<String, AsmMethod> methods = Maps.newHashMap();
-  private final Map<String, AsmField> fields = Maps.newHashMap();
+  private final AsmMemberTable<AsmMethod> methods = new AsmMemberTable<AsmMethod>();
+  private final AsmMemberTable<AsmField> fields = new AsmMemberTable<AsmField>();
 
   public AsmClass(String internalName, DETAIL_LEVEL level) {
     this.internalName = internalName;
@@ -106,7 +104,7 @@ public class AsmClass extends AsmResource {
 
   void setSuperClass(AsmClass superClass) {
     this.superClass = superClass;
-    addEdge(new AsmEdge(this, superClass, SourceCodeEdgeUsage.EXTENDS));
+    addEdge(superClass, SourceCodeEdgeUsage.EXTENDS, 0);
   }
 
   public AsmClass getSuperClass() {
@@ -114,7 +112,7 @@ public class AsmClass extends AsmResource {
   }
 
   void addInterface(AsmClass implementedInterface) {
-    addEdge(new AsmEdge(this, implementedInterface, SourceCodeEdgeUsage.IMPLEMENTS));
+    addEdge(implementedInterface, SourceCodeEdgeUsage.IMPLEMENTS, 0);
   }
 
   Set<AsmClass> getInterfaces() {
@@ -19,8 +19,13 @@
  */
 package org.sonar.java.bytecode.asm;
 
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
 public abstract class AsmClassProvider {
 
+  private final Interner<String> descriptors = Interners.newStrongInterner();
+
   public enum DETAIL_LEVEL {
     /**
      * Nothing is loaded from the bytecode
@@ -52,4 +57,12 @@ public abstract class AsmClassProvider {
     return getClass(internalName, DETAIL_LEVEL.STRUCTURE_AND_CALLS);
   }
 
+  /**
+   * Method keys, field names and signatures are shared by all classes loaded through this provider,
+   * so that the same descriptor referenced from many call sites is stored only once.
+   */
+  final String intern(String descriptor) {
+    return descriptors.intern(descriptor);
+  }
+
 }
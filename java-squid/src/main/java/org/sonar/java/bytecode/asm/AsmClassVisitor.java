@@ -66,29 +66,34 @@ public class AsmClassVisitor extends ClassVisitor {
 
   @Override
   public FieldVisitor visitField(int access, String fieldName, String description, String signature, Object value) {
-    AsmField field = asmClass.getFieldOrCreateIt(fieldName);
+    AsmField field = asmClass.getFieldOrCreateIt(asmClassProvider.intern(fieldName));
     field.setAccessFlags(access);
-    String[] internalNames = AsmSignature.extractInternalNames(description, signature);
-    AsmClass[] asmClasses = internalNamesToAsmClasses(internalNames, DETAIL_LEVEL.NOTHING);
-    field.addUsesOfClasses(asmClasses);
+    if (level == DETAIL_LEVEL.STRUCTURE_AND_CALLS) {
+      String[] internalNames = AsmSignature.extractInternalNames(description, signature);
+      AsmClass[] asmClasses = internalNamesToAsmClasses(internalNames, DETAIL_LEVEL.NOTHING);
+      field.addUsesOfClasses(asmClasses);
+    }
     return null;
   }
 
   @Override
   public MethodVisitor visitMethod(int access, String methodName, String description, String signature, String[] exceptions) {
-    AsmMethod method = asmClass.getMethodOrCreateIt(methodName + description);
+    AsmMethod method = asmClass.getMethodOrCreateIt(asmClassProvider.intern(methodName + description));
     if (isInheritedMethodSignature(method.getParent(), method.getKey())) {
       method.setInherited(true);
     }
-    method.setSignature(signature);
+    method.setSignature(signature == null ? null : asmClassProvider.intern(signature));
     method.setBodyLoaded(true);
     method.setAccessFlags(access);
 
     method.clearOutogingEdges();
 
-    String[] internalNames = AsmSignature.extractInternalNames(description, signature);
-    AsmClass[] asmClasses = internalNamesToAsmClasses(internalNames, DETAIL_LEVEL.NOTHING);
-    method.addUsesOfClasses(asmClasses);
+    if (level == DETAIL_LEVEL.STRUCTURE_AND_CALLS) {
+      // Types used by the descriptor are only needed for dependencies of analyzed classes, thrown exceptions are part of the structure
+      String[] internalNames = AsmSignature.extractInternalNames(description, signature);
+      AsmClass[] asmClasses = internalNamesToAsmClasses(internalNames, DETAIL_LEVEL.NOTHING);
+      method.addUsesOfClasses(asmClasses);
+    }
     AsmClass[] asmExceptionClasses = internalNamesToAsmClasses(exceptions, DETAIL_LEVEL.STRUCTURE);
     method.addUsesOfClasses(asmExceptionClasses);
     method.addThrowsOfClasses(asmExceptionClasses);
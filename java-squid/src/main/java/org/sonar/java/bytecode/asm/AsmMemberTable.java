@@ -0,0 +1,112 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * sonarqube@googlegroups.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.bytecode.asm;
+
+import com.google.common.collect.ImmutableList;
+
+import javax.annotation.CheckForNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Members of a class indexed by their key, stored in parallel arrays rather than in a {@link java.util.HashMap}
+ * to avoid one entry object per member. Lookups use open addressing with linear probing over a power of two slot table,
+ * members are kept in insertion order.
+ */
+class AsmMemberTable<T extends AsmResource> {
+
+  private static final int MIN_CAPACITY = 8;
+  private static final int EMPTY_SLOT = -1;
+
+  private String[] keys = new String[0];
+  private Object[] members = new Object[0];
+  private int[] slots = new int[0];
+  private int size = 0;
+
+  void put(String key, T member) {
+    if (size * 4 >= slots.length * 3) {
+      grow();
+    }
+    int slot = slotOf(key);
+    int index = slots[slot];
+    if (index == EMPTY_SLOT) {
+      slots[slot] = size;
+      keys[size] = key;
+      members[size] = member;
+      size++;
+    } else {
+      members[index] = member;
+    }
+  }
+
+  @CheckForNull
+  @SuppressWarnings("unchecked")
+  T get(String key) {
+    if (size == 0) {
+      return null;
+    }
+    int index = slots[slotOf(key)];
+    return index == EMPTY_SLOT ? null : (T) members[index];
+  }
+
+  int size() {
+    return size;
+  }
+
+  @SuppressWarnings("unchecked")
+  List<T> values() {
+    ImmutableList.Builder<T> builder = ImmutableList.builder();
+    for (int i = 0; i < size; i++) {
+      builder.add((T) members[i]);
+    }
+    return builder.build();
+  }
+
+  private int slotOf(String key) {
+    int mask = slots.length - 1;
+    int slot = spread(key.hashCode()) & mask;
+    while (slots[slot] != EMPTY_SLOT && !key.equals(keys[slots[slot]])) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private void grow() {
+    int capacity = Math.max(MIN_CAPACITY, slots.length * 2);
+    keys = Arrays.copyOf(keys, capacity);
+    members = Arrays.copyOf(members, capacity);
+    slots = new int[capacity];
+    Arrays.fill(slots, EMPTY_SLOT);
+    int mask = capacity - 1;
+    for (int i = 0; i < size; i++) {
+      int slot = spread(keys[i].hashCode()) & mask;
+      while (slots[slot] != EMPTY_SLOT) {
+        slot = (slot + 1) & mask;
+      }
+      slots[slot] = i;
+    }
+  }
+
+  private static int spread(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+
+}
@@ -26,8 +26,8 @@ import java.util.List;
 
 public class AsmMethod extends AsmResource {
 
-  private final String name;
   private final String key;
+  private String name;
   private boolean inherited = false;
   private boolean empty = false;
   private boolean bodyLoaded = true;
@@ -39,29 +39,29 @@ public class AsmMethod extends AsmResource {
   private AsmMethod implementationLinkage = null;
 
   public AsmMethod(AsmClass parent, String name, String descriptor) {
-    this.parent = parent;
-    this.name = name;
-    key = name + descriptor;
+    this(parent, name + descriptor);
   }
 
+  /**
+   * @param key name of the method followed by its descriptor. The name is extracted from the key on first use.
+   */
   public AsmMethod(AsmClass parent, String key) {
     this.parent = parent;
     this.key = key;
-    this.name = key.substring(0, key.indexOf('('));
   }
 
   void addThrowsOfClasses(AsmClass[] asmClasses) {
     for (AsmClass asmClass : asmClasses) {
-      addEdge(new AsmEdge(this, asmClass, SourceCodeEdgeUsage.THROWS));
+      addEdge(asmClass, SourceCodeEdgeUsage.THROWS, 0);
     }
   }
 
   public List<AsmClass> getThrows() {
     ImmutableList.Builder<AsmClass> builder = ImmutableList.builder();
 
-    for (AsmEdge edge : getOutgoingEdges()) {
-      if (edge.getUsage() == SourceCodeEdgeUsage.THROWS) {
-        builder.add((AsmClass) edge.getTo());
+    for (int i = 0; i < edgeCount(); i++) {
+      if (edgeUsage(i) == SourceCodeEdgeUsage.THROWS) {
+        builder.add((AsmClass) edgeTarget(i));
       }
     }
 
@@ -69,6 +69,9 @@ public class AsmMethod extends AsmResource {
   }
 
   public String getName() {
+    if (name == null) {
+      name = key.substring(0, key.indexOf('('));
+    }
     return name;
   }
 
@@ -78,7 +81,7 @@ public class AsmMethod extends AsmResource {
 
   public String getGenericKey() {
     if (signature != null) {
-      return name + signature;
+      return getName() + signature;
     }
     return getKey();
   }
@@ -93,9 +96,9 @@ public class AsmMethod extends AsmResource {
 
   public List<AsmField> getCallsToField() {
     List<AsmField> callsToField = new ArrayList<AsmField>();
-    for (AsmEdge usage : getOutgoingEdges()) {
-      if (usage.getUsage() == SourceCodeEdgeUsage.CALLS_FIELD) {
-        callsToField.add((AsmField) usage.getTo());
+    for (int i = 0; i < edgeCount(); i++) {
+      if (edgeUsage(i) == SourceCodeEdgeUsage.CALLS_FIELD) {
+        callsToField.add((AsmField) edgeTarget(i));
       }
     }
     return callsToField;
@@ -103,9 +106,9 @@ public class AsmMethod extends AsmResource {
 
   public List<AsmMethod> getCallsToMethod() {
     List<AsmMethod> callsToMethod = new ArrayList<AsmMethod>();
-    for (AsmEdge usage : getOutgoingEdges()) {
-      if (usage.getUsage() == SourceCodeEdgeUsage.CALLS_METHOD) {
-        callsToMethod.add((AsmMethod) usage.getTo());
+    for (int i = 0; i < edgeCount(); i++) {
+      if (edgeUsage(i) == SourceCodeEdgeUsage.CALLS_METHOD) {
+        callsToMethod.add((AsmMethod) edgeTarget(i));
       }
     }
     return callsToMethod;
@@ -129,7 +132,7 @@ public class AsmMethod extends AsmResource {
   }
 
   public boolean isConstructor() {
-    return "<init>".equals(name) || "<clinit>".equals(name);
+    return key.startsWith("<init>(") || key.startsWith("<clinit>(");
   }
 
   public boolean isDefaultConstructor() {
@@ -189,15 +192,15 @@ public class AsmMethod extends AsmResource {
 
   private void computeAccessedField() {
     if (!isConstructor()) {
-      for (AsmEdge edge : getOutgoingEdges()) {
-        if (isCallToNonStaticInternalField(edge)) {
-          if (isFieldAccesingDifferentField((AsmField) edge.getTo())) {
+      for (int i = 0; i < edgeCount(); i++) {
+        if (isCallToNonStaticInternalField(i)) {
+          if (isFieldAccesingDifferentField((AsmField) edgeTarget(i))) {
             accessedField = null;
             break;
           }
-          accessedField = (AsmField) edge.getTo();
-        } else if (isCallToNonStaticInternalMethod(edge)) {
-          AsmMethod method = (AsmMethod) edge.getTo();
+          accessedField = (AsmField) edgeTarget(i);
+        } else if (isCallToNonStaticInternalMethod(i)) {
+          AsmMethod method = (AsmMethod) edgeTarget(i);
           if (isMethodNotAccessorOrAccessingDifferentField(method)) {
             accessedField = null;
             break;
@@ -216,12 +219,12 @@ public class AsmMethod extends AsmResource {
     return accessedField != null && accessedField != field;
   }
 
-  private boolean isCallToNonStaticInternalField(AsmEdge edge) {
-    return edge.getTargetAsmClass() == getParent() && edge.getUsage() == SourceCodeEdgeUsage.CALLS_FIELD && !((AsmField) edge.getTo()).isStatic();
+  private boolean isCallToNonStaticInternalField(int edge) {
+    return edgeUsage(edge) == SourceCodeEdgeUsage.CALLS_FIELD && edgeTarget(edge).getParent() == getParent() && !edgeTarget(edge).isStatic();
   }
 
-  private boolean isCallToNonStaticInternalMethod(AsmEdge edge) {
-    return edge.getTargetAsmClass() == getParent() && edge.getUsage() == SourceCodeEdgeUsage.CALLS_METHOD && !((AsmMethod) edge.getTo()).isStatic();
+  private boolean isCallToNonStaticInternalMethod(int edge) {
+    return edgeUsage(edge) == SourceCodeEdgeUsage.CALLS_METHOD && edgeTarget(edge).getParent() == getParent() && !edgeTarget(edge).isStatic();
   }
 
   @Override
@@ -230,7 +233,7 @@ public class AsmMethod extends AsmResource {
   }
 
   public boolean isStaticConstructor() {
-    return "<init>".equals(name);
+    return key.startsWith("<init>(");
   }
 
   public void linkTo(AsmMethod implementationLinkage) {
@@ -42,8 +42,8 @@ public class AsmMethodVisitor extends MethodVisitor {
   @Override
   public void visitFieldInsn(int opcode, String owner, String fieldName, String fieldDescription) {
     AsmClass targetClass = asmClassProvider.getClass(owner, DETAIL_LEVEL.NOTHING);
-    AsmField targetField = targetClass.getFieldOrCreateIt(fieldName);
-    method.addEdge(new AsmEdge(method, targetField, SourceCodeEdgeUsage.CALLS_FIELD, lineNumber));
+    AsmField targetField = targetClass.getFieldOrCreateIt(asmClassProvider.intern(fieldName));
+    method.addEdge(targetField, SourceCodeEdgeUsage.CALLS_FIELD, lineNumber);
     emptyMethod = false;
   }
 
@@ -51,8 +51,8 @@ public class AsmMethodVisitor extends MethodVisitor {
   public void visitMethodInsn(int opcode, String owner, String name, String desc, boolean itf) {
     if (isNotCallToJavaArrayMethod(owner)) {
       AsmClass targetClass = asmClassProvider.getClass(owner, DETAIL_LEVEL.STRUCTURE);
-      AsmMethod targetMethod = targetClass.getMethodOrCreateIt(name + desc);
-      method.addEdge(new AsmEdge(method, targetMethod, SourceCodeEdgeUsage.CALLS_METHOD, lineNumber));
+      AsmMethod targetMethod = targetClass.getMethodOrCreateIt(asmClassProvider.intern(name + desc));
+      method.addEdge(targetMethod, SourceCodeEdgeUsage.CALLS_METHOD, lineNumber);
     }
     emptyMethod = false;
   }
@@ -65,7 +65,7 @@ public class AsmMethodVisitor extends MethodVisitor {
   public void visitTryCatchBlock(Label start, Label end, Label handler, String exception) {
     if (exception != null) {
       AsmClass exceptionClass = asmClassProvider.getClass(exception, DETAIL_LEVEL.NOTHING);
-      method.addEdge(new AsmEdge(method, exceptionClass, SourceCodeEdgeUsage.USES, lineNumber));
+      method.addEdge(exceptionClass, SourceCodeEdgeUsage.USES, lineNumber);
     }
     emptyMethod = false;
   }
@@ -73,7 +73,7 @@ public class AsmMethodVisitor extends MethodVisitor {
   @Override
   public void visitTypeInsn(int opcode, String internalName) {
     AsmClass usedClass = asmClassProvider.getClass(internalName, DETAIL_LEVEL.NOTHING);
-    method.addEdge(new AsmEdge(method, usedClass, SourceCodeEdgeUsage.USES, lineNumber));
+    method.addEdge(usedClass, SourceCodeEdgeUsage.USES, lineNumber);
     emptyMethod = false;
   }
 
@@ -119,7 +119,7 @@ public class AsmMethodVisitor extends MethodVisitor {
     if (cst instanceof Type) {
       Type type = (Type) cst;
       AsmClass usedClass = asmClassProvider.getClass(type.getInternalName(), DETAIL_LEVEL.NOTHING);
-      method.addEdge(new AsmEdge(method, usedClass, SourceCodeEdgeUsage.USES, lineNumber));
+      method.addEdge(usedClass, SourceCodeEdgeUsage.USES, lineNumber);
     }
     emptyMethod = false;
   }
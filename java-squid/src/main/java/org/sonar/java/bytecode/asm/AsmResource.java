@@ -19,18 +19,30 @@
  */
 package org.sonar.java.bytecode.asm;
 
-import java.util.ArrayList;
-import java.util.Collection;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 public class AsmResource {
 
+  private static final AsmResource[] NO_TARGETS = new AsmResource[0];
+  private static final int[] NO_INFOS = new int[0];
+  private static final SourceCodeEdgeUsage[] USAGES = SourceCodeEdgeUsage.values();
+  private static final int USAGE_BITS = 4;
+  private static final int USAGE_MASK = (1 << USAGE_BITS) - 1;
+
   private int accessFlags;
   AsmClass parent;
   boolean used = false;
-  private final List<AsmEdge> outgoingEdges = new ArrayList<AsmEdge>();
+  /**
+   * Outgoing edges are stored as the target of each edge, and an int packing its line number and usage.
+   * {@link AsmEdge} objects are only created when edges are requested through {@link #getOutgoingEdges()}.
+   */
+  private AsmResource[] edgeTargets = NO_TARGETS;
+  private int[] edgeInfos = NO_INFOS;
+  private int edgeCount;
 
   void setAccessFlags(int accessFlags) {
     this.accessFlags = accessFlags;
@@ -38,40 +50,81 @@ public class AsmResource {
 
   void addUsesOfClasses(AsmClass[] asmClasses) {
     for (AsmClass asmClass : asmClasses) {
-      addEdge(new AsmEdge(this, asmClass, SourceCodeEdgeUsage.USES));
+      addEdge(asmClass, SourceCodeEdgeUsage.USES, 0);
     }
   }
 
   public Set<AsmClass> getDistinctUsedAsmClasses() {
-    Set<AsmClass> distinctUsedAsmClasses = new HashSet<AsmClass>();
-    for (AsmEdge usage : getOutgoingEdges()) {
-      if (usage.getUsage() == SourceCodeEdgeUsage.USES) {
-        distinctUsedAsmClasses.add((AsmClass) usage.getTo());
-      }
-    }
-    return distinctUsedAsmClasses;
+    return getEdgeTargets(SourceCodeEdgeUsage.USES);
   }
 
   public Set<AsmClass> getImplementedInterfaces() {
-    Set<AsmClass> implementedInterfaces = new HashSet<AsmClass>();
-    for (AsmEdge usage : getOutgoingEdges()) {
-      if (usage.getUsage() == SourceCodeEdgeUsage.IMPLEMENTS) {
-        implementedInterfaces.add((AsmClass) usage.getTo());
+    return getEdgeTargets(SourceCodeEdgeUsage.IMPLEMENTS);
+  }
+
+  private Set<AsmClass> getEdgeTargets(SourceCodeEdgeUsage usage) {
+    Set<AsmClass> targets = new HashSet<AsmClass>();
+    for (int i = 0; i < edgeCount; i++) {
+      if (edgeUsage(i) == usage) {
+        targets.add((AsmClass) edgeTargets[i]);
       }
     }
-    return implementedInterfaces;
+    return targets;
   }
 
   public void addEdge(AsmEdge edge) {
-    outgoingEdges.add(edge);
+    addEdge(edge.getTo(), edge.getUsage(), edge.getSourceLineNumber());
+  }
+
+  void addEdge(AsmResource to, SourceCodeEdgeUsage usage, int sourceLineNumber) {
+    to.setUsed(true);
+    if (edgeCount == edgeTargets.length) {
+      int capacity = Math.max(4, edgeCount * 2);
+      edgeTargets = Arrays.copyOf(edgeTargets, capacity);
+      edgeInfos = Arrays.copyOf(edgeInfos, capacity);
+    }
+    edgeTargets[edgeCount] = to;
+    edgeInfos[edgeCount] = (sourceLineNumber << USAGE_BITS) | usage.ordinal();
+    edgeCount++;
   }
 
   public void clearOutogingEdges() {
-    outgoingEdges.clear();
+    edgeTargets = NO_TARGETS;
+    edgeInfos = NO_INFOS;
+    edgeCount = 0;
+  }
+
+  int edgeCount() {
+    return edgeCount;
   }
 
-  public Collection<AsmEdge> getOutgoingEdges() {
-    return outgoingEdges;
+  AsmResource edgeTarget(int index) {
+    return edgeTargets[index];
+  }
+
+  SourceCodeEdgeUsage edgeUsage(int index) {
+    return USAGES[edgeInfos[index] & USAGE_MASK];
+  }
+
+  int edgeSourceLineNumber(int index) {
+    return edgeInfos[index] >>> USAGE_BITS;
+  }
+
+  public List<AsmEdge> getOutgoingEdges() {
+    return new AbstractList<AsmEdge>() {
+      @Override
+      public AsmEdge get(int index) {
+        if (index >= edgeCount) {
+          throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + edgeCount);
+        }
+        return new AsmEdge(AsmResource.this, edgeTarget(index), edgeUsage(index), edgeSourceLineNumber(index));
+      }
+
+      @Override
+      public int size() {
+        return edgeCount;
+      }
+    };
   }
 
   public AsmClass getParent() {
@@ -19,6 +19,8 @@
  */
 package org.sonar.java.bytecode.visitor;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import org.sonar.api.design.Dependency;
 import org.sonar.api.resources.Resource;
 import org.sonar.graph.DirectedGraph;
@@ -28,12 +30,37 @@ import org.sonar.plugins.java.api.JavaResourceLocator;
 
 import javax.annotation.Nullable;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects dependencies between files while bytecode is visited, and turns them into file and package dependencies of the graph
+ * once all classes have been visited, see {@link #buildGraph()}.
+ * <p/>
+ * Resources are referenced by index: the resource of each class is looked up once and its index cached by this visitor until the
+ * graph is built, and the distinct files used by each file are kept as sorted int arrays.
+ */
 public class DependenciesVisitor extends BytecodeVisitor {
 
-  @Nullable
-  private Resource fromResource;
+  /**
+   * Index of the classes which are not part of the analyzed sources, like library classes.
+   */
+  private static final int NO_RESOURCE = -1;
+  private static final int INITIAL_CAPACITY = 16;
+  private static final int[] NO_TARGETS = new int[0];
+
   private final DirectedGraph<Resource, Dependency> graph;
   private ResourceMapping resourceMapping;
+  private final List<Resource> resources = Lists.newArrayList();
+  private final Map<Resource, Integer> indexByResource = Maps.newHashMap();
+  private final Map<AsmClass, Integer> indexByClass = Maps.newIdentityHashMap();
+  /**
+   * Distinct files used by each file, sorted, only the first {@link #targetCounts} elements being used.
+   */
+  private int[][] targets = new int[INITIAL_CAPACITY][];
+  private int[] targetCounts = new int[INITIAL_CAPACITY];
+  private int fromIndex = NO_RESOURCE;
 
   public DependenciesVisitor(DirectedGraph<Resource, Dependency> graph) {
     this.graph = graph;
@@ -47,44 +74,103 @@ public class DependenciesVisitor extends BytecodeVisitor {
 
   @Override
   public void visitClass(AsmClass asmClass) {
-    fromResource = getResource(asmClass);
+    fromIndex = getResourceIndex(asmClass);
   }
 
   @Override
   public void visitEdge(AsmEdge edge) {
-    AsmClass toAsmClass = edge.getTargetAsmClass();
-    Resource toResource = getResource(toAsmClass);
-    Dependency fileEdge = createDependency(fromResource, toResource, null);
-    if (fromResource != null && toResource != null) {
-      createDependency(fromResource.getParent(), toResource.getParent(), fileEdge);
+    if (fromIndex != NO_RESOURCE) {
+      int toIndex = getResourceIndex(edge.getTargetAsmClass());
+      if (toIndex != NO_RESOURCE && toIndex != fromIndex) {
+        addTarget(fromIndex, toIndex);
+      }
     }
   }
 
+  /**
+   * Adds the dependencies collected so far to the graph. File dependencies between files of different packages are registered
+   * as sub dependencies of the package dependency, whose weight is the number of such file dependencies plus one.
+   */
+  public void buildGraph() {
+    for (int from = 0; from < resources.size(); from++) {
+      Resource fromResource = resources.get(from);
+      for (int i = 0; i < targetCounts[from]; i++) {
+        Resource toResource = resources.get(targets[from][i]);
+        Dependency fileEdge = getOrCreateDependency(fromResource, toResource);
+        Resource fromPackage = fromResource.getParent();
+        Resource toPackage = toResource.getParent();
+        if (canWeLinkNodes(fromPackage, toPackage)) {
+          Dependency packageEdge = getOrCreateDependency(fromPackage, toPackage);
+          if (resourceMapping.addSubDependency(packageEdge, fileEdge)) {
+            packageEdge.setWeight(packageEdge.getWeight() + 1);
+            fileEdge.setParent(packageEdge);
+          }
+        }
+      }
+    }
+    resources.clear();
+    indexByResource.clear();
+    indexByClass.clear();
+    targets = new int[INITIAL_CAPACITY][];
+    targetCounts = new int[INITIAL_CAPACITY];
+    fromIndex = NO_RESOURCE;
+  }
+
+  private Dependency getOrCreateDependency(Resource from, Resource to) {
+    Dependency dependency = graph.getEdge(from, to);
+    if (dependency == null) {
+      dependency = new Dependency(from, to).setUsage("USES");
+      dependency.setWeight(1);
+      graph.addEdge(dependency);
+    }
+    return dependency;
+  }
 
-  private Dependency createDependency(@Nullable Resource from, @Nullable Resource to, @Nullable Dependency subDependency) {
-    Dependency dependency = null;
-    if (canWeLinkNodes(from, to)) {
-      dependency = graph.getEdge(from, to);
-      if (dependency == null) {
-        dependency = new Dependency(from, to).setUsage("USES");
-        dependency.setWeight(1);
-        graph.addEdge(dependency);
+  private void addTarget(int from, int to) {
+    int[] fromTargets = targets[from];
+    int count = targetCounts[from];
+    int position = Arrays.binarySearch(fromTargets, 0, count, to);
+    if (position < 0) {
+      int insertion = -position - 1;
+      if (count == fromTargets.length) {
+        fromTargets = Arrays.copyOf(fromTargets, Math.max(4, count * 2));
+        targets[from] = fromTargets;
       }
-      if (subDependency != null && !resourceMapping.getSubDependencies(dependency).contains(subDependency)) {
-        resourceMapping.addSubDependency(dependency, subDependency);
-        dependency.setWeight(dependency.getWeight() + 1);
-        subDependency.setParent(dependency);
+      System.arraycopy(fromTargets, insertion, fromTargets, insertion + 1, count - insertion);
+      fromTargets[insertion] = to;
+      targetCounts[from] = count + 1;
+    }
+  }
+
+  private int getResourceIndex(AsmClass asmClass) {
+    Integer index = indexByClass.get(asmClass);
+    if (index == null) {
+      index = indexOf(javaResourceLocator.findResourceByClassName(asmClass.getInternalName()));
+      indexByClass.put(asmClass, index);
+    }
+    return index;
+  }
+
+  private int indexOf(@Nullable Resource resource) {
+    if (resource == null) {
+      return NO_RESOURCE;
+    }
+    Integer index = indexByResource.get(resource);
+    if (index == null) {
+      index = resources.size();
+      resources.add(resource);
+      indexByResource.put(resource, index);
+      if (index == targets.length) {
+        targets = Arrays.copyOf(targets, index * 2);
+        targetCounts = Arrays.copyOf(targetCounts, index * 2);
       }
+      targets[index] = NO_TARGETS;
     }
-    return dependency;
+    return index;
   }
 
   private static boolean canWeLinkNodes(@Nullable Resource from, @Nullable Resource to) {
     return from != null && to != null && !from.equals(to);
   }
 
-  private Resource getResource(AsmClass asmClass) {
-    return javaResourceLocator.findResourceByClassName(asmClass.getInternalName());
-  }
-
 }
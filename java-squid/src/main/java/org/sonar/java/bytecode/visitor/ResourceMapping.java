@@ -19,16 +19,16 @@
  */
 package org.sonar.java.bytecode.visitor;
 
-import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedSet;
-import com.google.common.collect.Multimap;
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.SetMultimap;
 import org.sonar.api.design.Dependency;
 import org.sonar.api.resources.Directory;
 import org.sonar.api.resources.File;
 import org.sonar.api.resources.Resource;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
@@ -36,18 +36,30 @@ import java.util.Set;
 
 public class ResourceMapping {
 
-  private Multimap<Directory, File> directories;
-  private Multimap<Dependency, Dependency> subDependencies;
+  private static final Comparator<Resource> RESOURCE_KEY_COMPARATOR = new Comparator<Resource>() {
+    @Override
+    public int compare(Resource resource, Resource resource2) {
+      return resource.getKey().compareTo(resource2.getKey());
+    }
+  };
+
+  private SetMultimap<Directory, File> directories;
+  private SetMultimap<Dependency, Dependency> subDependencies;
   private Map<File, String> fileKeyByResource;
+  private Set<Resource> sortedDirectories;
 
   public ResourceMapping() {
-    directories = ArrayListMultimap.create();
-    subDependencies = ArrayListMultimap.create();
+    directories = LinkedHashMultimap.create();
+    subDependencies = LinkedHashMultimap.create();
     fileKeyByResource = new HashMap<>();
   }
 
   public void addResource(File resource, String fileKey) {
-    directories.put(resource.getParent(), resource);
+    Directory directory = resource.getParent();
+    if (!directories.containsKey(directory)) {
+      sortedDirectories = null;
+    }
+    directories.put(directory, resource);
     fileKeyByResource.put(resource, fileKey);
   }
 
@@ -56,25 +68,26 @@ public class ResourceMapping {
   }
 
   public Set<Resource> directories() {
-    //order of directories. Required for package cycle reliability
-    return ImmutableSortedSet.orderedBy(new Comparator<Resource>() {
-      @Override
-      public int compare(Resource resource, Resource resource2) {
-        return resource.getKey().compareTo(resource2.getKey());
-      }
-    }).addAll(directories.keySet()).build();
+    if (sortedDirectories == null) {
+      //order of directories. Required for package cycle reliability
+      sortedDirectories = ImmutableSortedSet.orderedBy(RESOURCE_KEY_COMPARATOR).addAll(directories.keySet()).build();
+    }
+    return sortedDirectories;
   }
 
   public Collection<Resource> files(Directory directory) {
-    return ImmutableSet.<Resource>builder().addAll(directories.get(directory)).build();
+    return Collections.<Resource>unmodifiableSet(directories.get(directory));
   }
 
-  public void addSubDependency(Dependency parent, Dependency subDependency) {
-    subDependencies.put(parent, subDependency);
+  /**
+   * @return false if the sub dependency was already registered for this parent
+   */
+  public boolean addSubDependency(Dependency parent, Dependency subDependency) {
+    return subDependencies.put(parent, subDependency);
   }
 
   public Collection<Dependency> getSubDependencies(Dependency parent) {
-    return subDependencies.get(parent);
+    return Collections.unmodifiableSet(subDependencies.get(parent));
   }
 
 
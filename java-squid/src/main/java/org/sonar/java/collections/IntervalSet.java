@@ -0,0 +1,153 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * sonarqube@googlegroups.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.collections;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Arrays;
+
+/**
+ * Set of int values stored as sorted, disjoint and non adjacent closed intervals, typically used for ranges of lines.
+ * Memory is proportional to the number of intervals, not to the number of values.
+ */
+public class IntervalSet {
+
+  private static final int INITIAL_CAPACITY = 4;
+
+  private int[] starts = new int[INITIAL_CAPACITY];
+  private int[] ends = new int[INITIAL_CAPACITY];
+  private int size;
+
+  /**
+   * Adds all the values from start to end, both inclusive.
+   */
+  public void add(int start, int end) {
+    Preconditions.checkArgument(start <= end, "Start of interval %s is after its end %s", start, end);
+    // first interval which may be merged with the new one
+    int first = firstIntervalEndingAtOrAfter(start - 1);
+    int last = first;
+    int newStart = start;
+    int newEnd = end;
+    while (last < size && starts[last] <= end + 1) {
+      newStart = Math.min(newStart, starts[last]);
+      newEnd = Math.max(newEnd, ends[last]);
+      last++;
+    }
+    int merged = last - first;
+    if (merged == 0) {
+      ensureCapacity(size + 1);
+      System.arraycopy(starts, first, starts, first + 1, size - first);
+      System.arraycopy(ends, first, ends, first + 1, size - first);
+      size++;
+    } else if (merged > 1) {
+      System.arraycopy(starts, last, starts, first + 1, size - last);
+      System.arraycopy(ends, last, ends, first + 1, size - last);
+      size -= merged - 1;
+    }
+    starts[first] = newStart;
+    ends[first] = newEnd;
+  }
+
+  public void add(int value) {
+    add(value, value);
+  }
+
+  public boolean contains(int value) {
+    int index = firstIntervalEndingAtOrAfter(value);
+    return index < size && starts[index] <= value;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * @return number of intervals, after merge of overlapping and adjacent ones
+   */
+  public int intervals() {
+    return size;
+  }
+
+  /**
+   * @return first value of the interval at the given index, intervals being sorted
+   */
+  public int start(int index) {
+    Preconditions.checkElementIndex(index, size);
+    return starts[index];
+  }
+
+  /**
+   * @return last value of the interval at the given index, intervals being sorted
+   */
+  public int end(int index) {
+    Preconditions.checkElementIndex(index, size);
+    return ends[index];
+  }
+
+  /**
+   * @return number of values contained in this set
+   */
+  public int cardinality() {
+    int cardinality = 0;
+    for (int i = 0; i < size; i++) {
+      cardinality += ends[i] - starts[i] + 1;
+    }
+    return cardinality;
+  }
+
+  public void clear() {
+    size = 0;
+  }
+
+  private int firstIntervalEndingAtOrAfter(int value) {
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (ends[mid] < value) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity > starts.length) {
+      int newCapacity = Math.max(capacity, starts.length * 2);
+      starts = Arrays.copyOf(starts, newCapacity);
+      ends = Arrays.copyOf(ends, newCapacity);
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("[");
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        sb.append(", ");
+      }
+      sb.append(starts[i]).append("..").append(ends[i]);
+    }
+    return sb.append(']').toString();
+  }
+
+}
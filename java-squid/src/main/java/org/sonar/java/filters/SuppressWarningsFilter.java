@@ -20,14 +20,12 @@
 package org.sonar.java.filters;
 
 import com.google.common.collect.Maps;
-import com.google.common.collect.Multimap;
-import com.google.common.collect.Sets;
 import org.sonar.api.issue.Issue;
 import org.sonar.api.issue.batch.IssueFilter;
 import org.sonar.api.issue.batch.IssueFilterChain;
 import org.sonar.api.rule.RuleKey;
+import org.sonar.java.collections.IntervalSet;
 
-import java.util.Collection;
 import java.util.Map;
 
 /**
@@ -41,44 +39,31 @@ import java.util.Map;
  */
 public class SuppressWarningsFilter implements IssueFilter {
 
-  private final Map<String, Multimap<Integer, String>> suppressWarningsLinesByResource = Maps.newHashMap();
+  private final Map<String, SuppressionIntervals> suppressionsByResource = Maps.newHashMap();
 
-  public void addComponent(String componentKey, Multimap<Integer, String> warningLines) {
-    suppressWarningsLinesByResource.put(componentKey, warningLines);
+  /**
+   * @param warningLines lines covered by each suppressed warning
+   */
+  public void addComponent(String componentKey, Map<String, IntervalSet> warningLines) {
+    SuppressionIntervals suppressions = SuppressionIntervals.create(warningLines);
+    if (!suppressions.isEmpty()) {
+      suppressionsByResource.put(componentKey, suppressions);
+    }
   }
 
   @Override
   public boolean accept(Issue issue, IssueFilterChain chain) {
-    for (String warning : getWarningsByLine(issue)) {
-      if (issueShouldNotBeReported(warning, issue)) {
+    Integer line = issue.line();
+    RuleKey ruleKey = issue.ruleKey();
+    if (line != null && !isSuppressWarningRule(ruleKey)) {
+      SuppressionIntervals suppressions = suppressionsByResource.get(issue.componentKey());
+      if (suppressions != null && suppressions.suppresses(line, ruleKey)) {
         return false;
       }
     }
     return chain.accept(issue);
   }
 
-  private Collection<String> getWarningsByLine(Issue issue) {
-    Integer line = issue.line();
-    String componentKey = issue.componentKey();
-    if (line != null && suppressWarningsLinesByResource.containsKey(componentKey)) {
-      return suppressWarningsLinesByResource.get(componentKey).get(line);
-    }
-    return Sets.newTreeSet();
-  }
-
-  private static boolean issueShouldNotBeReported(String warning, Issue issue) {
-    RuleKey ruleKey = issue.ruleKey();
-    return (warningIsRuleKey(warning, ruleKey) || "all".equals(warning)) && !isSuppressWarningRule(ruleKey);
-  }
-
-  private static boolean warningIsRuleKey(String warning, RuleKey ruleKey) {
-    try {
-      return ruleKey.equals(RuleKey.parse(warning));
-    } catch (IllegalArgumentException e) {
-      return false;
-    }
-  }
-
   private static boolean isSuppressWarningRule(RuleKey ruleKey) {
     return "S1309".equals(ruleKey.rule());
   }
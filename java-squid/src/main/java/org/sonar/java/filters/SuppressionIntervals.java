@@ -0,0 +1,152 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * sonarqube@googlegroups.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.filters;
+
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Ints;
+import org.sonar.api.rule.RuleKey;
+import org.sonar.java.collections.IntervalSet;
+
+import javax.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Static interval tree of the lines covered by <code>@SuppressWarnings</code> annotations of a file, built once per file.
+ * Warnings are parsed as rule keys when the tree is built, so that finding whether an issue is suppressed costs O(log n) without parsing.
+ * Warnings which are neither "all" nor a rule key can not suppress an issue and are dropped.
+ */
+class SuppressionIntervals {
+
+  private static final String ALL_WARNINGS = "all";
+
+  private final int[] starts;
+  private final int[] ends;
+  /**
+   * Greatest end of the intervals in the subtree rooted at each index.
+   */
+  private final int[] maxEnds;
+  /**
+   * Suppressed rule of each interval, null when all rules are suppressed.
+   */
+  private final RuleKey[] ruleKeys;
+
+  private SuppressionIntervals(List<Interval> intervals) {
+    int size = intervals.size();
+    starts = new int[size];
+    ends = new int[size];
+    maxEnds = new int[size];
+    ruleKeys = new RuleKey[size];
+    for (int i = 0; i < size; i++) {
+      Interval interval = intervals.get(i);
+      starts[i] = interval.start;
+      ends[i] = interval.end;
+      ruleKeys[i] = interval.ruleKey;
+    }
+    computeMaxEnds(0, size);
+  }
+
+  static SuppressionIntervals create(Map<String, IntervalSet> warningLines) {
+    List<Interval> intervals = Lists.newArrayList();
+    for (Map.Entry<String, IntervalSet> entry : warningLines.entrySet()) {
+      String warning = entry.getKey();
+      RuleKey ruleKey = null;
+      if (!ALL_WARNINGS.equals(warning)) {
+        ruleKey = parseRuleKey(warning);
+        if (ruleKey == null) {
+          continue;
+        }
+      }
+      IntervalSet lines = entry.getValue();
+      for (int i = 0; i < lines.intervals(); i++) {
+        intervals.add(new Interval(lines.start(i), lines.end(i), ruleKey));
+      }
+    }
+    Collections.sort(intervals, new Comparator<Interval>() {
+      @Override
+      public int compare(Interval i1, Interval i2) {
+        return Ints.compare(i1.start, i2.start);
+      }
+    });
+    return new SuppressionIntervals(intervals);
+  }
+
+  boolean isEmpty() {
+    return starts.length == 0;
+  }
+
+  boolean suppresses(int line, RuleKey ruleKey) {
+    return suppresses(0, starts.length, line, ruleKey);
+  }
+
+  private boolean suppresses(int low, int high, int line, RuleKey ruleKey) {
+    if (low >= high) {
+      return false;
+    }
+    int mid = (low + high) >>> 1;
+    if (maxEnds[mid] < line) {
+      // no interval of this subtree goes up to the line
+      return false;
+    }
+    if (starts[mid] <= line && line <= ends[mid] && (ruleKeys[mid] == null || ruleKeys[mid].equals(ruleKey))) {
+      return true;
+    }
+    if (suppresses(low, mid, line, ruleKey)) {
+      return true;
+    }
+    // intervals on the right start after the one at mid
+    return starts[mid] <= line && suppresses(mid + 1, high, line, ruleKey);
+  }
+
+  private int computeMaxEnds(int low, int high) {
+    if (low >= high) {
+      return Integer.MIN_VALUE;
+    }
+    int mid = (low + high) >>> 1;
+    int maxEnd = Math.max(ends[mid], Math.max(computeMaxEnds(low, mid), computeMaxEnds(mid + 1, high)));
+    maxEnds[mid] = maxEnd;
+    return maxEnd;
+  }
+
+  @Nullable
+  private static RuleKey parseRuleKey(String warning) {
+    try {
+      return RuleKey.parse(warning);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private static class Interval {
+    private final int start;
+    private final int end;
+    private final RuleKey ruleKey;
+
+    Interval(int start, int end, @Nullable RuleKey ruleKey) {
+      this.start = start;
+      this.end = end;
+      this.ruleKey = ruleKey;
+    }
+  }
+
+}
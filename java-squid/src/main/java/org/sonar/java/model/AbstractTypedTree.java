@@ -26,7 +26,7 @@ import org.sonar.sslr.grammar.GrammarRuleKey;
 /**
  * This class is intended for internal use during semantic analysis and should not be used in checks.
  */
-public abstract class AbstractTypedTree extends JavaTree {
+public abstract class AbstractTypedTree extends CompositeTree {
 
   /**
    * Can be {@code null} before and during semantic analysis, but not after.
@@ -0,0 +1,66 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * sonarqube@googlegroups.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.model;
+
+import org.sonar.java.syntaxtoken.FirstSyntaxTokenFinder;
+import org.sonar.java.syntaxtoken.LastSyntaxTokenFinder;
+import org.sonar.plugins.java.api.tree.SyntaxToken;
+import org.sonar.sslr.grammar.GrammarRuleKey;
+
+import javax.annotation.CheckForNull;
+
+/**
+ * Tree made of other trees, which keeps its first and last syntax tokens once found.
+ * Tokens do not extend this class: they are their own first and last token, so they do not need the two fields.
+ */
+public abstract class CompositeTree extends JavaTree {
+
+  private SyntaxToken firstToken;
+  private SyntaxToken lastToken;
+
+  public CompositeTree(GrammarRuleKey grammarRuleKey) {
+    super(grammarRuleKey);
+  }
+
+  /**
+   * Searched on first call only: a syntax tree does not change once parsed.
+   */
+  @CheckForNull
+  @Override
+  public SyntaxToken firstToken() {
+    if (firstToken == null) {
+      firstToken = FirstSyntaxTokenFinder.find(this);
+    }
+    return firstToken;
+  }
+
+  /**
+   * Searched on first call only: a syntax tree does not change once parsed.
+   */
+  @CheckForNull
+  @Override
+  public SyntaxToken lastToken() {
+    if (lastToken == null) {
+      lastToken = LastSyntaxTokenFinder.find(this);
+    }
+    return lastToken;
+  }
+
+}
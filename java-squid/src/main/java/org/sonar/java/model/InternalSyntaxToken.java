@@ -19,12 +19,16 @@
  */
 package org.sonar.java.model;
 
+import org.sonar.java.ast.api.JavaKeyword;
+import org.sonar.java.ast.api.JavaPunctuator;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
 import org.sonar.plugins.java.api.tree.SyntaxTrivia;
 import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.TreeVisitor;
 import org.sonar.sslr.grammar.GrammarRuleKey;
 
+import javax.annotation.CheckForNull;
+
 import java.util.Iterator;
 import java.util.List;
 
@@ -39,7 +43,7 @@ public class InternalSyntaxToken extends JavaTree implements SyntaxToken {
   private final boolean isEOF;
 
   protected InternalSyntaxToken(InternalSyntaxToken internalSyntaxToken) {
-    super(null);
+    super(internalSyntaxToken.grammarRuleKey);
     this.value = internalSyntaxToken.value;
     this.line = internalSyntaxToken.line;
     this.column = internalSyntaxToken.column;
@@ -113,6 +117,32 @@ public class InternalSyntaxToken extends JavaTree implements SyntaxToken {
     throw new UnsupportedOperationException();
   }
 
+  @Override
+  public SyntaxToken firstToken() {
+    return this;
+  }
+
+  @Override
+  public SyntaxToken lastToken() {
+    return this;
+  }
+
+  /**
+   * @return the keyword matched by this token, or null when this token is not a keyword
+   */
+  @CheckForNull
+  public JavaKeyword javaKeyword() {
+    return grammarRuleKey instanceof JavaKeyword ? (JavaKeyword) grammarRuleKey : null;
+  }
+
+  /**
+   * @return the operator or separator matched by this token, or null when this token is not a punctuator
+   */
+  @CheckForNull
+  public JavaPunctuator javaPunctuator() {
+    return grammarRuleKey instanceof JavaPunctuator ? (JavaPunctuator) grammarRuleKey : null;
+  }
+
   public void setGrammarRuleKey(GrammarRuleKey grammarRuleKey) {
     this.grammarRuleKey = grammarRuleKey;
   }
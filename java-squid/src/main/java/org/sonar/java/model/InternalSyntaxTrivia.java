@@ -30,12 +30,14 @@ public class InternalSyntaxTrivia extends JavaTree implements SyntaxTrivia {
   private final String comment;
   private final int startLine;
   private final int column;
+  private final int startIndex;
 
-  public InternalSyntaxTrivia(String comment, int startLine, int column) {
+  public InternalSyntaxTrivia(String comment, int startLine, int column, int startIndex) {
     super(null);
     this.comment = comment;
     this.startLine = startLine;
     this.column = column;
+    this.startIndex = startIndex;
   }
 
   @Override
@@ -68,8 +70,8 @@ public class InternalSyntaxTrivia extends JavaTree implements SyntaxTrivia {
     //FIXME do nothing
   }
 
-  public static SyntaxTrivia create(String comment, int startLine, int column) {
-    return new InternalSyntaxTrivia(comment, startLine, column);
+  public static SyntaxTrivia create(String comment, int startLine, int column, int startIndex) {
+    return new InternalSyntaxTrivia(comment, startLine, column, startIndex);
   }
 
   @Override
@@ -81,4 +83,8 @@ public class InternalSyntaxTrivia extends JavaTree implements SyntaxTrivia {
   public int column() {
     return column;
   }
+
+  public int fromIndex() {
+    return startIndex;
+  }
 }
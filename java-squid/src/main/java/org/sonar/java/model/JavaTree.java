@@ -26,6 +26,7 @@ import org.sonar.java.ast.parser.TypeUnionListTreeImpl;
 import org.sonar.java.model.declaration.AnnotationTreeImpl;
 import org.sonar.java.model.expression.TypeArgumentListTreeImpl;
 import org.sonar.java.syntaxtoken.FirstSyntaxTokenFinder;
+import org.sonar.java.syntaxtoken.LastSyntaxTokenFinder;
 import org.sonar.plugins.java.api.tree.AnnotationTree;
 import org.sonar.plugins.java.api.tree.ArrayTypeTree;
 import org.sonar.plugins.java.api.tree.CompilationUnitTree;
@@ -47,6 +48,7 @@ import org.sonar.plugins.java.api.tree.UnionTypeTree;
 import org.sonar.plugins.java.api.tree.WildcardTree;
 import org.sonar.sslr.grammar.GrammarRuleKey;
 
+import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 
 import java.util.Collections;
@@ -60,11 +62,46 @@ public abstract class JavaTree implements Tree {
 
   protected GrammarRuleKey grammarRuleKey;
 
+  private Tree parent;
+
   public JavaTree(GrammarRuleKey grammarRuleKey) {
     this.grammarRuleKey = grammarRuleKey;
   }
+
+  /**
+   * Searched on each call, see {@link CompositeTree} for trees which keep it once found.
+   *
+   * @return the first syntax token of this tree, or null for trees without token (see {@link FirstSyntaxTokenFinder#firstSyntaxToken(Tree)})
+   */
+  @CheckForNull
+  public SyntaxToken firstToken() {
+    return FirstSyntaxTokenFinder.find(this);
+  }
+
+  /**
+   * Searched on each call, see {@link CompositeTree} for trees which keep it once found.
+   *
+   * @return the last syntax token of this tree, or null for trees without token (see {@link LastSyntaxTokenFinder#lastSyntaxToken(Tree)})
+   */
+  @CheckForNull
+  public SyntaxToken lastToken() {
+    return LastSyntaxTokenFinder.find(this);
+  }
+
+  /**
+   * @return the parent of this tree, or null for the root or when parents have not been linked by the semantic analysis
+   */
+  @CheckForNull
+  public Tree getParent() {
+    return parent;
+  }
+
+  public void setParent(Tree parent) {
+    this.parent = parent;
+  }
+
   public int getLine() {
-    SyntaxToken firstSyntaxToken = FirstSyntaxTokenFinder.firstSyntaxToken(this);
+    SyntaxToken firstSyntaxToken = firstToken();
     if (firstSyntaxToken == null) {
       return -1;
     }
@@ -99,7 +136,7 @@ public abstract class JavaTree implements Tree {
     return grammarRuleKey;
   }
 
-  public static class CompilationUnitTreeImpl extends JavaTree implements CompilationUnitTree {
+  public static class CompilationUnitTreeImpl extends CompositeTree implements CompilationUnitTree {
     private final PackageDeclarationTree packageDeclaration;
     private final List<ImportClauseTree> imports;
     private final List<Tree> types;
@@ -159,7 +196,7 @@ public abstract class JavaTree implements Tree {
 
   }
 
-  public static class PackageDeclarationTreeImpl extends JavaTree implements PackageDeclarationTree {
+  public static class PackageDeclarationTreeImpl extends CompositeTree implements PackageDeclarationTree {
 
     private final List<AnnotationTree> annotations;
     private final SyntaxToken packageKeyword;
@@ -238,7 +275,7 @@ public abstract class JavaTree implements Tree {
     }
   }
 
-  public static class ImportTreeImpl extends JavaTree implements ImportTree {
+  public static class ImportTreeImpl extends CompositeTree implements ImportTree {
     private final boolean isStatic;
     private final Tree qualifiedIdentifier;
     private final SyntaxToken semicolonToken;
@@ -301,7 +338,7 @@ public abstract class JavaTree implements Tree {
     }
   }
 
-  public static class WildcardTreeImpl extends JavaTree implements WildcardTree {
+  public static class WildcardTreeImpl extends CompositeTree implements WildcardTree {
 
     private SyntaxToken queryToken;
     @Nullable
@@ -34,7 +34,7 @@ import javax.annotation.Nullable;
 
 import java.util.Iterator;
 
-public class TypeParameterTreeImpl extends JavaTree implements TypeParameterTree {
+public class TypeParameterTreeImpl extends CompositeTree implements TypeParameterTree {
 
   private IdentifierTreeImpl identifier;
   @Nullable
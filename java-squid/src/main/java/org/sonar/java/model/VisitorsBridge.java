@@ -23,15 +23,22 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import com.sonar.sslr.api.RecognitionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.utils.AnnotationUtils;
+import org.sonar.check.Rule;
 import org.sonar.java.CharsetAwareVisitor;
 import org.sonar.java.SonarComponents;
 import org.sonar.java.ast.visitors.ComplexityVisitor;
+import org.sonar.java.ast.visitors.LineMetricsVisitor;
 import org.sonar.java.ast.visitors.SonarSymbolTableVisitor;
 import org.sonar.java.ast.visitors.VisitorContext;
+import org.sonar.java.collections.IntervalSet;
+import org.sonar.java.monitoring.AnalysisMetrics;
+import org.sonar.java.monitoring.CheckTimeBudget;
+import org.sonar.java.monitoring.Interruptible;
 import org.sonar.java.resolve.SemanticModel;
 import org.sonar.plugins.java.api.JavaCheck;
 import org.sonar.plugins.java.api.JavaFileScanner;
@@ -60,11 +67,19 @@ public class VisitorsBridge {
   private static final Logger LOG = LoggerFactory.getLogger(VisitorsBridge.class);
 
   private final List<JavaFileScanner> scanners;
+  /**
+   * Scanners bounded by the check time budget. The other scanners, like measures or highlighting, always run to completion.
+   */
+  private final Set<JavaFileScanner> ruleChecks;
   private final SonarComponents sonarComponents;
   private SemanticModel semanticModel;
   private List<File> projectClasspath;
   private boolean analyseAccessors;
   private VisitorContext context;
+  private AnalysisMetrics metrics = AnalysisMetrics.disabled();
+  private CheckTimeBudget checkTimeBudget;
+  private CheckTimeBudget semanticTimeBudget;
+  private ClassLoader classLoader;
 
   @VisibleForTesting
   public VisitorsBridge(JavaFileScanner visitor) {
@@ -84,6 +99,12 @@ public class VisitorsBridge {
       }
     }
     this.scanners = scannersBuilder.build();
+    this.ruleChecks = Sets.newIdentityHashSet();
+    for (JavaFileScanner scanner : scanners) {
+      if (AnnotationUtils.getAnnotation(scanner, Rule.class) != null) {
+        ruleChecks.add(scanner);
+      }
+    }
     this.sonarComponents = sonarComponents;
     this.projectClasspath = projectClasspath;
   }
@@ -100,34 +121,139 @@ public class VisitorsBridge {
     }
   }
 
+  public void setMetrics(AnalysisMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  public void setCheckTimeBudget(@Nullable CheckTimeBudget checkTimeBudget) {
+    this.checkTimeBudget = checkTimeBudget;
+    for (JavaFileScanner scanner : ruleChecks) {
+      if (scanner instanceof Interruptible) {
+        ((Interruptible) scanner).setTimeBudget(checkTimeBudget);
+      }
+    }
+  }
+
+  public void setSemanticTimeBudget(@Nullable CheckTimeBudget semanticTimeBudget) {
+    this.semanticTimeBudget = semanticTimeBudget;
+  }
+
+  /**
+   * @param classLoader class loader of the project classpath shared by the analyzed files, or null to create one per file
+   */
+  public void setClassLoader(@Nullable ClassLoader classLoader) {
+    this.classLoader = classLoader;
+  }
+
   public void visitFile(@Nullable Tree parsedTree) {
+    visitFile(parsedTree, null);
+  }
+
+  /**
+   * Visits the syntax tree of a file which has been parsed without the parts that could not be parsed. The issues reported
+   * on the skipped lines are dropped, as they would be reported on code which is not in the tree.
+   */
+  public void visitRecoveredFile(Tree parsedTree, IntervalSet skippedLines) {
+    visitFile(parsedTree, skippedLines);
+  }
+
+  private void visitFile(@Nullable Tree parsedTree, @Nullable IntervalSet skippedLines) {
     semanticModel = null;
+    File file = getContext().getFile();
     CompilationUnitTree tree = new JavaTree.CompilationUnitTreeImpl(null, Lists.<ImportClauseTree>newArrayList(), Lists.<Tree>newArrayList(), null);
     if (parsedTree != null && parsedTree.is(Tree.Kind.COMPILATION_UNIT)) {
       tree = (CompilationUnitTree) parsedTree;
+      AnalysisMetrics.Probe semanticProbe = metrics.start();
       if (isNotJavaLangOrSerializable(PackageUtils.packageName(tree.packageDeclaration(), "/"))) {
         try {
-          semanticModel = SemanticModel.createFor(tree, getProjectClasspath());
+          semanticModel = createSemanticModel(tree, file);
         } catch (Exception e) {
-          LOG.error("Unable to create symbol table for : " + getContext().getFile().getAbsolutePath(), e);
+          LOG.error("Unable to create symbol table for : " + file.getAbsolutePath(), e);
           return;
         }
-        createSonarSymbolTable(tree);
+        if (semanticModel != null) {
+          createSonarSymbolTable(tree);
+        }
       } else {
         SemanticModel.handleMissingTypes(tree);
       }
+      metrics.record(file, AnalysisMetrics.SEMANTIC, semanticProbe);
     }
-    JavaFileScannerContext javaFileScannerContext =
-      new DefaultJavaFileScannerContext(tree, (SourceFile) getContext().peekSourceCode(), getContext().getFile(), semanticModel, analyseAccessors);
+    DefaultJavaFileScannerContext javaFileScannerContext =
+      new DefaultJavaFileScannerContext(tree, (SourceFile) getContext().peekSourceCode(), file, semanticModel, analyseAccessors);
+    AnalysisMetrics.Probe checksProbe = metrics.start();
+    javaFileScannerContext.skippedLines = skippedLines;
     for (JavaFileScanner scanner : scanners) {
-      scanner.scanFile(javaFileScannerContext);
+      if (checkTimeBudget == null || !ruleChecks.contains(scanner)) {
+        AnalysisMetrics.Probe probe = metrics.start();
+        scanner.scanFile(javaFileScannerContext);
+        metrics.recordCheck(scanner.getClass().getName(), file, probe);
+      } else {
+        scanWithinBudget(scanner, javaFileScannerContext, file);
+      }
     }
+    metrics.record(file, AnalysisMetrics.CHECKS, checksProbe);
     if (semanticModel != null) {
       // Close class loader after all the checks.
       semanticModel.done();
     }
   }
 
+  /**
+   * @return the semantic model of the file, or null when its creation exceeded the semantic time budget: checks are then
+   * executed on the syntax tree only, as for files without semantic model
+   */
+  @Nullable
+  private SemanticModel createSemanticModel(CompilationUnitTree tree, File file) {
+    if (semanticTimeBudget == null) {
+      return newSemanticModel(tree);
+    }
+    semanticTimeBudget.start();
+    try {
+      return newSemanticModel(tree);
+    } catch (CheckTimeBudget.ExceededException e) {
+      LOG.warn("Semantic analysis of file " + file.getAbsolutePath() + " has been aborted: it exceeded its time budget of "
+        + semanticTimeBudget.budgetMillis() + " ms. Only syntactic checks are reliable on this file.");
+    } finally {
+      semanticTimeBudget.stop();
+    }
+    // types are not set on the nodes the aborted analysis did not reach
+    SemanticModel.handleMissingTypes(tree);
+    return null;
+  }
+
+  private SemanticModel newSemanticModel(CompilationUnitTree tree) {
+    if (classLoader == null) {
+      return SemanticModel.createFor(tree, getProjectClasspath(), semanticTimeBudget);
+    }
+    return SemanticModel.createFor(tree, classLoader, semanticTimeBudget);
+  }
+
+  private void scanWithinBudget(JavaFileScanner scanner, JavaFileScannerContext javaFileScannerContext, File file) {
+    String checkName = scanner.getClass().getName();
+    boolean aborted = false;
+    boolean exceeded;
+    AnalysisMetrics.Probe probe = metrics.start();
+    checkTimeBudget.start();
+    try {
+      scanner.scanFile(javaFileScannerContext);
+    } catch (CheckTimeBudget.ExceededException e) {
+      aborted = true;
+    } finally {
+      exceeded = checkTimeBudget.stop();
+    }
+    metrics.recordCheck(checkName, file, probe);
+    if (aborted) {
+      metrics.recordAbortedCheck(checkName);
+      LOG.warn("Check " + checkName + " has been aborted on file " + file.getAbsolutePath() + ": it exceeded its time budget of "
+        + checkTimeBudget.budgetMillis() + " ms");
+    } else if (exceeded) {
+      // checks which are not interruptible run to completion
+      LOG.warn("Check " + checkName + " exceeded its time budget of " + checkTimeBudget.budgetMillis() + " ms on file "
+        + file.getAbsolutePath());
+    }
+  }
+
   private boolean isNotJavaLangOrSerializable(String packageName) {
     String name = getContext().getFile().getName();
     return !("java/lang".equals(packageName)
@@ -136,7 +262,7 @@ public class VisitorsBridge {
     );
   }
 
-  private List<File> getProjectClasspath() {
+  public List<File> getProjectClasspath() {
     return projectClasspath;
   }
 
@@ -171,6 +297,9 @@ public class VisitorsBridge {
     private final SemanticModel semanticModel;
     private final ComplexityVisitor complexityVisitor;
     private final File file;
+    private LineMetricsVisitor lineMetrics;
+    private ComplexityVisitor.FileComplexity fileComplexity;
+    private IntervalSet skippedLines;
 
     public DefaultJavaFileScannerContext(CompilationUnitTree tree, SourceFile sourceFile, File file, SemanticModel semanticModel, boolean analyseAccessors) {
       this.tree = tree;
@@ -222,13 +351,20 @@ public class VisitorsBridge {
       } else {
         checkMessage.setCost(cost);
       }
-      sourceFile.log(checkMessage);
+      log(checkMessage);
     }
 
     @Override
     public void addIssue(Tree tree, CheckMessage checkMessage) {
       checkMessage.setLine(((JavaTree) tree).getLine());
-      sourceFile.log(checkMessage);
+      log(checkMessage);
+    }
+
+    private void log(CheckMessage checkMessage) {
+      Integer line = checkMessage.getLine();
+      if (skippedLines == null || line == null || !skippedLines.contains(line)) {
+        sourceFile.log(checkMessage);
+      }
     }
 
     @Override
@@ -249,12 +385,24 @@ public class VisitorsBridge {
 
     @Override
     public int getComplexity(Tree tree) {
-      return complexityVisitor.scan(tree);
+      Integer complexity = getFileComplexity().complexity(tree);
+      return complexity != null ? complexity : complexityVisitor.scan(tree);
     }
 
     @Override
     public int getMethodComplexity(ClassTree enclosingClass, MethodTree methodTree) {
-      return complexityVisitor.scan(enclosingClass, methodTree);
+      Integer complexity = getFileComplexity().methodComplexity(enclosingClass, methodTree);
+      return complexity != null ? complexity : complexityVisitor.scan(enclosingClass, methodTree);
+    }
+
+    /**
+     * Complexity of the file and of all its classes and methods, computed on first request only.
+     */
+    private ComplexityVisitor.FileComplexity getFileComplexity() {
+      if (fileComplexity == null) {
+        fileComplexity = complexityVisitor.scanFile(tree);
+      }
+      return fileComplexity;
     }
 
     @Override
@@ -262,6 +410,14 @@ public class VisitorsBridge {
       sourceFile.addNoSonarTagLines(lines);
     }
 
+    public LineMetricsVisitor getLineMetrics() {
+      if (lineMetrics == null) {
+        lineMetrics = new LineMetricsVisitor();
+        lineMetrics.analyze(tree);
+      }
+      return lineMetrics;
+    }
+
   }
 
 }
@@ -24,7 +24,7 @@ import com.google.common.collect.Iterators;
 import org.sonar.java.ast.parser.QualifiedIdentifierListTreeImpl;
 import org.sonar.java.ast.parser.TypeParameterListTreeImpl;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
+import org.sonar.java.model.CompositeTree;
 import org.sonar.java.model.expression.IdentifierTreeImpl;
 import org.sonar.java.resolve.JavaSymbol;
 import org.sonar.java.resolve.Symbols;
@@ -44,7 +44,7 @@ import javax.annotation.Nullable;
 import java.util.Iterator;
 import java.util.List;
 
-public class ClassTreeImpl extends JavaTree implements ClassTree {
+public class ClassTreeImpl extends CompositeTree implements ClassTree {
 
   private final Kind kind;
   @Nullable
@@ -24,7 +24,7 @@ import com.google.common.collect.ImmutableList;
 import org.sonar.java.ast.parser.FormalParametersListTreeImpl;
 import org.sonar.java.ast.parser.QualifiedIdentifierListTreeImpl;
 import org.sonar.java.ast.parser.TypeParameterListTreeImpl;
-import org.sonar.java.model.JavaTree;
+import org.sonar.java.model.CompositeTree;
 import org.sonar.java.model.ModifiersUtils;
 import org.sonar.java.resolve.JavaSymbol;
 import org.sonar.plugins.java.api.semantic.Symbol;
@@ -51,7 +51,7 @@ import javax.annotation.Nullable;
 import java.util.Iterator;
 import java.util.List;
 
-public class MethodTreeImpl extends JavaTree implements MethodTree {
+public class MethodTreeImpl extends CompositeTree implements MethodTree {
 
   private ModifiersTree modifiers;
   private TypeParameters typeParameters;
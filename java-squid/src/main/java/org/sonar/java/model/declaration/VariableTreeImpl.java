@@ -22,7 +22,7 @@ package org.sonar.java.model.declaration;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterators;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
+import org.sonar.java.model.CompositeTree;
 import org.sonar.java.model.expression.IdentifierTreeImpl;
 import org.sonar.java.resolve.JavaSymbol;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
@@ -40,7 +40,7 @@ import javax.annotation.Nullable;
 
 import java.util.Iterator;
 
-public class VariableTreeImpl extends JavaTree implements VariableTree {
+public class VariableTreeImpl extends CompositeTree implements VariableTree {
   private ModifiersTree modifiers;
   private TypeTree type;
   private IdentifierTree simpleName;
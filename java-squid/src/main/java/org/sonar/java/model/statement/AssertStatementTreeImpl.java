@@ -22,7 +22,7 @@ package org.sonar.java.model.statement;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterators;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
+import org.sonar.java.model.CompositeTree;
 import org.sonar.plugins.java.api.tree.AssertStatementTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
@@ -33,7 +33,7 @@ import javax.annotation.Nullable;
 
 import java.util.Iterator;
 
-public class AssertStatementTreeImpl extends JavaTree implements AssertStatementTree {
+public class AssertStatementTreeImpl extends CompositeTree implements AssertStatementTree {
 
   private InternalSyntaxToken assertToken;
   private ExpressionTree condition;
@@ -22,7 +22,7 @@ package org.sonar.java.model.statement;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterators;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
+import org.sonar.java.model.CompositeTree;
 import org.sonar.plugins.java.api.tree.BlockTree;
 import org.sonar.plugins.java.api.tree.StatementTree;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
@@ -32,7 +32,7 @@ import org.sonar.plugins.java.api.tree.TreeVisitor;
 import java.util.Iterator;
 import java.util.List;
 
-public class BlockTreeImpl extends JavaTree implements BlockTree {
+public class BlockTreeImpl extends CompositeTree implements BlockTree {
 
   private final Kind kind;
   private final InternalSyntaxToken openBraceToken;
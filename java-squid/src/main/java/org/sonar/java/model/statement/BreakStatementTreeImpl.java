@@ -21,7 +21,7 @@ package org.sonar.java.model.statement;
 
 import com.google.common.collect.Iterators;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
+import org.sonar.java.model.CompositeTree;
 import org.sonar.java.model.expression.IdentifierTreeImpl;
 import org.sonar.plugins.java.api.tree.BreakStatementTree;
 import org.sonar.plugins.java.api.tree.IdentifierTree;
@@ -33,7 +33,7 @@ import javax.annotation.Nullable;
 
 import java.util.Iterator;
 
-public class BreakStatementTreeImpl extends JavaTree implements BreakStatementTree {
+public class BreakStatementTreeImpl extends CompositeTree implements BreakStatementTree {
   private final InternalSyntaxToken breakToken;
   @Nullable
   private final IdentifierTree label;
@@ -24,7 +24,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterators;
 import org.sonar.java.ast.parser.BlockStatementListTreeImpl;
 import org.sonar.java.ast.parser.JavaLexer;
-import org.sonar.java.model.JavaTree;
+import org.sonar.java.model.CompositeTree;
 import org.sonar.plugins.java.api.tree.CaseGroupTree;
 import org.sonar.plugins.java.api.tree.CaseLabelTree;
 import org.sonar.plugins.java.api.tree.StatementTree;
@@ -34,7 +34,7 @@ import org.sonar.plugins.java.api.tree.TreeVisitor;
 import java.util.Iterator;
 import java.util.List;
 
-public class CaseGroupTreeImpl extends JavaTree implements CaseGroupTree {
+public class CaseGroupTreeImpl extends CompositeTree implements CaseGroupTree {
   private final List<CaseLabelTree> labels;
   private final List<StatementTree> body;
 
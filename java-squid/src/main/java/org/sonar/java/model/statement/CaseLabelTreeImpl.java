@@ -22,7 +22,7 @@ package org.sonar.java.model.statement;
 import com.google.common.collect.Iterators;
 import org.sonar.java.ast.parser.JavaLexer;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
+import org.sonar.java.model.CompositeTree;
 import org.sonar.plugins.java.api.tree.CaseLabelTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
@@ -33,7 +33,7 @@ import javax.annotation.Nullable;
 
 import java.util.Iterator;
 
-public class CaseLabelTreeImpl extends JavaTree implements CaseLabelTree {
+public class CaseLabelTreeImpl extends CompositeTree implements CaseLabelTree {
   private final InternalSyntaxToken caseOrDefaultKeyword;
   @Nullable
   private final ExpressionTree expression;
@@ -22,7 +22,7 @@ package org.sonar.java.model.statement;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterators;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
+import org.sonar.java.model.CompositeTree;
 import org.sonar.java.model.declaration.VariableTreeImpl;
 import org.sonar.plugins.java.api.tree.BlockTree;
 import org.sonar.plugins.java.api.tree.CatchTree;
@@ -33,7 +33,7 @@ import org.sonar.plugins.java.api.tree.VariableTree;
 
 import java.util.Iterator;
 
-public class CatchTreeImpl extends JavaTree implements CatchTree {
+public class CatchTreeImpl extends CompositeTree implements CatchTree {
 
   private final InternalSyntaxToken catchToken;
   private final InternalSyntaxToken openParenToken;
@@ -21,7 +21,7 @@ package org.sonar.java.model.statement;
 
 import com.google.common.collect.Iterators;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
+import org.sonar.java.model.CompositeTree;
 import org.sonar.java.model.expression.IdentifierTreeImpl;
 import org.sonar.plugins.java.api.tree.ContinueStatementTree;
 import org.sonar.plugins.java.api.tree.IdentifierTree;
@@ -33,7 +33,7 @@ import javax.annotation.Nullable;
 
 import java.util.Iterator;
 
-public class ContinueStatementTreeImpl extends JavaTree implements ContinueStatementTree {
+public class ContinueStatementTreeImpl extends CompositeTree implements ContinueStatementTree {
   
   private final InternalSyntaxToken continueKeyword;
   @Nullable
@@ -22,7 +22,7 @@ package org.sonar.java.model.statement;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterators;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
+import org.sonar.java.model.CompositeTree;
 import org.sonar.plugins.java.api.tree.DoWhileStatementTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.StatementTree;
@@ -32,7 +32,7 @@ import org.sonar.plugins.java.api.tree.TreeVisitor;
 
 import java.util.Iterator;
 
-public class DoWhileStatementTreeImpl extends JavaTree implements DoWhileStatementTree {
+public class DoWhileStatementTreeImpl extends CompositeTree implements DoWhileStatementTree {
   private final StatementTree statement;
   private final ExpressionTree condition;
   private final InternalSyntaxToken semicolonToken;
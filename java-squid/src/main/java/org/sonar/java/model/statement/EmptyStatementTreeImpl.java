@@ -21,7 +21,7 @@ package org.sonar.java.model.statement;
 
 import com.google.common.collect.Iterators;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
+import org.sonar.java.model.CompositeTree;
 import org.sonar.plugins.java.api.tree.EmptyStatementTree;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
 import org.sonar.plugins.java.api.tree.Tree;
@@ -29,7 +29,7 @@ import org.sonar.plugins.java.api.tree.TreeVisitor;
 
 import java.util.Iterator;
 
-public class EmptyStatementTreeImpl extends JavaTree implements EmptyStatementTree {
+public class EmptyStatementTreeImpl extends CompositeTree implements EmptyStatementTree {
   private final InternalSyntaxToken semicolonToken;
 
   public EmptyStatementTreeImpl(InternalSyntaxToken semicolonToken) {
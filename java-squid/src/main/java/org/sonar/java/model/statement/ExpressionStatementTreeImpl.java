@@ -22,7 +22,7 @@ package org.sonar.java.model.statement;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterators;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
+import org.sonar.java.model.CompositeTree;
 import org.sonar.plugins.java.api.tree.ExpressionStatementTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
@@ -33,7 +33,7 @@ import javax.annotation.Nullable;
 
 import java.util.Iterator;
 
-public class ExpressionStatementTreeImpl extends JavaTree implements ExpressionStatementTree {
+public class ExpressionStatementTreeImpl extends CompositeTree implements ExpressionStatementTree {
 
   private final ExpressionTree expression;
   private final InternalSyntaxToken semicolonToken;
@@ -22,7 +22,7 @@ package org.sonar.java.model.statement;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterators;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
+import org.sonar.java.model.CompositeTree;
 import org.sonar.java.model.declaration.VariableTreeImpl;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.ForEachStatement;
@@ -34,7 +34,7 @@ import org.sonar.plugins.java.api.tree.VariableTree;
 
 import java.util.Iterator;
 
-public class ForEachStatementImpl extends JavaTree implements ForEachStatement {
+public class ForEachStatementImpl extends CompositeTree implements ForEachStatement {
   private final InternalSyntaxToken forKeyword;
   private final InternalSyntaxToken openParenToken;
   private final VariableTree variable;
@@ -22,7 +22,7 @@ package org.sonar.java.model.statement;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
+import org.sonar.java.model.CompositeTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.ForStatementTree;
 import org.sonar.plugins.java.api.tree.ListTree;
@@ -35,7 +35,7 @@ import javax.annotation.Nullable;
 
 import java.util.Iterator;
 
-public class ForStatementTreeImpl extends JavaTree implements ForStatementTree {
+public class ForStatementTreeImpl extends CompositeTree implements ForStatementTree {
   private final InternalSyntaxToken forKeyword;
   private final InternalSyntaxToken openParenToken;
   private final ListTree<StatementTree> initializer;
@@ -22,7 +22,7 @@ package org.sonar.java.model.statement;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterators;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
+import org.sonar.java.model.CompositeTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.IfStatementTree;
 import org.sonar.plugins.java.api.tree.StatementTree;
@@ -34,7 +34,7 @@ import javax.annotation.Nullable;
 
 import java.util.Iterator;
 
-public class IfStatementTreeImpl extends JavaTree implements IfStatementTree {
+public class IfStatementTreeImpl extends CompositeTree implements IfStatementTree {
 
   private InternalSyntaxToken ifKeyword;
   private InternalSyntaxToken openParenToken;
@@ -22,7 +22,7 @@ package org.sonar.java.model.statement;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterators;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
+import org.sonar.java.model.CompositeTree;
 import org.sonar.java.resolve.JavaSymbol;
 import org.sonar.plugins.java.api.semantic.Symbol;
 import org.sonar.plugins.java.api.tree.IdentifierTree;
@@ -34,7 +34,7 @@ import org.sonar.plugins.java.api.tree.TreeVisitor;
 
 import java.util.Iterator;
 
-public class LabeledStatementTreeImpl extends JavaTree implements LabeledStatementTree {
+public class LabeledStatementTreeImpl extends CompositeTree implements LabeledStatementTree {
   private final IdentifierTree label;
   private final InternalSyntaxToken colonToken;
   private final StatementTree statement;
@@ -21,7 +21,7 @@ package org.sonar.java.model.statement;
 
 import com.google.common.collect.ImmutableList;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
+import org.sonar.java.model.CompositeTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.ReturnStatementTree;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
@@ -32,7 +32,7 @@ import javax.annotation.Nullable;
 
 import java.util.Iterator;
 
-public class ReturnStatementTreeImpl extends JavaTree implements ReturnStatementTree {
+public class ReturnStatementTreeImpl extends CompositeTree implements ReturnStatementTree {
   private final InternalSyntaxToken returnKeyword;
   @Nullable
   private final ExpressionTree expression;
@@ -23,7 +23,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterators;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
+import org.sonar.java.model.CompositeTree;
 import org.sonar.plugins.java.api.tree.CaseGroupTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.SwitchStatementTree;
@@ -34,7 +34,7 @@ import org.sonar.plugins.java.api.tree.TreeVisitor;
 import java.util.Iterator;
 import java.util.List;
 
-public class SwitchStatementTreeImpl extends JavaTree implements SwitchStatementTree {
+public class SwitchStatementTreeImpl extends CompositeTree implements SwitchStatementTree {
 
   private final ExpressionTree expression;
   private final List<CaseGroupTree> cases;
@@ -22,7 +22,7 @@ package org.sonar.java.model.statement;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterators;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
+import org.sonar.java.model.CompositeTree;
 import org.sonar.plugins.java.api.tree.BlockTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.SynchronizedStatementTree;
@@ -32,7 +32,7 @@ import org.sonar.plugins.java.api.tree.TreeVisitor;
 
 import java.util.Iterator;
 
-public class SynchronizedStatementTreeImpl extends JavaTree implements SynchronizedStatementTree {
+public class SynchronizedStatementTreeImpl extends CompositeTree implements SynchronizedStatementTree {
   private final ExpressionTree expression;
   private final BlockTree block;
   private final InternalSyntaxToken synchronizedKeyword;
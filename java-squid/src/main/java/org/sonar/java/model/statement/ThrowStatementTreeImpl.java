@@ -22,7 +22,7 @@ package org.sonar.java.model.statement;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterators;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
+import org.sonar.java.model.CompositeTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
 import org.sonar.plugins.java.api.tree.ThrowStatementTree;
@@ -31,7 +31,7 @@ import org.sonar.plugins.java.api.tree.TreeVisitor;
 
 import java.util.Iterator;
 
-public class ThrowStatementTreeImpl extends JavaTree implements ThrowStatementTree {
+public class ThrowStatementTreeImpl extends CompositeTree implements ThrowStatementTree {
   private final InternalSyntaxToken throwKeyword;
   private final ExpressionTree expression;
   private final InternalSyntaxToken semicolonToken;
@@ -22,7 +22,7 @@ package org.sonar.java.model.statement;
 import com.google.common.collect.ImmutableList;
 import org.sonar.java.ast.parser.ResourceListTreeImpl;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
+import org.sonar.java.model.CompositeTree;
 import org.sonar.plugins.java.api.tree.BlockTree;
 import org.sonar.plugins.java.api.tree.CatchTree;
 import org.sonar.plugins.java.api.tree.ListTree;
@@ -37,7 +37,7 @@ import javax.annotation.Nullable;
 import java.util.Iterator;
 import java.util.List;
 
-public class TryStatementTreeImpl extends JavaTree implements TryStatementTree {
+public class TryStatementTreeImpl extends CompositeTree implements TryStatementTree {
 
   private InternalSyntaxToken tryToken;
 
@@ -22,7 +22,7 @@ package org.sonar.java.model.statement;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterators;
 import org.sonar.java.model.InternalSyntaxToken;
-import org.sonar.java.model.JavaTree;
+import org.sonar.java.model.CompositeTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.StatementTree;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
@@ -32,7 +32,7 @@ import org.sonar.plugins.java.api.tree.WhileStatementTree;
 
 import java.util.Iterator;
 
-public class WhileStatementTreeImpl extends JavaTree implements WhileStatementTree {
+public class WhileStatementTreeImpl extends CompositeTree implements WhileStatementTree {
   private final ExpressionTree condition;
   private final StatementTree statement;
   private final InternalSyntaxToken whileKeyword;
@@ -0,0 +1,68 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * sonarqube@googlegroups.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.monitoring;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Bytes allocated by the current thread, as reported by the HotSpot specific {@code com.sun.management.ThreadMXBean}.
+ * Allocation tracking is disabled on virtual machines which do not provide it.
+ */
+final class AllocationCounter {
+
+  private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+  private static final boolean SUPPORTED = enable();
+
+  private AllocationCounter() {
+  }
+
+  static boolean isSupported() {
+    return SUPPORTED;
+  }
+
+  private static boolean enable() {
+    try {
+      if (THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean) {
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) THREAD_MX_BEAN;
+        if (bean.isThreadAllocatedMemorySupported()) {
+          bean.setThreadAllocatedMemoryEnabled(true);
+          return bean.isThreadAllocatedMemoryEnabled();
+        }
+      }
+    } catch (LinkageError e) {
+      // Not a HotSpot virtual machine
+    } catch (UnsupportedOperationException e) {
+      // Allocation tracking is not available
+    }
+    return false;
+  }
+
+  /**
+   * @return bytes allocated so far by the current thread, or 0 when allocation tracking is not supported
+   */
+  static long currentThreadAllocatedBytes() {
+    if (!SUPPORTED) {
+      return 0;
+    }
+    return ((com.sun.management.ThreadMXBean) THREAD_MX_BEAN).getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+}
@@ -0,0 +1,346 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * sonarqube@googlegroups.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.monitoring;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.primitives.Longs;
+
+import javax.annotation.CheckForNull;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Time and allocated bytes spent by the analysis, per phase, per file and per check.
+ * A measure starts with {@link #start()} and is recorded with one of the {@code record} methods.
+ * Per file measures are only kept for the slowest files, and per check measures as totals over all files along with the slowest file,
+ * so that memory stays proportional to the number of checks. Files are expected to be recorded one after the other: all the
+ * phases of a file are recorded before the ones of the next file.
+ * Measures cost two clock reads per probe, so they are only taken by enabled instances, see {@link #disabled()}. Instances
+ * created by {@link #checksOnly()} only read the wall clock, and only for checks.
+ * Not thread safe: files are expected to be analyzed by a single thread.
+ */
+public class AnalysisMetrics {
+
+  public static final String PARSE = "parse";
+  public static final String SEMANTIC = "semantic";
+  public static final String CHECKS = "checks";
+  public static final String BYTECODE_LOAD = "bytecode load";
+  public static final String BYTECODE_LINK = "bytecode link";
+  public static final String BYTECODE_VISIT = "bytecode visit";
+  public static final String BYTECODE_DEPENDENCIES = "bytecode dependencies";
+
+  private static final int DEFAULT_SLOWEST_FILE_COUNT = 20;
+  private static final AnalysisMetrics DISABLED = new AnalysisMetrics(false, false, 0);
+  private static final Probe NO_PROBE = new Probe(0, 0);
+  private static final Comparator<Timing> SLOWEST_FIRST = new Comparator<Timing>() {
+    @Override
+    public int compare(Timing timing1, Timing timing2) {
+      return Longs.compare(timing2.nanos, timing1.nanos);
+    }
+  };
+
+  private final boolean enabled;
+  private final boolean checksTimed;
+  private final int slowestFileCount;
+  private final Map<String, Timing> phases = Maps.newLinkedHashMap();
+  private final PriorityQueue<FileTiming> slowestFiles;
+  private final Map<String, CheckTiming> checks = Maps.newLinkedHashMap();
+  private FileTiming currentFile;
+  private int fileCount = 0;
+
+  public AnalysisMetrics() {
+    this(DEFAULT_SLOWEST_FILE_COUNT);
+  }
+
+  /**
+   * @param slowestFileCount number of files for which per file measures are kept
+   */
+  public AnalysisMetrics(int slowestFileCount) {
+    this(true, true, slowestFileCount);
+  }
+
+  private AnalysisMetrics(boolean enabled, boolean checksTimed, int slowestFileCount) {
+    this.enabled = enabled;
+    this.checksTimed = checksTimed;
+    this.slowestFileCount = slowestFileCount;
+    // fastest file first, to be the one evicted by a slower file
+    this.slowestFiles = new PriorityQueue<>(Math.max(1, slowestFileCount), Collections.reverseOrder(SLOWEST_FIRST));
+  }
+
+  /**
+   * @return metrics which take no measure and record nothing
+   */
+  public static AnalysisMetrics disabled() {
+    return DISABLED;
+  }
+
+  /**
+   * @return metrics which only record the time spent by each check, to find the costliest checks at the cost of a single
+   * clock read per probe. Phases and files are not measured, and allocated bytes are not tracked.
+   */
+  public static AnalysisMetrics checksOnly() {
+    return new AnalysisMetrics(false, true, 0);
+  }
+
+  /**
+   * @return true if all the measures are taken, false if none or only the ones of checks are
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public Probe start() {
+    if (!checksTimed) {
+      return NO_PROBE;
+    }
+    return new Probe(System.nanoTime(), enabled ? AllocationCounter.currentThreadAllocatedBytes() : 0);
+  }
+
+  public boolean isAllocationTracked() {
+    return AllocationCounter.isSupported();
+  }
+
+  /**
+   * Records a phase which is not related to a single file, like the bytecode stages.
+   */
+  public void record(String phase, Probe probe) {
+    if (!enabled) {
+      return;
+    }
+    Probe end = start();
+    phase(phases, phase).add(end.nanos - probe.nanos, end.allocatedBytes - probe.allocatedBytes);
+  }
+
+  public void record(File file, String phase, Probe probe) {
+    if (!enabled) {
+      return;
+    }
+    Probe end = start();
+    long nanos = end.nanos - probe.nanos;
+    long allocatedBytes = end.allocatedBytes - probe.allocatedBytes;
+    phase(phases, phase).add(nanos, allocatedBytes);
+    fileTiming(file).add(phase, nanos, allocatedBytes);
+  }
+
+  /**
+   * Records the time spent by a check on a file. The time is not added to any phase, callers are expected to record the phase
+   * enclosing all the checks themselves.
+   * @return time spent by the check on this file, in nanoseconds, or 0 when checks are not measured
+   */
+  public long recordCheck(String check, File file, Probe probe) {
+    if (!checksTimed) {
+      return 0;
+    }
+    Probe end = start();
+    long nanos = end.nanos - probe.nanos;
+    CheckTiming checkTiming = checks.get(check);
+    if (checkTiming == null) {
+      checkTiming = new CheckTiming(check);
+      checks.put(check, checkTiming);
+    }
+    checkTiming.add(file, nanos, end.allocatedBytes - probe.allocatedBytes);
+    return nanos;
+  }
+
+  /**
+   * Records that a check was aborted on a file because it exceeded its time budget.
+   */
+  public void recordAbortedCheck(String check) {
+    CheckTiming checkTiming = checks.get(check);
+    if (checkTiming != null) {
+      checkTiming.abortedFiles++;
+    }
+  }
+
+  public Map<String, Timing> phases() {
+    return Collections.unmodifiableMap(phases);
+  }
+
+  /**
+   * @return measures of the file, or null when it is not one of the slowest files
+   */
+  @CheckForNull
+  public FileTiming file(File file) {
+    if (currentFile != null && currentFile.file.equals(file)) {
+      return currentFile;
+    }
+    for (FileTiming fileTiming : slowestFiles) {
+      if (fileTiming.file.equals(file)) {
+        return fileTiming;
+      }
+    }
+    return null;
+  }
+
+  @CheckForNull
+  public CheckTiming check(String check) {
+    return checks.get(check);
+  }
+
+  public int fileCount() {
+    return fileCount;
+  }
+
+  public List<FileTiming> slowestFiles(int count) {
+    List<FileTiming> files = Lists.newArrayList(slowestFiles);
+    if (currentFile != null) {
+      files.add(currentFile);
+    }
+    return slowest(files, Math.min(count, slowestFileCount));
+  }
+
+  public List<CheckTiming> slowestChecks(int count) {
+    return slowest(checks.values(), count);
+  }
+
+  private static <T extends Timing> List<T> slowest(Iterable<T> timings, int count) {
+    List<T> sorted = Lists.newArrayList(timings);
+    Collections.sort(sorted, SLOWEST_FIRST);
+    return sorted.subList(0, Math.min(count, sorted.size()));
+  }
+
+  private FileTiming fileTiming(File file) {
+    if (currentFile == null || !currentFile.file.equals(file)) {
+      if (currentFile != null) {
+        keepIfSlowest(currentFile);
+      }
+      currentFile = new FileTiming(file);
+      fileCount++;
+    }
+    return currentFile;
+  }
+
+  private void keepIfSlowest(FileTiming fileTiming) {
+    if (slowestFiles.size() < slowestFileCount) {
+      slowestFiles.add(fileTiming);
+    } else if (!slowestFiles.isEmpty() && slowestFiles.peek().nanos() < fileTiming.nanos()) {
+      slowestFiles.poll();
+      slowestFiles.add(fileTiming);
+    }
+  }
+
+  private static Timing phase(Map<String, Timing> phases, String phase) {
+    Timing timing = phases.get(phase);
+    if (timing == null) {
+      timing = new Timing();
+      phases.put(phase, timing);
+    }
+    return timing;
+  }
+
+  public static final class Probe {
+    private final long nanos;
+    private final long allocatedBytes;
+
+    private Probe(long nanos, long allocatedBytes) {
+      this.nanos = nanos;
+      this.allocatedBytes = allocatedBytes;
+    }
+  }
+
+  public static class Timing {
+    private int count;
+    private long nanos;
+    private long allocatedBytes;
+
+    void add(long nanos, long allocatedBytes) {
+      count++;
+      this.nanos += nanos;
+      this.allocatedBytes += allocatedBytes;
+    }
+
+    public int count() {
+      return count;
+    }
+
+    public long nanos() {
+      return nanos;
+    }
+
+    public long allocatedBytes() {
+      return allocatedBytes;
+    }
+  }
+
+  public static final class FileTiming extends Timing {
+    private final File file;
+    private final Map<String, Timing> phases = Maps.newLinkedHashMap();
+
+    private FileTiming(File file) {
+      this.file = file;
+    }
+
+    private void add(String phase, long nanos, long allocatedBytes) {
+      add(nanos, allocatedBytes);
+      phase(phases, phase).add(nanos, allocatedBytes);
+    }
+
+    public File file() {
+      return file;
+    }
+
+    public Map<String, Timing> phases() {
+      return Collections.unmodifiableMap(phases);
+    }
+  }
+
+  public static final class CheckTiming extends Timing {
+    private final String check;
+    private File slowestFile;
+    private long slowestFileNanos = -1;
+    private int abortedFiles = 0;
+
+    private CheckTiming(String check) {
+      this.check = check;
+    }
+
+    private void add(File file, long nanos, long allocatedBytes) {
+      add(nanos, allocatedBytes);
+      if (nanos > slowestFileNanos) {
+        slowestFile = file;
+        slowestFileNanos = nanos;
+      }
+    }
+
+    public String check() {
+      return check;
+    }
+
+    @CheckForNull
+    public File slowestFile() {
+      return slowestFile;
+    }
+
+    public long slowestFileNanos() {
+      return slowestFileNanos;
+    }
+
+    public int abortedFiles() {
+      return abortedFiles;
+    }
+  }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * sonarqube@googlegroups.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.monitoring;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import org.sonar.java.monitoring.AnalysisMetrics.CheckTiming;
+import org.sonar.java.monitoring.AnalysisMetrics.FileTiming;
+import org.sonar.java.monitoring.AnalysisMetrics.Timing;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Serializes {@link AnalysisMetrics} to JSON: totals per phase, then the slowest files with their phases,
+ * then the slowest checks with the file on which each of them was the slowest. Times are in milliseconds.
+ */
+public final class AnalysisMetricsReport {
+
+  public static final String FILE_NAME = "java-analysis-metrics.json";
+  public static final int DEFAULT_TOP_COUNT = 20;
+
+  private final AnalysisMetrics metrics;
+  private final int topCount;
+  private final StringBuilder json = new StringBuilder();
+
+  private AnalysisMetricsReport(AnalysisMetrics metrics, int topCount) {
+    this.metrics = metrics;
+    this.topCount = topCount;
+  }
+
+  public static String serialize(AnalysisMetrics metrics, int topCount) {
+    return new AnalysisMetricsReport(metrics, topCount).serialize();
+  }
+
+  public static void write(AnalysisMetrics metrics, File workDir) throws IOException {
+    File report = new File(workDir, FILE_NAME);
+    Files.createParentDirs(report);
+    Files.write(serialize(metrics, DEFAULT_TOP_COUNT), report, Charsets.UTF_8);
+  }
+
+  /**
+   * Table of the costliest checks, one line per check, to be logged at the end of the analysis.
+   */
+  public static String checksSummary(AnalysisMetrics metrics, int topCount) {
+    StringBuilder summary = new StringBuilder();
+    summary.append(String.format(Locale.ENGLISH, "%12s %8s %8s  %s", "Time (ms)", "Files", "Aborted", "Check"));
+    for (CheckTiming checkTiming : metrics.slowestChecks(topCount)) {
+      summary.append('\n').append(String.format(Locale.ENGLISH, "%12s %8d %8d  %s",
+        millis(checkTiming.nanos()), checkTiming.count(), checkTiming.abortedFiles(), checkTiming.check()));
+    }
+    return summary.toString();
+  }
+
+  private String serialize() {
+    json.append("{\"files\":").append(metrics.fileCount());
+    json.append(",\"allocationTracked\":").append(metrics.isAllocationTracked());
+    json.append(",\"phases\":{");
+    serializePhases(metrics.phases());
+    json.append("},\"slowestFiles\":[");
+    boolean first = true;
+    for (FileTiming fileTiming : metrics.slowestFiles(topCount)) {
+      first = separator(first);
+      json.append("{\"file\":");
+      string(fileTiming.file().getPath());
+      timing(fileTiming);
+      json.append(",\"phases\":{");
+      serializePhases(fileTiming.phases());
+      json.append("}}");
+    }
+    json.append("],\"slowestChecks\":[");
+    first = true;
+    for (CheckTiming checkTiming : metrics.slowestChecks(topCount)) {
+      first = separator(first);
+      json.append("{\"check\":");
+      string(checkTiming.check());
+      timing(checkTiming);
+      if (checkTiming.slowestFile() != null) {
+        json.append(",\"slowestFile\":");
+        string(checkTiming.slowestFile().getPath());
+        json.append(",\"slowestFileTimeMs\":").append(millis(checkTiming.slowestFileNanos()));
+      }
+      json.append(",\"abortedFiles\":").append(checkTiming.abortedFiles());
+      json.append('}');
+    }
+    json.append("]}");
+    return json.toString();
+  }
+
+  private void serializePhases(Map<String, Timing> phases) {
+    boolean first = true;
+    for (Map.Entry<String, Timing> phase : phases.entrySet()) {
+      first = separator(first);
+      string(phase.getKey());
+      json.append(":{\"count\":").append(phase.getValue().count());
+      timing(phase.getValue());
+      json.append('}');
+    }
+  }
+
+  private void timing(Timing timing) {
+    json.append(",\"timeMs\":").append(millis(timing.nanos()));
+    json.append(",\"allocatedBytes\":").append(timing.allocatedBytes());
+  }
+
+  private boolean separator(boolean first) {
+    if (!first) {
+      json.append(',');
+    }
+    return false;
+  }
+
+  private void string(String value) {
+    json.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        json.append('\\').append(c);
+      } else if (c < ' ') {
+        json.append(String.format(Locale.ENGLISH, "\\u%04x", (int) c));
+      } else {
+        json.append(c);
+      }
+    }
+    json.append('"');
+  }
+
+  private static String millis(long nanos) {
+    return String.format(Locale.ENGLISH, "%.3f", nanos / 1000000.0);
+  }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * sonarqube@googlegroups.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.monitoring;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time allowed to a check on a single file. When a budget starts, a task is scheduled at its deadline on a watchdog thread shared
+ * by all the budgets, and flags the budget if it is still running by then. Each budget has its own flag, so that budgets of
+ * different phases or of concurrent analyses do not interfere. Internal visitors given a budget, see {@link Interruptible},
+ * call {@link #checkNotExceeded()} on each node, which only reads a volatile field as long as the budget is not exceeded, and
+ * abort the check by throwing {@link ExceededException}.
+ * The same mechanism bounds the parsing and the semantic analysis of a file: a parser created with a parse time budget and the
+ * tree visitors of the semantic analysis also call {@link #checkNotExceeded()}.
+ */
+public final class CheckTimeBudget {
+
+  private static final ScheduledThreadPoolExecutor WATCHDOG = createWatchdog();
+
+  private final long budgetMillis;
+  private final long budgetNanos;
+  private ScheduledFuture<?> deadline;
+  private long generation = 0;
+  private volatile boolean exceeded = false;
+
+  public CheckTimeBudget(long budgetMillis) {
+    Preconditions.checkArgument(budgetMillis > 0, "Time budget must be positive: %s", budgetMillis);
+    this.budgetMillis = budgetMillis;
+    this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+  }
+
+  private static ScheduledThreadPoolExecutor createWatchdog() {
+    // the thread is only created when the first budget starts
+    ScheduledThreadPoolExecutor watchdog = new ScheduledThreadPoolExecutor(1,
+      new ThreadFactoryBuilder().setDaemon(true).setNameFormat("java-check-watchdog-%d").build());
+    watchdog.setRemoveOnCancelPolicy(true);
+    return watchdog;
+  }
+
+  public long budgetMillis() {
+    return budgetMillis;
+  }
+
+  /**
+   * Starts the budget of a check executed by the current thread.
+   */
+  public synchronized void start() {
+    cancelDeadline();
+    exceeded = false;
+    final long startGeneration = ++generation;
+    deadline = WATCHDOG.schedule(new Runnable() {
+      @Override
+      public void run() {
+        expire(startGeneration);
+      }
+    }, budgetNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Stops the budget of the check executed by the current thread.
+   * @return true if the budget was exceeded
+   */
+  public synchronized boolean stop() {
+    cancelDeadline();
+    boolean wasExceeded = exceeded;
+    exceeded = false;
+    return wasExceeded;
+  }
+
+  /**
+   * Releases the pending deadline, if any. The watchdog thread is shared and stays available for the other budgets.
+   */
+  public synchronized void close() {
+    cancelDeadline();
+  }
+
+  private void cancelDeadline() {
+    if (deadline != null) {
+      deadline.cancel(false);
+      deadline = null;
+    }
+  }
+
+  private synchronized void expire(long startGeneration) {
+    // a deadline which fires while its budget is stopped or restarted is obsolete
+    if (deadline != null && generation == startGeneration) {
+      exceeded = true;
+    }
+  }
+
+  /**
+   * @throws ExceededException if the budget is exceeded
+   */
+  public void checkNotExceeded() {
+    if (exceeded) {
+      throw new ExceededException();
+    }
+  }
+
+  public static class ExceededException extends RuntimeException {
+    public ExceededException() {
+      super("Time budget exceeded");
+    }
+  }
+
+}
@@ -0,0 +1,32 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * sonarqube@googlegroups.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.monitoring;
+
+import javax.annotation.Nullable;
+
+/**
+ * Internal visitor which checks a time budget while it visits a tree, so that it can be interrupted when the budget is exceeded.
+ * Visitors of the API do not check any budget: they always run to completion.
+ */
+public interface Interruptible {
+
+  void setTimeBudget(@Nullable CheckTimeBudget timeBudget);
+
+}
@@ -59,10 +59,22 @@ public class BytecodeCompleter implements JavaSymbol.Completer {
   private final Map<String, JavaSymbol.PackageJavaSymbol> packages = new HashMap<String, JavaSymbol.PackageJavaSymbol>();
 
   private ClassLoader classLoader;
+  private final boolean ownsClassLoader;
 
   public BytecodeCompleter(List<File> projectClasspath, ParametrizedTypeCache parametrizedTypeCache) {
     this.projectClasspath = projectClasspath;
     this.parametrizedTypeCache = parametrizedTypeCache;
+    this.ownsClassLoader = true;
+  }
+
+  /**
+   * Reads bytecode from a class loader created by the caller, which is not closed by {@link #done()}.
+   */
+  public BytecodeCompleter(ClassLoader classLoader, ParametrizedTypeCache parametrizedTypeCache) {
+    this.projectClasspath = ImmutableList.of();
+    this.parametrizedTypeCache = parametrizedTypeCache;
+    this.classLoader = classLoader;
+    this.ownsClassLoader = false;
   }
 
   public void init(Symbols symbols) {
@@ -227,7 +239,7 @@ public class BytecodeCompleter implements JavaSymbol.Completer {
   }
 
   public void done() {
-    if (classLoader != null && classLoader instanceof Closeable) {
+    if (ownsClassLoader && classLoader instanceof Closeable) {
       Closeables.closeQuietly((Closeable) classLoader);
     }
   }
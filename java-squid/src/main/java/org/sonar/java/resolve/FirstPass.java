@@ -22,6 +22,7 @@ package org.sonar.java.resolve;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import org.sonar.java.ast.api.JavaPunctuator;
+import org.sonar.java.ast.visitors.InterruptibleTreeVisitor;
 import org.sonar.java.model.declaration.ClassTreeImpl;
 import org.sonar.java.model.declaration.MethodTreeImpl;
 import org.sonar.java.model.declaration.VariableTreeImpl;
@@ -54,7 +55,7 @@ import java.util.List;
 /**
  * Defines scopes and symbols.
  */
-public class FirstPass extends BaseTreeVisitor {
+public class FirstPass extends InterruptibleTreeVisitor {
 
   private final SemanticModel semanticModel;
 
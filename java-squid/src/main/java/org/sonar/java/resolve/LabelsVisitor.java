@@ -20,10 +20,10 @@
 package org.sonar.java.resolve;
 
 import com.google.common.collect.Maps;
+import org.sonar.java.ast.visitors.InterruptibleTreeVisitor;
 import org.sonar.java.model.expression.IdentifierTreeImpl;
 import org.sonar.java.model.statement.LabeledStatementTreeImpl;
 import org.sonar.java.resolve.JavaSymbol.JavaLabelSymbol;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.BreakStatementTree;
 import org.sonar.plugins.java.api.tree.ContinueStatementTree;
 import org.sonar.plugins.java.api.tree.IdentifierTree;
@@ -32,7 +32,7 @@ import org.sonar.plugins.java.api.tree.LabeledStatementTree;
 import javax.annotation.Nullable;
 import java.util.Map;
 
-public class LabelsVisitor extends BaseTreeVisitor {
+public class LabelsVisitor extends InterruptibleTreeVisitor {
 
   private final Map<String, LabeledStatementTree> labelTrees;
   //FIXME (benzonico) The dependency of this class upon SemanticModel should be removed. This holds as long as Result relies on SemanticModel.
@@ -28,6 +28,7 @@ import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import org.sonar.java.model.AbstractTypedTree;
 import org.sonar.java.model.JavaTree;
+import org.sonar.java.monitoring.CheckTimeBudget;
 import org.sonar.plugins.java.api.semantic.Symbol;
 import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.CompilationUnitTree;
@@ -40,7 +41,9 @@ import javax.annotation.Nullable;
 import java.io.File;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
@@ -51,22 +54,49 @@ public class SemanticModel {
 
   private final Map<Symbol, Resolve.Env> symbolEnvs = Maps.newHashMap();
   private final BiMap<Tree, Resolve.Env> envs = HashBiMap.create();
-  private final Map<Tree, Tree> parentLink = Maps.newHashMap();
   private BytecodeCompleter bytecodeCompleter;
 
   public static SemanticModel createFor(CompilationUnitTree tree, List<File> projectClasspath) {
+    return createFor(tree, projectClasspath, null);
+  }
+
+  /**
+   * @param timeBudget budget interrupting the visits of the tree, which has to be started by the caller
+   */
+  public static SemanticModel createFor(CompilationUnitTree tree, List<File> projectClasspath, @Nullable CheckTimeBudget timeBudget) {
     ParametrizedTypeCache parametrizedTypeCache = new ParametrizedTypeCache();
-    BytecodeCompleter bytecodeCompleter = new BytecodeCompleter(projectClasspath, parametrizedTypeCache);
+    return createFor(tree, new BytecodeCompleter(projectClasspath, parametrizedTypeCache), parametrizedTypeCache, timeBudget);
+  }
+
+  /**
+   * Creates the model with a class loader shared by several files, which is not closed by {@link #done()}.
+   */
+  public static SemanticModel createFor(CompilationUnitTree tree, ClassLoader classLoader, @Nullable CheckTimeBudget timeBudget) {
+    ParametrizedTypeCache parametrizedTypeCache = new ParametrizedTypeCache();
+    return createFor(tree, new BytecodeCompleter(classLoader, parametrizedTypeCache), parametrizedTypeCache, timeBudget);
+  }
+
+  private static SemanticModel createFor(CompilationUnitTree tree, BytecodeCompleter bytecodeCompleter, ParametrizedTypeCache parametrizedTypeCache,
+    @Nullable CheckTimeBudget timeBudget) {
     Symbols symbols = new Symbols(bytecodeCompleter);
     SemanticModel semanticModel = new SemanticModel();
     semanticModel.bytecodeCompleter = bytecodeCompleter;
-    semanticModel.createParentLink((JavaTree) tree);
+    createParentLink((JavaTree) tree);
     try {
       Resolve resolve = new Resolve(symbols, bytecodeCompleter, parametrizedTypeCache);
       TypeAndReferenceSolver typeAndReferenceSolver = new TypeAndReferenceSolver(semanticModel, symbols, resolve, parametrizedTypeCache);
-      new FirstPass(semanticModel, symbols, resolve, parametrizedTypeCache, typeAndReferenceSolver).visitCompilationUnit(tree);
+      typeAndReferenceSolver.setTimeBudget(timeBudget);
+      FirstPass firstPass = new FirstPass(semanticModel, symbols, resolve, parametrizedTypeCache, typeAndReferenceSolver);
+      firstPass.setTimeBudget(timeBudget);
+      firstPass.visitCompilationUnit(tree);
       typeAndReferenceSolver.visitCompilationUnit(tree);
-      new LabelsVisitor(semanticModel).visitCompilationUnit(tree);
+      LabelsVisitor labelsVisitor = new LabelsVisitor(semanticModel);
+      labelsVisitor.setTimeBudget(timeBudget);
+      labelsVisitor.visitCompilationUnit(tree);
+    } catch (RuntimeException e) {
+      // the model is not returned, so its class loader has to be closed here
+      bytecodeCompleter.done();
+      throw e;
     } finally {
       handleMissingTypes(tree);
     }
@@ -108,13 +138,31 @@ public class SemanticModel {
   SemanticModel() {
   }
 
-  private void createParentLink(JavaTree tree) {
+  /**
+   * Parents are kept on the nodes themselves rather than in a map of the model, which would cost an entry per node.
+   * The tree is walked without recursion, as generated code can nest expressions very deeply.
+   */
+  private static void createParentLink(JavaTree tree) {
+    Deque<JavaTree> parents = new LinkedList<>();
+    Deque<Iterator<Tree>> children = new LinkedList<>();
     if (!tree.isLeaf()) {
-      for (Iterator<Tree> iter = tree.childrenIterator(); iter.hasNext(); ) {
-        Tree next = iter.next();
-        if (next != null) {
-          parentLink.put(next, tree);
-          createParentLink((JavaTree) next);
+      parents.push(tree);
+      children.push(tree.childrenIterator());
+    }
+    while (!children.isEmpty()) {
+      Iterator<Tree> iter = children.peek();
+      if (!iter.hasNext()) {
+        children.pop();
+        parents.pop();
+        continue;
+      }
+      Tree next = iter.next();
+      if (next != null) {
+        JavaTree child = (JavaTree) next;
+        child.setParent(parents.peek());
+        if (!child.isLeaf()) {
+          parents.push(child);
+          children.push(child.childrenIterator());
         }
       }
     }
@@ -141,7 +189,7 @@ public class SemanticModel {
     Resolve.Env result = null;
     while (result == null && javaTree != null) {
       result = envs.get(javaTree);
-      javaTree = (JavaTree) parentLink.get(javaTree);
+      javaTree = (JavaTree) javaTree.getParent();
     }
     return result;
   }
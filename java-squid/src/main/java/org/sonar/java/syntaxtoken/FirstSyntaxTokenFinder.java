@@ -19,6 +19,7 @@
  */
 package org.sonar.java.syntaxtoken;
 
+import org.sonar.java.model.JavaTree;
 import org.sonar.java.model.expression.TypeArgumentListTreeImpl;
 import org.sonar.plugins.java.api.tree.AnnotationTree;
 import org.sonar.plugins.java.api.tree.ArrayAccessExpressionTree;
@@ -99,6 +100,17 @@ public class FirstSyntaxTokenFinder extends BaseTreeVisitor {
    */
   @Nullable
   public static SyntaxToken firstSyntaxToken(Tree tree) {
+    if (tree instanceof JavaTree) {
+      return ((JavaTree) tree).firstToken();
+    }
+    return find(tree);
+  }
+
+  /**
+   * Visits the tree to find its first syntax token, without using the token kept by {@link JavaTree#firstToken()}.
+   */
+  @Nullable
+  public static SyntaxToken find(Tree tree) {
     if (tree.is(Tree.Kind.TOKEN)) {
       return (SyntaxToken) tree;
     }
@@ -20,6 +20,7 @@
 package org.sonar.java.syntaxtoken;
 
 import com.google.common.collect.Iterables;
+import org.sonar.java.model.JavaTree;
 import org.sonar.java.model.expression.TypeArgumentListTreeImpl;
 import org.sonar.plugins.java.api.tree.AnnotationTree;
 import org.sonar.plugins.java.api.tree.ArrayAccessExpressionTree;
@@ -103,6 +104,17 @@ public class LastSyntaxTokenFinder extends BaseTreeVisitor {
    */
   @Nullable
   public static SyntaxToken lastSyntaxToken(Tree tree) {
+    if (tree instanceof JavaTree) {
+      return ((JavaTree) tree).lastToken();
+    }
+    return find(tree);
+  }
+
+  /**
+   * Visits the tree to find its last syntax token, without using the token kept by {@link JavaTree#lastToken()}.
+   */
+  @Nullable
+  public static SyntaxToken find(Tree tree) {
     if (tree.is(Tree.Kind.TOKEN)) {
       return (SyntaxToken) tree;
     }
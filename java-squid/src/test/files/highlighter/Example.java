@@ -18,3 +18,7 @@ class Example {
 @interface Example2 {
   Example3 method() default 0;
 }
+
+public abstract class Example4 {
+  private static final int x = 0;
+}
@@ -0,0 +1,84 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * sonarqube@googlegroups.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java;
+
+import com.google.common.collect.Lists;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class ClassFilesIndexTest {
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  @Test
+  public void should_index_class_files_by_internal_name() throws IOException {
+    File binaryDir = temp.newFolder("classes");
+    File foo = createFile(binaryDir, "org/foo/Foo.class");
+    File inner = createFile(binaryDir, "org/foo/Foo$Bar.class");
+    File defaultPackage = createFile(binaryDir, "Baz.class");
+    createFile(binaryDir, "org/foo/resource.properties");
+
+    ClassFilesIndex index = ClassFilesIndex.create(Lists.newArrayList(binaryDir));
+
+    assertThat(index.size()).isEqualTo(3);
+    assertThat(index.classFile("org/foo/Foo")).isEqualTo(foo);
+    assertThat(index.classFile("org/foo/Foo$Bar")).isEqualTo(inner);
+    assertThat(index.classFile("Baz")).isEqualTo(defaultPackage);
+    assertThat(index.classFile("org/foo/resource")).isNull();
+    assertThat(index.classFiles()).containsOnly(foo, inner, defaultPackage);
+  }
+
+  @Test
+  public void first_binary_dir_should_win() throws IOException {
+    File first = temp.newFolder("first");
+    File second = temp.newFolder("second");
+    File foo = createFile(first, "org/foo/Foo.class");
+    createFile(second, "org/foo/Foo.class");
+    File bar = createFile(second, "org/foo/Bar.class");
+
+    ClassFilesIndex index = ClassFilesIndex.create(Lists.newArrayList(first, second));
+
+    assertThat(index.size()).isEqualTo(2);
+    assertThat(index.classFile("org/foo/Foo")).isEqualTo(foo);
+    assertThat(index.classFile("org/foo/Bar")).isEqualTo(bar);
+  }
+
+  @Test
+  public void should_ignore_missing_binary_dirs() {
+    ClassFilesIndex index = ClassFilesIndex.create(Lists.newArrayList(new File("target/unknown")));
+
+    assertThat(index.isEmpty()).isTrue();
+  }
+
+  private static File createFile(File baseDir, String path) throws IOException {
+    File file = new File(baseDir, path);
+    file.getParentFile().mkdirs();
+    file.createNewFile();
+    return file;
+  }
+
+}
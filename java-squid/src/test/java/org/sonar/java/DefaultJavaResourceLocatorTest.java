@@ -44,6 +44,7 @@ public class DefaultJavaResourceLocatorTest {
   public static void setup() {
     JavaClasspath javaClasspath = mock(JavaClasspath.class);
     when(javaClasspath.getBinaryDirs()).thenReturn(Lists.newArrayList(new File("target/test-classes")));
+    when(javaClasspath.getClassFilesIndex()).thenReturn(ClassFilesIndex.create(Lists.newArrayList(new File("target/test-classes"))));
     when(javaClasspath.getElements()).thenReturn(Lists.newArrayList(new File("target/test-classes")));
     SensorContext sensorContext = mock(SensorContext.class);
     File file = new File("src/test/java/org/sonar/java/DefaultJavaResourceLocatorTest.java");
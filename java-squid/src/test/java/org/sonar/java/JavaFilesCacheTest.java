@@ -20,11 +20,15 @@
 package org.sonar.java;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import org.junit.Test;
 import org.sonar.java.ast.JavaAstScanner;
+import org.sonar.java.collections.IntervalSet;
 import org.sonar.java.model.VisitorsBridge;
 
 import java.io.File;
+import java.util.Map;
+import java.util.Set;
 
 import static org.fest.assertions.Assertions.assertThat;
 
@@ -65,20 +69,36 @@ public class JavaFilesCacheTest {
   public void suppressWarning_lines_mapping() {
     JavaFilesCache javaFilesCache = new JavaFilesCache();
     JavaAstScanner.scanSingleFile(new File("src/test/resources/JavaFilesCacheTest.java"), new VisitorsBridge(javaFilesCache));
-    assertThat(javaFilesCache.suppressWarningLines.keySet()).hasSize(28);
+    int suppressedLines = 0;
+    for (int line = 1; line <= 100; line++) {
+      if (!warningsOnLine(javaFilesCache, line).isEmpty()) {
+        suppressedLines++;
+      }
+    }
+    assertThat(suppressedLines).isEqualTo(28);
     for (Integer line : Lists.newArrayList(14, 15, 19, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29)) {
-      assertThat(javaFilesCache.suppressWarningLines.get(line)).contains("all");
+      assertThat(warningsOnLine(javaFilesCache, line)).contains("all");
     }
     for (Integer line : Lists.newArrayList(23, 24, 25, 26, 27)) {
-      assertThat(javaFilesCache.suppressWarningLines.get(line)).contains("foo", "bar");
+      assertThat(warningsOnLine(javaFilesCache, line)).contains("foo", "bar");
     }
 
     for (Integer line : Lists.newArrayList(10, 11, 32, 33, 34, 35, 36, 37)) {
-      assertThat(javaFilesCache.suppressWarningLines.get(line)).containsOnly("qix");
+      assertThat(warningsOnLine(javaFilesCache, line)).containsOnly("qix");
     }
 
     for (Integer line : Lists.newArrayList(39, 41, 42, 43, 44, 45, 46)) {
-      assertThat(javaFilesCache.suppressWarningLines.get(line)).containsOnly("gul");
+      assertThat(warningsOnLine(javaFilesCache, line)).containsOnly("gul");
+    }
+  }
+
+  private static Set<String> warningsOnLine(JavaFilesCache javaFilesCache, int line) {
+    Set<String> warnings = Sets.newHashSet();
+    for (Map.Entry<String, IntervalSet> entry : javaFilesCache.suppressWarningLines.entrySet()) {
+      if (entry.getValue().contains(line)) {
+        warnings.add(entry.getKey());
+      }
     }
+    return warnings;
   }
 }
@@ -0,0 +1,136 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * sonarqube@googlegroups.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.ast;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.io.Files;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sonar.java.JavaConfiguration;
+import org.sonar.java.model.VisitorsBridge;
+import org.sonar.plugins.java.api.JavaFileScanner;
+import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.squidbridge.api.SourceFile;
+
+import java.io.File;
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class JavaAnalysisSessionTest {
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  private final List<Object> semanticModels = Lists.newArrayList();
+
+  private final JavaFileScanner scanner = new JavaFileScanner() {
+    @Override
+    public void scanFile(JavaFileScannerContext context) {
+      semanticModels.add(context.getSemanticModel());
+    }
+  };
+
+  @Test
+  public void should_analyze_file_each_time() throws Exception {
+    File file = temp.newFile("A.java");
+    Files.write("class A { void m() {} }", file, Charsets.UTF_8);
+    JavaAnalysisSession session = new JavaAnalysisSession(new JavaConfiguration(Charsets.UTF_8), new VisitorsBridge(scanner));
+    try {
+      SourceFile first = session.analyze(file);
+      assertThat(first.getKey()).isEqualTo(file.getAbsolutePath());
+      assertThat(session.analyze(file)).isNotSameAs(first);
+      assertThat(semanticModels).hasSize(2);
+
+      Files.write("class A { void m() {} void n() {} }", file, Charsets.UTF_8);
+      session.analyze(file);
+      assertThat(semanticModels).hasSize(3);
+      assertThat(semanticModels.get(2)).isNotNull();
+    } finally {
+      session.close();
+    }
+  }
+
+  @Test
+  public void should_resolve_each_file_with_the_class_loader_of_the_session() throws Exception {
+    File fileA = temp.newFile("A.java");
+    Files.write("class A { java.util.List<String> list; }", fileA, Charsets.UTF_8);
+    File fileB = temp.newFile("B.java");
+    Files.write("class B extends A { }", fileB, Charsets.UTF_8);
+    JavaAnalysisSession session = new JavaAnalysisSession(new JavaConfiguration(Charsets.UTF_8), new VisitorsBridge(scanner));
+    try {
+      session.analyze(fileA);
+      session.analyze(fileB);
+    } finally {
+      session.close();
+    }
+    assertThat(semanticModels).hasSize(2);
+    assertThat(semanticModels.get(0)).isNotNull();
+    assertThat(semanticModels.get(1)).isNotNull();
+  }
+
+  @Test
+  public void should_resolve_files_with_refreshed_classpath() throws Exception {
+    File file = temp.newFile("A.java");
+    Files.write("class A { }", file, Charsets.UTF_8);
+    JavaAnalysisSession session = new JavaAnalysisSession(new JavaConfiguration(Charsets.UTF_8), new VisitorsBridge(scanner));
+    try {
+      session.analyze(file);
+      session.refreshClasspath();
+      session.analyze(file);
+    } finally {
+      session.close();
+    }
+    assertThat(semanticModels).hasSize(2);
+    assertThat(semanticModels.get(1)).isNotNull();
+  }
+
+  @Test
+  public void should_report_issues_of_each_analysis() throws Exception {
+    File file = temp.newFile("A.java");
+    Files.write("class A { }", file, Charsets.UTF_8);
+    JavaFileScanner issueScanner = new JavaFileScanner() {
+      @Override
+      public void scanFile(JavaFileScannerContext context) {
+        context.addIssueOnFile(this, "issue");
+      }
+    };
+    JavaAnalysisSession session = new JavaAnalysisSession(new JavaConfiguration(Charsets.UTF_8), new VisitorsBridge(issueScanner));
+    try {
+      assertThat(session.analyze(file).getCheckMessages()).hasSize(1);
+      assertThat(session.analyze(file).getCheckMessages()).hasSize(1);
+    } finally {
+      session.close();
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void should_fail_on_missing_file() {
+    JavaAnalysisSession session = new JavaAnalysisSession(new JavaConfiguration(Charsets.UTF_8), new VisitorsBridge(scanner));
+    try {
+      session.analyze(new File("!!dummy"));
+    } finally {
+      session.close();
+    }
+  }
+
+}
@@ -21,6 +21,8 @@ package org.sonar.java.ast;
 
 import com.google.common.base.Charsets;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.io.Files;
 import com.sonar.sslr.api.RecognitionException;
 import com.sonar.sslr.api.typed.ActionParser;
 import com.sonar.sslr.api.typed.GrammarBuilder;
@@ -30,25 +32,33 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.Mockito;
 import org.sonar.api.batch.SensorContext;
 import org.sonar.api.batch.fs.internal.DefaultFileSystem;
 import org.sonar.java.Measurer;
 import org.sonar.java.ast.parser.JavaNodeBuilder;
+import org.sonar.java.ast.parser.JavaParser;
 import org.sonar.java.model.InternalSyntaxToken;
 import org.sonar.java.model.JavaTree;
 import org.sonar.java.model.VisitorsBridge;
+import org.sonar.java.monitoring.AnalysisMetrics;
+import org.sonar.java.monitoring.CheckTimeBudget;
 import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.tree.ClassTree;
 import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.TreeVisitor;
 import org.sonar.squidbridge.AstScannerExceptionHandler;
 import org.sonar.squidbridge.api.AnalysisException;
+import org.sonar.squidbridge.api.CheckMessage;
 import org.sonar.squidbridge.api.SourceFile;
+import org.sonar.squidbridge.indexer.QueryByType;
 import org.sonar.sslr.grammar.GrammarRuleKey;
 import org.sonar.sslr.grammar.LexerlessGrammarBuilder;
 
 import java.io.File;
+import java.util.List;
 
 import static org.fest.assertions.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
@@ -60,6 +70,9 @@ public class JavaAstScannerTest {
   @Rule
   public ExpectedException thrown = ExpectedException.none();
 
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
   SensorContext context;
   private DefaultFileSystem fs;
 
@@ -159,8 +172,101 @@ public class JavaAstScannerTest {
     scanner.scan(ImmutableList.of(new File("src/test/resources/AstScannerNoParseError.txt")));
   }
 
+  @Test
+  public void should_visit_empty_tree_when_parsing_exceeds_time_budget() throws Exception {
+    StringBuilder sb = new StringBuilder("class A {\n");
+    for (int i = 0; i < 5000; i++) {
+      sb.append("  int m").append(i).append("(int a) { return a > 0 ? m").append(i).append("(a - 1) : a; }\n");
+    }
+    File file = temp.newFile("A.java");
+    Files.write(sb.append("}\n").toString(), file, Charsets.UTF_8);
+    final List<Tree> types = Lists.newArrayList();
+    CheckTimeBudget budget = new CheckTimeBudget(1);
+    JavaAstScanner scanner = new JavaAstScanner(JavaParser.createParser(Charsets.UTF_8, budget));
+    scanner.setVisitorBridge(new VisitorsBridge(new JavaFileScanner() {
+      @Override
+      public void scanFile(JavaFileScannerContext context) {
+        types.addAll(context.getTree().types());
+      }
+    }));
+    scanner.setParseTimeBudget(budget);
+    try {
+      scanner.scan(ImmutableList.of(file));
+    } finally {
+      budget.close();
+    }
+
+    assertThat(types).isEmpty();
+    budget.checkNotExceeded();
+  }
+
+  @Test
+  public void should_skip_lines_with_parse_errors_when_recovery_is_enabled() throws Exception {
+    FakeAuditListener listener = scanWithParseErrorRecovery("class A {\n#if DEBUG\n  void m() {}\n#endif\n}\n", 2);
+
+    assertThat(listener.types).hasSize(1);
+    ClassTree classTree = (ClassTree) listener.types.get(0);
+    assertThat(classTree.simpleName().name()).isEqualTo("A");
+    assertThat(classTree.members()).hasSize(1);
+    assertThat(((JavaTree) classTree.members().get(0)).getLine()).isEqualTo(3);
+    verify(listener).processRecognitionException(Mockito.any(RecognitionException.class));
+  }
+
+  @Test
+  public void should_skip_members_with_parse_errors() throws Exception {
+    FakeAuditListener listener = scanWithParseErrorRecovery("class A {\n  void m() {\n    int a = ;\n  }\n  void n() {\n  }\n}\n", 1);
+
+    assertThat(listener.types).hasSize(1);
+    ClassTree classTree = (ClassTree) listener.types.get(0);
+    assertThat(classTree.members()).hasSize(1);
+    assertThat(((JavaTree) classTree.members().get(0)).getLine()).isEqualTo(5);
+  }
+
+  @Test
+  public void should_not_visit_tree_when_too_many_members_have_parse_errors() throws Exception {
+    FakeAuditListener listener = scanWithParseErrorRecovery("class A {\n  void m() {\n    int a = ;\n  }\n  void n() {\n    int b = ;\n  }\n}\n", 1);
+
+    assertThat(listener.types).isEmpty();
+    verify(listener).processRecognitionException(Mockito.any(RecognitionException.class));
+  }
+
+  @Test
+  public void should_execute_rule_checks_on_recovered_tree_and_drop_issues_on_skipped_lines() throws Exception {
+    File file = temp.newFile("A.java");
+    Files.write("class A {\n  void m() {\n    int a = ;\n  }\n  void n() {\n  }\n}\n", file, Charsets.UTF_8);
+    FakeRuleCheck ruleCheck = new FakeRuleCheck();
+    AnalysisMetrics metrics = new AnalysisMetrics();
+    JavaAstScanner scanner = new JavaAstScanner(JavaParser.createParser(Charsets.UTF_8));
+    scanner.setMetrics(metrics);
+    scanner.setVisitorBridge(new VisitorsBridge(ruleCheck));
+    scanner.setParseErrorRecovery(Charsets.UTF_8, 1);
+    scanner.scan(ImmutableList.of(file));
+
+    assertThat(ruleCheck.scanned).isTrue();
+    SourceFile sourceFile = (SourceFile) scanner.getIndex().search(new QueryByType(SourceFile.class)).iterator().next();
+    List<Integer> lines = Lists.newArrayList();
+    for (CheckMessage checkMessage : sourceFile.getCheckMessages()) {
+      lines.add(checkMessage.getLine());
+    }
+    assertThat(lines).containsOnly(5);
+    assertThat(metrics.file(file).phases().get(AnalysisMetrics.PARSE)).isNotNull();
+  }
+
+  private FakeAuditListener scanWithParseErrorRecovery(String source, int maxSkippedMembers) throws Exception {
+    File file = temp.newFile("A.java");
+    Files.write(source, file, Charsets.UTF_8);
+    FakeAuditListener listener = spy(new FakeAuditListener());
+    JavaAstScanner scanner = new JavaAstScanner(JavaParser.createParser(Charsets.UTF_8));
+    scanner.setVisitorBridge(new VisitorsBridge(listener));
+    scanner.setParseErrorRecovery(Charsets.UTF_8, maxSkippedMembers);
+    scanner.scan(ImmutableList.of(file));
+    return listener;
+  }
+
   private static class FakeAuditListener implements JavaFileScanner, AstScannerExceptionHandler {
 
+    private final List<Tree> types = Lists.newArrayList();
+
     @Override
     public void processRecognitionException(RecognitionException e) {
     }
@@ -171,7 +277,25 @@ public class JavaAstScannerTest {
 
     @Override
     public void scanFile(JavaFileScannerContext context) {
+      if (context.getTree() != null) {
+        types.addAll(context.getTree().types());
+      }
+    }
+  }
 
+  @org.sonar.check.Rule(key = "fake")
+  private static class FakeRuleCheck implements JavaFileScanner {
+
+    private boolean scanned = false;
+
+    @Override
+    public void scanFile(JavaFileScannerContext context) {
+      scanned = true;
+      // one issue on the line of each method, and one on a line that could not be parsed
+      for (Tree member : ((ClassTree) context.getTree().types().get(0)).members()) {
+        context.addIssue(member, this, "member");
+      }
+      context.addIssue(3, this, "skipped");
     }
   }
 
@@ -0,0 +1,99 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * sonarqube@googlegroups.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.ast;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+import org.sonar.java.collections.IntervalSet;
+
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class ParseErrorRecoveryTest {
+
+  private final IntervalSet skippedLines = new IntervalSet();
+
+  @Test
+  public void should_blank_preprocessor_directives_and_keep_positions() {
+    String source = "class A {\n  #if DEBUG\r\n  void m() {}\n#endif\n}";
+    ParseErrorRecovery recovery = new ParseErrorRecovery(source, skippedLines);
+    assertThat(recovery.source()).isEqualTo("class A {\n           \r\n  void m() {}\n      \n}");
+    assertThat(skippedLines.toString()).isEqualTo("[2..2, 4..4]");
+  }
+
+  @Test
+  public void should_split_top_level_declarations_and_members() {
+    String source = "package p;\nimport a.B;\n/** doc */\n@A({\"}\"}) class C extends B {\n"
+      + "  int[] a = {1, 2};\n"
+      + "  @SuppressWarnings({\"x\"}) Object o = new Object() { void m() {} };\n"
+      + "  Runnable r = () -> { };\n"
+      + "  void m(String s) { if (s == \"{\") { s = '}' + s; } } // }\n"
+      + "  static { }\n"
+      + "  class D { void n() {} }\n"
+      + "}\n";
+    assertThat(parsableSources(source)).containsOnly(
+      "package p;",
+      "\nimport a.B;",
+      "class Recovered {\n  int[] a = {1, 2};\n}",
+      "class Recovered {\n  @SuppressWarnings({\"x\"}) Object o = new Object() { void m() {} };\n}",
+      "class Recovered {\n  Runnable r = () -> { };\n}",
+      "class Recovered {\n  void m(String s) { if (s == \"{\") { s = '}' + s; } }\n}",
+      "class Recovered { // }\n  static { }\n}",
+      "class Recovered {\n  class D { void n() {} }\n}");
+  }
+
+  @Test
+  public void should_wrap_members_into_type_of_same_kind() {
+    assertThat(parsableSources("enum E { A { void m() {} }, B; void n() {} }")).containsOnly(
+      "enum Recovered { A { void m() {} }, B;\n}",
+      "enum Recovered {; void n() {}\n}");
+    assertThat(parsableSources("interface I { default void m() {} }")).containsOnly("interface Recovered { default void m() {}\n}");
+    assertThat(parsableSources("@interface I { int[] m() default {1}; }")).containsOnly("@interface Recovered { int[] m() default {1};\n}");
+  }
+
+  @Test
+  public void should_skip_member_and_record_its_lines() {
+    String source = "class A {\n  int a;\n  void m() {\n    int b = ;\n  }\n  void n() {}\n}\n";
+    ParseErrorRecovery recovery = new ParseErrorRecovery(source, skippedLines);
+    List<ParseErrorRecovery.Region> regions = recovery.regionsFrom(4);
+    assertThat(regions).hasSize(3);
+    assertThat(recovery.parsableSource(regions.get(1))).isEqualTo("class Recovered {\n  void m() {\n    int b = ;\n  }\n}");
+
+    recovery.skip(regions.get(1));
+    assertThat(recovery.source()).isEqualTo("class A {\n  int a;\n            \n             \n   \n  void n() {}\n}\n");
+    assertThat(skippedLines.toString()).isEqualTo("[3..5]");
+  }
+
+  @Test
+  public void should_keep_unterminated_body_as_last_region() {
+    assertThat(parsableSources("class A { void m() { int a;")).containsOnly("class Recovered { void m() { int a;\n}");
+  }
+
+  private List<String> parsableSources(String source) {
+    ParseErrorRecovery recovery = new ParseErrorRecovery(source, skippedLines);
+    List<String> result = Lists.newArrayList();
+    for (ParseErrorRecovery.Region region : recovery.regionsFrom(1)) {
+      result.add(recovery.parsableSource(region));
+    }
+    return result;
+  }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * sonarqube@googlegroups.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.ast.parser;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Joiner;
+import com.google.common.io.Files;
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import org.sonar.java.ast.api.JavaKeyword;
+import org.sonar.java.ast.parser.LexicalExpressions.ScannerExpression;
+
+import java.io.File;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+/**
+ * Compares each hand-written expression with the regular expression it replaces, at every offset of the test sources.
+ */
+public class LexicalExpressionsTest {
+
+  private static final String[] SAMPLES = {
+    "", " ", " \t\n\u000B\f\r x", "\u00a0", "// comment\nfoo", "//\r", "/**/", "/*/", "/* a */ b */", "/* unclosed",
+    "foo", "_foo$1 bar", "1foo", "\u00e9t\u00e9", "\uD835\uDC00x", "\u0000", "int", "interface", "intx", "enum", "synchronizedx",
+    "'a'", "'\\''", "'\\\\'", "'\\", "'a", "\"\"", "\"a\\\"b\" c\"", "\"multi\nline\"", "\"unclosed"};
+
+  @Test
+  public void whitespace() throws Exception {
+    compare(LexicalExpressions.whitespace(), "\\s*+");
+  }
+
+  @Test
+  public void inline_comment() throws Exception {
+    compare(LexicalExpressions.inlineComment(), "//[^\\n\\r]*+");
+  }
+
+  @Test
+  public void multiline_comment() throws Exception {
+    compare(LexicalExpressions.multilineComment(), "/\\*[\\s\\S]*?\\*\\/");
+  }
+
+  @Test
+  public void identifier() throws Exception {
+    compare(LexicalExpressions.identifier(), "\\p{javaJavaIdentifierStart}++\\p{javaJavaIdentifierPart}*+");
+  }
+
+  @Test
+  public void identifier_part() throws Exception {
+    compare(LexicalExpressions.identifierPart(), "\\p{javaJavaIdentifierPart}");
+  }
+
+  @Test
+  public void keyword() throws Exception {
+    String[] keywords = JavaKeyword.keywordValues();
+    Arrays.sort(keywords, Collections.reverseOrder());
+    compare(LexicalExpressions.keyword(JavaKeyword.keywordValues()), "(?:" + Joiner.on('|').join(keywords) + ")(?!\\p{javaJavaIdentifierPart})");
+  }
+
+  @Test
+  public void character_literal() throws Exception {
+    compare(LexicalExpressions.characterLiteral(), "'([^'\\\\]*+(\\\\[\\s\\S])?+)*+'");
+  }
+
+  @Test
+  public void string_literal() throws Exception {
+    compare(LexicalExpressions.stringLiteral(), "\"([^\"\\\\]*+(\\\\[\\s\\S])?+)*+\"");
+  }
+
+  private static void compare(Object expression, String regexp) throws Exception {
+    ScannerExpression scanner = (ScannerExpression) expression;
+    Matcher matcher = Pattern.compile(regexp).matcher("");
+    for (String sample : SAMPLES) {
+      compare(scanner, matcher, sample);
+    }
+    for (File file : FileUtils.listFiles(new File("src/test/files"), new String[] {"java"}, true)) {
+      compare(scanner, matcher, Files.toString(file, Charsets.UTF_8));
+    }
+  }
+
+  private static void compare(ScannerExpression scanner, Matcher matcher, String content) {
+    for (int offset = 0; offset <= content.length(); offset++) {
+      CharSequence input = CharBuffer.wrap(content, offset, content.length());
+      matcher.reset(input);
+      int expected = matcher.lookingAt() ? matcher.end() : -1;
+      assertThat(scanner.match(input)).as(scanner + " at offset " + offset + " of " + content.substring(offset, Math.min(content.length(), offset + 20)))
+        .isEqualTo(expected);
+    }
+  }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * sonarqube@googlegroups.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.ast.parser;
+
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class LineOffsetsTest {
+
+  @Test
+  public void empty_content() {
+    LineOffsets offsets = LineOffsets.of(new char[0]);
+    assertThat(offsets.lineCount()).isEqualTo(1);
+    assertThat(offsets.line(0)).isEqualTo(1);
+    assertThat(offsets.column(0)).isEqualTo(0);
+  }
+
+  @Test
+  public void line_terminators() {
+    LineOffsets offsets = LineOffsets.of("a\nbc\r\nd\re\r".toCharArray());
+    assertThat(offsets.lineCount()).isEqualTo(5);
+    assertThat(offsets.lineStart(1)).isEqualTo(0);
+    assertThat(offsets.lineStart(2)).isEqualTo(2);
+    assertThat(offsets.lineStart(3)).isEqualTo(6);
+    assertThat(offsets.lineStart(4)).isEqualTo(8);
+    assertThat(offsets.lineStart(5)).isEqualTo(10);
+    assertThat(offsets.offset(2, 1)).isEqualTo(3);
+  }
+
+  @Test
+  public void line_and_column_in_any_order() {
+    String content = "class A {\n  int a;\r\n\r\n  void f() {}\r}\n";
+    LineOffsets offsets = LineOffsets.of(content.toCharArray());
+    int[] order = {0, 5, 12, 21, 22, 35, 36, 3, 25, 0, 36, 10};
+    for (int offset : order) {
+      assertThat(offsets.line(offset)).isEqualTo(expectedLine(content, offset));
+      assertThat(offsets.column(offset)).isEqualTo(offset - offsets.lineStart(expectedLine(content, offset)));
+      assertThat(offsets.offset(offsets.line(offset), offsets.column(offset))).isEqualTo(offset);
+    }
+  }
+
+  @Test
+  public void reset_for_another_content() {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      sb.append("line\n");
+    }
+    LineOffsets offsets = LineOffsets.of(sb.toString().toCharArray());
+    assertThat(offsets.line(499)).isEqualTo(100);
+
+    offsets.reset("a\r\nb".toCharArray());
+    assertThat(offsets.lineCount()).isEqualTo(2);
+    assertThat(offsets.line(3)).isEqualTo(2);
+    assertThat(offsets.column(3)).isEqualTo(0);
+    assertThat(offsets.line(0)).isEqualTo(1);
+
+    offsets.reset(sb.toString().toCharArray());
+    assertThat(offsets.lineCount()).isEqualTo(101);
+    assertThat(offsets.offset(100, 4)).isEqualTo(499);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void line_out_of_range() {
+    LineOffsets.of("a\nb".toCharArray()).lineStart(3);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negative_offset() {
+    LineOffsets.of("a".toCharArray()).line(-1);
+  }
+
+  private static int expectedLine(String content, int offset) {
+    int line = 1;
+    for (int i = 0; i < offset; i++) {
+      char c = content.charAt(i);
+      if (c == '\n' || (c == '\r' && (i + 1 == content.length() || content.charAt(i + 1) != '\n'))) {
+        line++;
+      }
+    }
+    return line;
+  }
+
+}
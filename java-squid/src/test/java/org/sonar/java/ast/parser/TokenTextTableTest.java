@@ -0,0 +1,83 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * sonarqube@googlegroups.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.ast.parser;
+
+import org.junit.Test;
+import org.sonar.java.ast.api.JavaKeyword;
+import org.sonar.java.ast.api.JavaPunctuator;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class TokenTextTableTest {
+
+  @Test
+  public void keywords_and_punctuators_are_shared_values() {
+    TokenTextTable table = new TokenTextTable();
+    char[] input = "public int a;".toCharArray();
+    assertThat(table.intern(input, 0, 6)).isSameAs(JavaKeyword.PUBLIC.getValue());
+    assertThat(table.intern(input, 7, 10)).isSameAs(JavaKeyword.INT.getValue());
+    assertThat(table.intern(input, 12, 13)).isSameAs(JavaPunctuator.SEMI.getValue());
+  }
+
+  @Test
+  public void repeated_texts_are_stored_once() {
+    TokenTextTable table = new TokenTextTable();
+    int predefined = table.size();
+    char[] input = "foo bar foo fo".toCharArray();
+    String foo = table.intern(input, 0, 3);
+    assertThat(foo).isEqualTo("foo");
+    assertThat(table.intern(input, 4, 7)).isEqualTo("bar");
+    assertThat(table.intern(input, 8, 11)).isSameAs(foo);
+    assertThat(table.intern(input, 12, 14)).isEqualTo("fo");
+    assertThat(table.intern(input, 3, 3)).isEmpty();
+    assertThat(table.size()).isEqualTo(predefined + 4);
+  }
+
+  @Test
+  public void table_grows() {
+    TokenTextTable table = new TokenTextTable();
+    int predefined = table.size();
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 5000; i++) {
+      sb.append("id").append(i).append(' ');
+    }
+    char[] input = sb.toString().toCharArray();
+    for (int round = 0; round < 2; round++) {
+      int start = 0;
+      for (int i = 0; i < 5000; i++) {
+        int end = sb.indexOf(" ", start);
+        assertThat(table.intern(input, start, end)).isEqualTo("id" + i);
+        start = end + 1;
+      }
+    }
+    assertThat(table.size()).isEqualTo(predefined + 5000);
+  }
+
+  @Test
+  public void clear_keeps_only_predefined_texts() {
+    TokenTextTable table = new TokenTextTable();
+    int predefined = table.size();
+    table.intern("foo".toCharArray(), 0, 3);
+    table.clear();
+    assertThat(table.size()).isEqualTo(predefined);
+    assertThat(table.intern("class".toCharArray(), 0, 5)).isSameAs(JavaKeyword.CLASS.getValue());
+  }
+
+}
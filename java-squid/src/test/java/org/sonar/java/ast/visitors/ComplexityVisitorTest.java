@@ -0,0 +1,115 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * sonarqube@googlegroups.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.ast.visitors;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.sonar.sslr.api.typed.ActionParser;
+import org.junit.Test;
+import org.sonar.java.ast.parser.JavaParser;
+import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.java.api.tree.ClassTree;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.MethodTree;
+
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class ComplexityVisitorTest {
+
+  private static final String SOURCE = "class A {" +
+    "  private int a;" +
+    "  public int getA() { return a; }" +
+    "  void f(boolean b) { if (b && a > 0) { return; } while (b) { a++; } }" +
+    "  int g() { return a > 0 ? 1 : 2; }" +
+    "  class B {" +
+    "    void h() { for (int i = 0; i < 3; i++) { switch (i) { case 1: break; default: throw new RuntimeException(); } } }" +
+    "  }" +
+    "  Object o = new Object() {" +
+    "    public int hashCode() { try { return 1; } catch (Exception e) { return 2; } }" +
+    "  };" +
+    "  enum E { X; void e() {} }" +
+    "  abstract void abs();" +
+    "}";
+
+  private final ActionParser parser = JavaParser.createParser(Charsets.UTF_8);
+
+  @Test
+  public void file_scan_gives_same_complexities_as_scanning_each_tree() {
+    for (boolean analyseAccessors : new boolean[] {true, false}) {
+      CompilationUnitTree cut = (CompilationUnitTree) parser.parse(SOURCE);
+      ComplexityVisitor.FileComplexity fileComplexity = new ComplexityVisitor(analyseAccessors).scanFile(cut);
+      ComplexityVisitor visitor = new ComplexityVisitor(analyseAccessors);
+      assertThat(fileComplexity.complexity(cut)).isEqualTo(visitor.scan(cut));
+
+      ClassesAndMethods classesAndMethods = new ClassesAndMethods();
+      cut.accept(classesAndMethods);
+      assertThat(classesAndMethods.classes).hasSize(4);
+      assertThat(classesAndMethods.methods).hasSize(7);
+      for (ClassTree classTree : classesAndMethods.classes) {
+        assertThat(fileComplexity.complexity(classTree)).isEqualTo(visitor.scan(classTree));
+      }
+      for (int i = 0; i < classesAndMethods.methods.size(); i++) {
+        MethodTree method = classesAndMethods.methods.get(i);
+        ClassTree enclosingClass = classesAndMethods.enclosingClasses.get(i);
+        assertThat(fileComplexity.complexity(method)).isEqualTo(visitor.scan(method));
+        assertThat(fileComplexity.methodComplexity(enclosingClass, method)).isEqualTo(visitor.scan(enclosingClass, method));
+      }
+    }
+  }
+
+  @Test
+  public void unknown_trees_are_not_resolved() {
+    CompilationUnitTree cut = (CompilationUnitTree) parser.parse(SOURCE);
+    ComplexityVisitor.FileComplexity fileComplexity = new ComplexityVisitor(true).scanFile(cut);
+    ClassTree classTree = (ClassTree) cut.types().get(0);
+    MethodTree method = (MethodTree) classTree.members().get(2);
+
+    assertThat(fileComplexity.complexity(((MethodTree) classTree.members().get(1)).block())).isNull();
+    assertThat(fileComplexity.methodComplexity((ClassTree) classTree.members().get(4), method)).isNull();
+    assertThat(fileComplexity.complexity((CompilationUnitTree) parser.parse(SOURCE))).isNull();
+  }
+
+  private static class ClassesAndMethods extends BaseTreeVisitor {
+    private final List<ClassTree> classes = Lists.newArrayList();
+    private final List<MethodTree> methods = Lists.newArrayList();
+    private final List<ClassTree> enclosingClasses = Lists.newArrayList();
+    private final Deque<ClassTree> stack = new LinkedList<>();
+
+    @Override
+    public void visitClass(ClassTree tree) {
+      classes.add(tree);
+      stack.push(tree);
+      super.visitClass(tree);
+      stack.pop();
+    }
+
+    @Override
+    public void visitMethod(MethodTree tree) {
+      methods.add(tree);
+      enclosingClasses.add(stack.peek());
+      super.visitMethod(tree);
+    }
+  }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * sonarqube@googlegroups.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.ast.visitors;
+
+import com.google.common.base.Charsets;
+import com.sonar.sslr.api.typed.ActionParser;
+import org.junit.Test;
+import org.sonar.java.ast.parser.JavaParser;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class LineMetricsVisitorTest {
+
+  private final ActionParser p = JavaParser.createParser(Charsets.UTF_8);
+
+  @Test
+  public void lines_of_code() {
+    LineMetricsVisitor lineMetrics = analyze("/* header */\nclass A {\n\n  int a;\n}\n");
+    assertThat(lineMetrics.linesOfCode()).isEqualTo(3);
+    assertThat(lineMetrics.isLineOfCode(1)).isFalse();
+    assertThat(lineMetrics.isLineOfCode(2)).isTrue();
+    assertThat(lineMetrics.isLineOfCode(3)).isFalse();
+    assertThat(lineMetrics.isLineOfCode(6)).isFalse();
+  }
+
+  @Test
+  public void comment_lines_exclude_header_blank_lines_and_nosonar() {
+    LineMetricsVisitor lineMetrics = analyze("/*\n * header\n */\nclass A {\n  /**\n   *\n   * doc\n   */\n  int a; // NOSONAR\n  // comment\r\n  // comment\r}");
+    assertThat(lineMetrics.commentLines()).isEqualTo(3);
+    assertThat(lineMetrics.noSonarLines()).containsOnly(9);
+    for (int line : new int[] {1, 2, 3, 5, 6, 7, 8, 9, 10, 11}) {
+      assertThat(lineMetrics.isLineOfComment(line)).isTrue();
+    }
+    assertThat(lineMetrics.isLineOfComment(4)).isFalse();
+    assertThat(lineMetrics.isLineOfComment(12)).isFalse();
+  }
+
+  @Test
+  public void nosonar_tag_applies_to_its_own_comment_line() {
+    LineMetricsVisitor lineMetrics = analyze("class A {\n  /* first\n     NOSONAR\n     last */\n}");
+    assertThat(lineMetrics.noSonarLines()).containsOnly(3);
+    assertThat(lineMetrics.commentLines()).isEqualTo(2);
+  }
+
+  @Test
+  public void number_of_lines() {
+    assertThat(analyze("class A {}").lines()).isEqualTo(1);
+    assertThat(analyze("class A {}").linesOfText()).isEqualTo(1);
+    assertThat(analyze("class A {\n}\n").lines()).isEqualTo(3);
+    assertThat(analyze("class A {\n}\n").linesOfText()).isEqualTo(2);
+    assertThat(analyze("class A {\r\n}\r\n// end").linesOfText()).isEqualTo(3);
+  }
+
+  private LineMetricsVisitor analyze(String source) {
+    LineMetricsVisitor lineMetrics = new LineMetricsVisitor();
+    lineMetrics.analyze((CompilationUnitTree) p.parse(source));
+    return lineMetrics;
+  }
+
+}
@@ -57,7 +57,7 @@ public class SyntaxHighlighterVisitorTest {
   private final Highlightable highlightable = mock(Highlightable.class);
   private final HighlightingBuilderTester highlighting = spy(new HighlightingBuilderTester());
 
-  private final SyntaxHighlighterVisitor syntaxHighlighterVisitor = new SyntaxHighlighterVisitor(sonarComponents, Charsets.UTF_8);
+  private final SyntaxHighlighterVisitor syntaxHighlighterVisitor = new SyntaxHighlighterVisitor(sonarComponents);
 
   private List<String> lines;
   private String eol;
@@ -128,6 +128,14 @@ public class SyntaxHighlighterVisitorTest {
     assertThatHasBeenHighlighted(offset(18, 2), offset(18, 11), "k");
     assertThatHasBeenHighlighted(offset(19, 21), offset(19, 28), "k");
     assertThatHasBeenHighlighted(offset(19, 29), offset(19, 30), "c");
+    assertThatHasBeenHighlighted(offset(22, 1), offset(22, 7), "k");
+    assertThatHasBeenHighlighted(offset(22, 8), offset(22, 16), "k");
+    assertThatHasBeenHighlighted(offset(22, 17), offset(22, 22), "k");
+    assertThatHasBeenHighlighted(offset(23, 3), offset(23, 10), "k");
+    assertThatHasBeenHighlighted(offset(23, 11), offset(23, 17), "k");
+    assertThatHasBeenHighlighted(offset(23, 18), offset(23, 23), "k");
+    assertThatHasBeenHighlighted(offset(23, 24), offset(23, 27), "k");
+    assertThatHasBeenHighlighted(offset(23, 32), offset(23, 33), "c");
     assertThat(highlighting.done).isTrue();
     assertThat(highlighting.entries).isEmpty();
   }
@@ -0,0 +1,117 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * sonarqube@googlegroups.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.bytecode;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import org.sonar.java.bytecode.asm.AsmClass;
+import org.sonar.java.bytecode.asm.AsmMethod;
+
+import java.util.Collections;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class VirtualMethodsLinkerTest {
+
+  private static final String KEY = "run()V";
+
+  @Test
+  public void should_link_to_inherited_implementation() {
+    AsmClass base = asmClass(null);
+    AsmMethod implementation = method(base, true, false);
+    AsmClass middle = asmClass(base);
+    AsmClass leaf = asmClass(middle);
+    AsmMethod call = method(leaf, false, true);
+
+    new VirtualMethodsLinker().process(ImmutableList.of(leaf, middle, base));
+
+    verify(call).linkTo(implementation);
+    verify(implementation).setUsed(true);
+  }
+
+  @Test
+  public void should_not_link_unused_or_loaded_methods() {
+    AsmClass base = asmClass(null);
+    method(base, true, false);
+    AsmClass leaf = asmClass(base);
+    AsmMethod unused = method(leaf, false, false);
+
+    new VirtualMethodsLinker().process(ImmutableList.of(leaf));
+
+    verify(unused, never()).linkTo(any(AsmMethod.class));
+  }
+
+  @Test
+  public void should_resolve_hierarchy_once_per_method_key() {
+    AsmClass root = asmClass(null);
+    AsmMethod implementation = method(root, true, false);
+    AsmClass parent = root;
+    for (int i = 0; i < 100; i++) {
+      parent = asmClass(parent);
+    }
+    AsmClass leaf1 = asmClass(parent);
+    AsmMethod call1 = method(leaf1, false, true);
+    AsmClass leaf2 = asmClass(parent);
+    AsmMethod call2 = method(leaf2, false, true);
+
+    new VirtualMethodsLinker().process(ImmutableList.of(leaf1, leaf2));
+
+    verify(call1).linkTo(implementation);
+    verify(call2).linkTo(implementation);
+    verify(parent, times(1)).getMethod(KEY);
+    verify(root, times(1)).getMethod(KEY);
+  }
+
+  @Test
+  public void should_not_link_when_no_implementation() {
+    AsmClass leaf = asmClass(asmClass(null));
+    AsmMethod call = method(leaf, false, true);
+
+    VirtualMethodsLinker linker = new VirtualMethodsLinker();
+    linker.process(ImmutableList.of(leaf));
+    linker.process(call);
+
+    verify(call, never()).linkTo(any(AsmMethod.class));
+  }
+
+  private static AsmClass asmClass(AsmClass superClass) {
+    AsmClass asmClass = mock(AsmClass.class);
+    when(asmClass.getSuperClass()).thenReturn(superClass);
+    when(asmClass.getMethods()).thenReturn(Collections.<AsmMethod>emptyList());
+    return asmClass;
+  }
+
+  private static AsmMethod method(AsmClass parent, boolean bodyLoaded, boolean used) {
+    AsmMethod method = mock(AsmMethod.class);
+    when(method.getParent()).thenReturn(parent);
+    when(method.getKey()).thenReturn(KEY);
+    when(method.isBodyLoaded()).thenReturn(bodyLoaded);
+    when(method.isUsed()).thenReturn(used);
+    when(parent.getMethod(KEY)).thenReturn(method);
+    when(parent.getMethods()).thenReturn(Collections.singletonList(method));
+    return method;
+  }
+
+}
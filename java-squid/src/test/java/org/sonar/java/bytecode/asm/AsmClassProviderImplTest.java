@@ -93,6 +93,24 @@ public class AsmClassProviderImplTest {
     assertThat(parseIntMethod.getThrows()).hasSize(1);
   }
 
+  @Test
+  public void should_load_member_signatures_only_with_calls() {
+    AsmClass integerClass = asmClassProviderImpl.getClass("java/lang/Integer", DETAIL_LEVEL.STRUCTURE);
+    AsmMethod parseIntMethod = getParseIntMethod(integerClass.getMethods());
+    assertThat(parseIntMethod.getDistinctUsedAsmClasses()).containsOnly(new AsmClass("java/lang/NumberFormatException"));
+
+    integerClass = asmClassProviderImpl.getClass("java/lang/Integer", DETAIL_LEVEL.STRUCTURE_AND_CALLS);
+    parseIntMethod = getParseIntMethod(integerClass.getMethods());
+    assertThat(parseIntMethod.getDistinctUsedAsmClasses()).contains(new AsmClass("java/lang/String"), new AsmClass("java/lang/NumberFormatException"));
+  }
+
+  @Test
+  public void should_share_method_keys() {
+    AsmClass integerClass = asmClassProviderImpl.getClass("java/lang/Integer", DETAIL_LEVEL.STRUCTURE);
+    AsmClass longClass = asmClassProviderImpl.getClass("java/lang/Long", DETAIL_LEVEL.STRUCTURE);
+    assertThat(integerClass.getMethod("toString()Ljava/lang/String;").getKey()).isSameAs(longClass.getMethod("toString()Ljava/lang/String;").getKey());
+  }
+
   private static AsmMethod getParseIntMethod(Collection<AsmMethod> methods) {
     for (AsmMethod method : methods) {
       if ("parseInt(Ljava/lang/String;)I".equals(method.getKey())) {
@@ -0,0 +1,86 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * sonarqube@googlegroups.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.bytecode.asm;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class AsmMemberTableTest {
+
+  private final AsmClass asmClass = new AsmClass("org/sonar/Foo");
+  private final AsmMemberTable<AsmField> table = new AsmMemberTable<AsmField>();
+
+  @Test
+  public void empty_table() {
+    assertThat(table.size()).isEqualTo(0);
+    assertThat(table.get("field")).isNull();
+    assertThat(table.values()).isEmpty();
+  }
+
+  @Test
+  public void put_and_get() {
+    AsmField first = new AsmField(asmClass, "first");
+    AsmField second = new AsmField(asmClass, "second");
+    table.put("first", first);
+    table.put("second", second);
+    assertThat(table.get("first")).isSameAs(first);
+    assertThat(table.get("second")).isSameAs(second);
+    assertThat(table.get("third")).isNull();
+    assertThat(table.values()).containsExactly(first, second);
+  }
+
+  @Test
+  public void put_replaces_member_with_same_key() {
+    AsmField first = new AsmField(asmClass, "field");
+    AsmField second = new AsmField(asmClass, "field");
+    table.put("field", first);
+    table.put("field", second);
+    assertThat(table.size()).isEqualTo(1);
+    assertThat(table.get("field")).isSameAs(second);
+  }
+
+  @Test
+  public void should_grow_and_keep_insertion_order() {
+    for (int i = 0; i < 1000; i++) {
+      table.put("field" + i, new AsmField(asmClass, "field" + i));
+    }
+    assertThat(table.size()).isEqualTo(1000);
+    List<AsmField> values = table.values();
+    for (int i = 0; i < 1000; i++) {
+      assertThat(table.get("field" + i).getName()).isEqualTo("field" + i);
+      assertThat(values.get(i).getName()).isEqualTo("field" + i);
+    }
+  }
+
+  @Test
+  public void colliding_keys() {
+    // "Aa" and "BB" have the same hash code
+    AsmField aa = new AsmField(asmClass, "Aa");
+    AsmField bb = new AsmField(asmClass, "BB");
+    table.put("Aa", aa);
+    table.put("BB", bb);
+    assertThat(table.get("Aa")).isSameAs(aa);
+    assertThat(table.get("BB")).isSameAs(bb);
+  }
+
+}
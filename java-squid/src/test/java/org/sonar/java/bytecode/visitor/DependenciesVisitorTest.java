@@ -19,11 +19,27 @@
  */
 package org.sonar.java.bytecode.visitor;
 
+import com.google.common.collect.Maps;
 import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.sonar.api.design.Dependency;
+import org.sonar.api.resources.Directory;
+import org.sonar.api.resources.File;
+import org.sonar.api.resources.Resource;
 import org.sonar.graph.DirectedGraph;
+import org.sonar.java.bytecode.asm.AsmClass;
+import org.sonar.java.bytecode.asm.AsmEdge;
+import org.sonar.plugins.java.api.JavaResourceLocator;
+
+import java.util.Map;
 
 import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class DependenciesVisitorTest {
 
@@ -31,4 +47,83 @@ public class DependenciesVisitorTest {
   public void testName() throws Exception {
   }
 
+  @Test
+  public void synthetic_graph() {
+    checkSyntheticGraph(10, 10, 3);
+  }
+
+  /**
+   * Recording the file edges under package edges used to be quadratic in the number of file edges between two packages.
+   * No time is asserted, a regression shows as a test suite which suddenly takes much longer.
+   */
+  @Test
+  public void synthetic_graph_of_10k_classes() {
+    checkSyntheticGraph(100, 100, 5);
+  }
+
+  /**
+   * Synthetic graph of classes spread in packages, each class using classes of the next package, every edge being visited twice.
+   */
+  private static void checkSyntheticGraph(int packages, int classesPerPackage, int usedClasses) {
+    final Map<String, Resource> resourcesByClass = Maps.newHashMap();
+    ResourceMapping resourceMapping = new ResourceMapping();
+    AsmClass[][] classes = new AsmClass[packages][classesPerPackage];
+    for (int p = 0; p < packages; p++) {
+      for (int c = 0; c < classesPerPackage; c++) {
+        String internalName = "p" + p + "/C" + c;
+        File file = File.create(internalName + ".java");
+        resourcesByClass.put(internalName, file);
+        resourceMapping.addResource(file, internalName);
+        classes[p][c] = new AsmClass(internalName);
+      }
+    }
+    JavaResourceLocator javaResourceLocator = mock(JavaResourceLocator.class);
+    when(javaResourceLocator.getResourceMapping()).thenReturn(resourceMapping);
+    when(javaResourceLocator.findResourceByClassName(anyString())).thenAnswer(new Answer<Resource>() {
+      @Override
+      public Resource answer(InvocationOnMock invocation) throws Throwable {
+        return resourcesByClass.get(invocation.getArguments()[0]);
+      }
+    });
+    final AsmClass[] target = new AsmClass[1];
+    AsmEdge edge = mock(AsmEdge.class);
+    when(edge.getTargetAsmClass()).thenAnswer(new Answer<AsmClass>() {
+      @Override
+      public AsmClass answer(InvocationOnMock invocation) throws Throwable {
+        return target[0];
+      }
+    });
+
+    DirectedGraph<Resource, Dependency> graph = new DirectedGraph<>();
+    DependenciesVisitor visitor = new DependenciesVisitor(graph);
+    visitor.setJavaResourceLocator(javaResourceLocator);
+    for (int p = 0; p < packages; p++) {
+      for (int c = 0; c < classesPerPackage; c++) {
+        visitor.visitClass(classes[p][c]);
+        for (int visit = 0; visit < 2; visit++) {
+          for (int u = 0; u < usedClasses; u++) {
+            target[0] = classes[(p + 1) % packages][(c + u) % classesPerPackage];
+            visitor.visitEdge(edge);
+          }
+        }
+      }
+    }
+    visitor.buildGraph();
+
+    assertThat(resourceMapping.directories()).hasSize(packages);
+    assertThat(resourceMapping.directories()).isSameAs(resourceMapping.directories());
+    Directory firstPackage = (Directory) resourceMapping.directories().iterator().next();
+    assertThat(resourceMapping.files(firstPackage)).hasSize(classesPerPackage);
+    Dependency packageEdge = graph.getEdge(resourcesByClass.get("p0/C0").getParent(), resourcesByClass.get("p1/C0").getParent());
+    assertThat(resourceMapping.getSubDependencies(packageEdge)).hasSize(classesPerPackage * usedClasses);
+    assertThat(packageEdge.getWeight()).isEqualTo(1 + classesPerPackage * usedClasses);
+    // each class is resolved once, whatever the number of edges pointing to it
+    verify(javaResourceLocator, times(packages * classesPerPackage)).findResourceByClassName(anyString());
+
+    // classes are resolved again once the graph is built
+    visitor.visitClass(classes[0][0]);
+    visitor.buildGraph();
+    verify(javaResourceLocator, times(packages * classesPerPackage + 1)).findResourceByClassName(anyString());
+  }
+
 }
@@ -0,0 +1,88 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * sonarqube@googlegroups.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.collections;
+
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class IntervalSetTest {
+
+  @Test
+  public void empty_set() {
+    IntervalSet set = new IntervalSet();
+    assertThat(set.isEmpty()).isTrue();
+    assertThat(set.contains(0)).isFalse();
+    assertThat(set.cardinality()).isEqualTo(0);
+  }
+
+  @Test
+  public void contains_bounds_of_intervals() {
+    IntervalSet set = new IntervalSet();
+    set.add(10, 20);
+    set.add(30, 30);
+    assertThat(set.contains(9)).isFalse();
+    assertThat(set.contains(10)).isTrue();
+    assertThat(set.contains(20)).isTrue();
+    assertThat(set.contains(21)).isFalse();
+    assertThat(set.contains(30)).isTrue();
+    assertThat(set.contains(31)).isFalse();
+    assertThat(set.intervals()).isEqualTo(2);
+    assertThat(set.cardinality()).isEqualTo(12);
+  }
+
+  @Test
+  public void overlapping_and_adjacent_intervals_are_merged() {
+    IntervalSet set = new IntervalSet();
+    set.add(50, 60);
+    set.add(1, 2);
+    set.add(10, 20);
+    set.add(30, 40);
+    assertThat(set.toString()).isEqualTo("[1..2, 10..20, 30..40, 50..60]");
+    set.add(15, 35);
+    assertThat(set.toString()).isEqualTo("[1..2, 10..40, 50..60]");
+    set.add(41, 49);
+    assertThat(set.toString()).isEqualTo("[1..2, 10..60]");
+    set.add(3);
+    assertThat(set.toString()).isEqualTo("[1..3, 10..60]");
+    set.add(0, 100);
+    assertThat(set.toString()).isEqualTo("[0..100]");
+    assertThat(set.cardinality()).isEqualTo(101);
+  }
+
+  @Test
+  public void grows_beyond_initial_capacity() {
+    IntervalSet set = new IntervalSet();
+    for (int i = 100; i > 0; i--) {
+      set.add(i * 10);
+    }
+    assertThat(set.intervals()).isEqualTo(100);
+    assertThat(set.contains(500)).isTrue();
+    assertThat(set.contains(505)).isFalse();
+    set.clear();
+    assertThat(set.isEmpty()).isTrue();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void start_should_not_be_after_end() {
+    new IntervalSet().add(2, 1);
+  }
+
+}
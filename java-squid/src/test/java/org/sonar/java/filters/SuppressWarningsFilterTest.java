@@ -19,13 +19,15 @@
  */
 package org.sonar.java.filters;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Multimap;
+import com.google.common.collect.Maps;
 import org.junit.Before;
 import org.junit.Test;
 import org.sonar.api.issue.Issue;
 import org.sonar.api.issue.batch.IssueFilterChain;
 import org.sonar.api.rule.RuleKey;
+import org.sonar.java.collections.IntervalSet;
+
+import java.util.Map;
 
 import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertTrue;
@@ -50,7 +52,7 @@ public class SuppressWarningsFilterTest {
     when(issue.componentKey()).thenReturn(COMPONENT_KEY);
     when(issue.ruleKey()).thenReturn(RuleKey.of("squid", "firstIssue"));
 
-    Multimap<Integer, String> suppressWarningLines = HashMultimap.create();
+    Map<String, IntervalSet> suppressWarningLines = Maps.newHashMap();
     addWarning(suppressWarningLines, "squid:secondIssue", 12, 16);
 
     filter.addComponent(COMPONENT_KEY, suppressWarningLines);
@@ -72,7 +74,7 @@ public class SuppressWarningsFilterTest {
     when(issue.componentKey()).thenReturn(COMPONENT_KEY + "2");
     when(issue.ruleKey()).thenReturn(RuleKey.of("squid", "firstIssue"));
 
-    Multimap<Integer, String> suppressWarningLines = HashMultimap.create();
+    Map<String, IntervalSet> suppressWarningLines = Maps.newHashMap();
     addWarning(suppressWarningLines, "squid:secondIssue", 12, 16);
 
     filter.addComponent(COMPONENT_KEY, suppressWarningLines);
@@ -92,7 +94,7 @@ public class SuppressWarningsFilterTest {
     when(issue.componentKey()).thenReturn(COMPONENT_KEY);
     when(issue.ruleKey()).thenReturn(RuleKey.of("pmd", "CloseResource"));
 
-    Multimap<Integer, String> suppressWarningLines = HashMultimap.create();
+    Map<String, IntervalSet> suppressWarningLines = Maps.newHashMap();
     addWarning(suppressWarningLines, "pmd:CloseResource", 12, 16);
 
     filter.addComponent(COMPONENT_KEY, suppressWarningLines);
@@ -110,7 +112,7 @@ public class SuppressWarningsFilterTest {
     when(issue.componentKey()).thenReturn(COMPONENT_KEY);
     when(issue.ruleKey()).thenReturn(RuleKey.of("pmd", "CloseResource"));
 
-    Multimap<Integer, String> suppressWarningLines = HashMultimap.create();
+    Map<String, IntervalSet> suppressWarningLines = Maps.newHashMap();
     addWarning(suppressWarningLines, "pmd:OtherIssue", 12, 16);
 
     filter.addComponent(COMPONENT_KEY, suppressWarningLines);
@@ -126,7 +128,7 @@ public class SuppressWarningsFilterTest {
     when(issue.componentKey()).thenReturn(COMPONENT_KEY);
     when(issue.ruleKey()).thenReturn(RuleKey.of("squid", "S1309"));
 
-    Multimap<Integer, String> suppressWarningLines = HashMultimap.create();
+    Map<String, IntervalSet> suppressWarningLines = Maps.newHashMap();
     addWarning(suppressWarningLines, "all", 12, 16);
 
     filter.addComponent(COMPONENT_KEY, suppressWarningLines);
@@ -142,7 +144,7 @@ public class SuppressWarningsFilterTest {
     when(issue.componentKey()).thenReturn(COMPONENT_KEY);
     when(issue.ruleKey()).thenReturn(RuleKey.of("squid", "S1309"));
 
-    Multimap<Integer, String> suppressWarningLines = HashMultimap.create();
+    Map<String, IntervalSet> suppressWarningLines = Maps.newHashMap();
     addWarning(suppressWarningLines, "unchecked", 12, 16);
     addWarning(suppressWarningLines, "cast", 13, 15);
 
@@ -162,7 +164,7 @@ public class SuppressWarningsFilterTest {
     when(issue.componentKey()).thenReturn(COMPONENT_KEY);
     when(issue.ruleKey()).thenReturn(RuleKey.of("squid", "firstIssue"));
 
-    Multimap<Integer, String> suppressWarningLines = HashMultimap.create();
+    Map<String, IntervalSet> suppressWarningLines = Maps.newHashMap();
     addWarning(suppressWarningLines, "all", 12, 16);
 
     filter.addComponent(COMPONENT_KEY, suppressWarningLines);
@@ -171,9 +173,9 @@ public class SuppressWarningsFilterTest {
     assertFalse(filter.accept(issue, chain));
   }
 
-  private void addWarning(Multimap<Integer, String> multimap, String warning, int startLine, int endLine) {
-    for (int i = startLine; i <= endLine; i++) {
-      multimap.put(i, warning);
-    }
+  private void addWarning(Map<String, IntervalSet> warningLines, String warning, int startLine, int endLine) {
+    IntervalSet lines = new IntervalSet();
+    lines.add(startLine, endLine);
+    warningLines.put(warning, lines);
   }
 }
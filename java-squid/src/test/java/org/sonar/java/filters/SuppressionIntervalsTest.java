@@ -0,0 +1,92 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * sonarqube@googlegroups.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.filters;
+
+import com.google.common.collect.Maps;
+import org.junit.Test;
+import org.sonar.api.rule.RuleKey;
+import org.sonar.java.collections.IntervalSet;
+
+import java.util.Map;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class SuppressionIntervalsTest {
+
+  private static final RuleKey RULE = RuleKey.of("squid", "S00100");
+  private static final RuleKey OTHER_RULE = RuleKey.of("squid", "S00101");
+
+  @Test
+  public void unknown_warnings_are_dropped() {
+    Map<String, IntervalSet> warningLines = Maps.newHashMap();
+    warningLines.put("unchecked", lines(1, 100));
+    assertThat(SuppressionIntervals.create(warningLines).isEmpty()).isTrue();
+  }
+
+  @Test
+  public void nested_and_overlapping_intervals() {
+    Map<String, IntervalSet> warningLines = Maps.newHashMap();
+    // class from 1 to 1000, with suppressed methods inside
+    warningLines.put("squid:S00100", lines(1, 1000));
+    IntervalSet otherRuleLines = lines(10, 20);
+    otherRuleLines.add(500, 600);
+    otherRuleLines.add(990, 1200);
+    warningLines.put("squid:S00101", otherRuleLines);
+    warningLines.put("all", lines(1500, 1510));
+    SuppressionIntervals suppressions = SuppressionIntervals.create(warningLines);
+
+    assertThat(suppressions.suppresses(1, RULE)).isTrue();
+    assertThat(suppressions.suppresses(1000, RULE)).isTrue();
+    assertThat(suppressions.suppresses(1001, RULE)).isFalse();
+
+    assertThat(suppressions.suppresses(9, OTHER_RULE)).isFalse();
+    assertThat(suppressions.suppresses(15, OTHER_RULE)).isTrue();
+    assertThat(suppressions.suppresses(300, OTHER_RULE)).isFalse();
+    assertThat(suppressions.suppresses(600, OTHER_RULE)).isTrue();
+    assertThat(suppressions.suppresses(1200, OTHER_RULE)).isTrue();
+    assertThat(suppressions.suppresses(1201, OTHER_RULE)).isFalse();
+
+    assertThat(suppressions.suppresses(1505, RULE)).isTrue();
+    assertThat(suppressions.suppresses(1505, OTHER_RULE)).isTrue();
+    assertThat(suppressions.suppresses(1511, RULE)).isFalse();
+  }
+
+  @Test
+  public void many_intervals() {
+    Map<String, IntervalSet> warningLines = Maps.newHashMap();
+    IntervalSet ruleLines = new IntervalSet();
+    for (int i = 0; i < 1000; i++) {
+      ruleLines.add(i * 10, i * 10 + 5);
+    }
+    warningLines.put("squid:S00100", ruleLines);
+    SuppressionIntervals suppressions = SuppressionIntervals.create(warningLines);
+    for (int line = 0; line < 10000; line++) {
+      assertThat(suppressions.suppresses(line, RULE)).isEqualTo(line % 10 <= 5);
+      assertThat(suppressions.suppresses(line, OTHER_RULE)).isFalse();
+    }
+  }
+
+  private static IntervalSet lines(int start, int end) {
+    IntervalSet lines = new IntervalSet();
+    lines.add(start, end);
+    return lines;
+  }
+
+}
@@ -20,15 +20,25 @@
 package org.sonar.java.model;
 
 import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
 import org.junit.Test;
+import org.sonar.check.Rule;
 import org.sonar.java.ast.parser.JavaParser;
+import org.sonar.java.ast.visitors.InterruptibleTreeVisitor;
 import org.sonar.java.ast.visitors.VisitorContext;
+import org.sonar.java.monitoring.AnalysisMetrics;
+import org.sonar.java.monitoring.CheckTimeBudget;
+import org.sonar.java.monitoring.Interruptible;
 import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.MethodTree;
 import org.sonar.squidbridge.api.SourceProject;
 
+import javax.annotation.Nullable;
 import java.io.File;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
 
 import static org.fest.assertions.Assertions.assertThat;
 
@@ -62,6 +72,133 @@ public class VisitorsBridgeTest {
     checkFile(contstructFileName("src", "foo", "bar", "java", "lang", "someFile.java"), "package foo.bar.java.lang; class A{}", visitorsBridgeWithSemantic);
   }
 
+  @Test
+  public void should_record_metrics_of_each_check() {
+    JavaFileScanner scanner = new JavaFileScanner() {
+      @Override
+      public void scanFile(JavaFileScannerContext context) {
+        // nothing to do
+      }
+    };
+    VisitorsBridge visitorsBridge = new VisitorsBridge(scanner);
+    AnalysisMetrics metrics = new AnalysisMetrics();
+    visitorsBridge.setMetrics(metrics);
+    visitorsBridge.setContext(context);
+    File file = new File("src/foo/A.java");
+    checkFile(file.getPath(), "package foo; class A {}", visitorsBridge);
+
+    assertThat(metrics.check(scanner.getClass().getName()).count()).isEqualTo(1);
+    assertThat(metrics.check(scanner.getClass().getName()).slowestFile()).isEqualTo(file);
+    assertThat(metrics.file(file).phases().keySet()).containsOnly(AnalysisMetrics.SEMANTIC, AnalysisMetrics.CHECKS);
+  }
+
+  @Test
+  public void should_abort_check_exceeding_time_budget() {
+    JavaFileScanner endlessScanner = new EndlessCheck();
+    final boolean[] nextScannerCalled = {false};
+    JavaFileScanner nextScanner = new JavaFileScanner() {
+      @Override
+      public void scanFile(JavaFileScannerContext context) {
+        nextScannerCalled[0] = true;
+      }
+    };
+    VisitorsBridge visitorsBridge = new VisitorsBridge(Arrays.asList(endlessScanner, nextScanner), Lists.<File>newArrayList(), null);
+    AnalysisMetrics metrics = new AnalysisMetrics();
+    visitorsBridge.setMetrics(metrics);
+    CheckTimeBudget budget = new CheckTimeBudget(10);
+    visitorsBridge.setCheckTimeBudget(budget);
+    visitorsBridge.setContext(context);
+    try {
+      checkFile("A.java", "class A {}", visitorsBridge);
+    } finally {
+      budget.close();
+    }
+
+    assertThat(nextScannerCalled[0]).isTrue();
+    assertThat(metrics.check(endlessScanner.getClass().getName()).abortedFiles()).isEqualTo(1);
+    assertThat(metrics.check(nextScanner.getClass().getName()).abortedFiles()).isEqualTo(0);
+  }
+
+  @Test
+  public void should_abort_tree_visitor_check_exceeding_time_budget() {
+    SlowMethodCheck slowCheck = new SlowMethodCheck();
+    VisitorsBridge visitorsBridge = new VisitorsBridge(slowCheck);
+    AnalysisMetrics metrics = AnalysisMetrics.checksOnly();
+    visitorsBridge.setMetrics(metrics);
+    CheckTimeBudget budget = new CheckTimeBudget(10);
+    visitorsBridge.setCheckTimeBudget(budget);
+    visitorsBridge.setContext(context);
+    try {
+      checkFile("A.java", largeClass(200), visitorsBridge);
+    } finally {
+      budget.close();
+    }
+
+    assertThat(slowCheck.visitedMethods).isLessThan(200);
+    assertThat(metrics.check(SlowMethodCheck.class.getName()).abortedFiles()).isEqualTo(1);
+    assertThat(metrics.check(SlowMethodCheck.class.getName()).nanos()).isGreaterThan(0);
+  }
+
+  @Test
+  public void should_not_apply_time_budget_to_scanners_which_are_not_rules() {
+    final boolean[] completed = {false};
+    JavaFileScanner slowScanner = new JavaFileScanner() {
+      @Override
+      public void scanFile(JavaFileScannerContext context) {
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50);
+        while (System.nanoTime() < end) {
+          // busy wait
+        }
+        completed[0] = true;
+      }
+    };
+    VisitorsBridge visitorsBridge = new VisitorsBridge(slowScanner);
+    AnalysisMetrics metrics = new AnalysisMetrics();
+    visitorsBridge.setMetrics(metrics);
+    CheckTimeBudget budget = new CheckTimeBudget(10);
+    visitorsBridge.setCheckTimeBudget(budget);
+    visitorsBridge.setContext(context);
+    try {
+      checkFile("A.java", "class A {}", visitorsBridge);
+    } finally {
+      budget.close();
+    }
+
+    assertThat(completed[0]).isTrue();
+    assertThat(metrics.check(slowScanner.getClass().getName()).abortedFiles()).isEqualTo(0);
+  }
+
+  @Test
+  public void should_run_checks_without_semantic_model_when_semantic_analysis_exceeds_time_budget() {
+    final Object[] semanticModel = {"not called"};
+    VisitorsBridge visitorsBridge = new VisitorsBridge(new JavaFileScanner() {
+      @Override
+      public void scanFile(JavaFileScannerContext context) {
+        semanticModel[0] = context.getSemanticModel();
+      }
+    });
+    CheckTimeBudget budget = new CheckTimeBudget(1);
+    visitorsBridge.setSemanticTimeBudget(budget);
+    visitorsBridge.setContext(context);
+    try {
+      checkFile("A.java", largeClass(5000), visitorsBridge);
+    } finally {
+      budget.close();
+    }
+
+    assertThat(semanticModel[0]).isNull();
+    // the budget is no longer running once the file is analyzed
+    budget.checkNotExceeded();
+  }
+
+  private static String largeClass(int methodCount) {
+    StringBuilder sb = new StringBuilder("class A {\n");
+    for (int i = 0; i < methodCount; i++) {
+      sb.append("  int m").append(i).append("(int a) { int b = a + ").append(i).append("; return b > 0 ? m").append(i).append("(b - 1) : b; }\n");
+    }
+    return sb.append("}\n").toString();
+  }
+
   private void checkFile(String filename, String code, VisitorsBridge visitorsBridge) {
     context.setFile(new File(filename));
     visitorsBridge.visitFile(parse(code));
@@ -79,4 +216,41 @@ public class VisitorsBridgeTest {
     return (CompilationUnitTree) JavaParser.createParser(Charsets.UTF_8).parse(code);
   }
 
+  @Rule(key = "endless")
+  private static class EndlessCheck implements JavaFileScanner, Interruptible {
+    private CheckTimeBudget timeBudget;
+
+    @Override
+    public void setTimeBudget(@Nullable CheckTimeBudget timeBudget) {
+      this.timeBudget = timeBudget;
+    }
+
+    @Override
+    public void scanFile(JavaFileScannerContext context) {
+      while (true) {
+        timeBudget.checkNotExceeded();
+      }
+    }
+  }
+
+  @Rule(key = "slow")
+  private static class SlowMethodCheck extends InterruptibleTreeVisitor implements JavaFileScanner {
+    private int visitedMethods = 0;
+
+    @Override
+    public void scanFile(JavaFileScannerContext context) {
+      scan(context.getTree());
+    }
+
+    @Override
+    public void visitMethod(MethodTree tree) {
+      visitedMethods++;
+      long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(1);
+      while (System.nanoTime() < end) {
+        // busy wait
+      }
+      super.visitMethod(tree);
+    }
+  }
+
 }
@@ -0,0 +1,79 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * sonarqube@googlegroups.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.monitoring;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class AnalysisMetricsReportTest {
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  @Test
+  public void empty_report() {
+    assertThat(AnalysisMetricsReport.serialize(new AnalysisMetrics(), 10))
+      .startsWith("{\"files\":0,\"allocationTracked\":")
+      .endsWith(",\"phases\":{},\"slowestFiles\":[],\"slowestChecks\":[]}");
+  }
+
+  @Test
+  public void should_serialize_files_and_checks() {
+    AnalysisMetrics metrics = new AnalysisMetrics();
+    File file = new File("dir\\\"A\".java");
+    metrics.record(file, AnalysisMetrics.PARSE, metrics.start());
+    metrics.recordCheck("org.Check", file, metrics.start());
+
+    String json = AnalysisMetricsReport.serialize(metrics, 10);
+    assertThat(json).contains("\"phases\":{\"parse\":{\"count\":1,\"timeMs\":");
+    assertThat(json).contains("\"slowestFiles\":[{\"file\":\"dir\\\\\\\"A\\\".java\",\"timeMs\":");
+    assertThat(json).contains("\"slowestChecks\":[{\"check\":\"org.Check\",\"timeMs\":");
+    assertThat(json).contains("\"slowestFile\":\"dir\\\\\\\"A\\\".java\",\"slowestFileTimeMs\":");
+  }
+
+  @Test
+  public void checks_summary() {
+    AnalysisMetrics metrics = new AnalysisMetrics();
+    metrics.recordCheck("org.Check", new File("A.java"), metrics.start());
+    metrics.recordCheck("org.Check", new File("B.java"), metrics.start());
+    metrics.recordAbortedCheck("org.Check");
+
+    String[] lines = AnalysisMetricsReport.checksSummary(metrics, 10).split("\n");
+    assertThat(lines).hasSize(2);
+    assertThat(lines[0]).contains("Time (ms)").contains("Aborted").endsWith("Check");
+    assertThat(lines[1]).matches(" *[0-9.]+ +2 +1  org.Check");
+  }
+
+  @Test
+  public void should_write_report_in_work_directory() throws Exception {
+    File workDir = temp.newFolder();
+    AnalysisMetricsReport.write(new AnalysisMetrics(), workDir);
+    File report = new File(workDir, AnalysisMetricsReport.FILE_NAME);
+    assertThat(Files.toString(report, Charsets.UTF_8)).startsWith("{\"files\":0");
+  }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * sonarqube@googlegroups.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.monitoring;
+
+import org.junit.Test;
+
+import java.io.File;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class AnalysisMetricsTest {
+
+  private final AnalysisMetrics metrics = new AnalysisMetrics();
+
+  @Test
+  public void should_aggregate_file_phases() {
+    File file = new File("A.java");
+    metrics.record(file, AnalysisMetrics.PARSE, metrics.start());
+    metrics.record(file, AnalysisMetrics.CHECKS, metrics.start());
+    metrics.record(new File("B.java"), AnalysisMetrics.PARSE, metrics.start());
+
+    assertThat(metrics.fileCount()).isEqualTo(2);
+    assertThat(metrics.phases().keySet()).containsOnly(AnalysisMetrics.PARSE, AnalysisMetrics.CHECKS);
+    assertThat(metrics.phases().get(AnalysisMetrics.PARSE).count()).isEqualTo(2);
+    assertThat(metrics.file(file).phases().keySet()).containsOnly(AnalysisMetrics.PARSE, AnalysisMetrics.CHECKS);
+    assertThat(metrics.file(new File("C.java"))).isNull();
+  }
+
+  @Test
+  public void should_record_project_phases() {
+    metrics.record(AnalysisMetrics.BYTECODE_LOAD, metrics.start());
+    assertThat(metrics.phases().get(AnalysisMetrics.BYTECODE_LOAD).count()).isEqualTo(1);
+    assertThat(metrics.fileCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void should_keep_slowest_file_of_check() throws Exception {
+    File fast = new File("Fast.java");
+    File slow = new File("Slow.java");
+    metrics.recordCheck("check", fast, metrics.start());
+    AnalysisMetrics.Probe probe = metrics.start();
+    Thread.sleep(5);
+    long nanos = metrics.recordCheck("check", slow, probe);
+
+    AnalysisMetrics.CheckTiming check = metrics.check("check");
+    assertThat(check.count()).isEqualTo(2);
+    assertThat(check.slowestFile()).isEqualTo(slow);
+    assertThat(check.slowestFileNanos()).isEqualTo(nanos);
+    assertThat(check.nanos()).isGreaterThanOrEqualTo(nanos);
+    assertThat(metrics.check("other")).isNull();
+  }
+
+  @Test
+  public void should_sort_slowest_first() throws Exception {
+    File fast = new File("Fast.java");
+    File slow = new File("Slow.java");
+    metrics.record(fast, AnalysisMetrics.PARSE, metrics.start());
+    AnalysisMetrics.Probe probe = metrics.start();
+    Thread.sleep(5);
+    metrics.record(slow, AnalysisMetrics.PARSE, probe);
+
+    assertThat(metrics.slowestFiles(1)).hasSize(1);
+    assertThat(metrics.slowestFiles(1).get(0).file()).isEqualTo(slow);
+    assertThat(metrics.slowestFiles(10)).hasSize(2);
+    assertThat(metrics.slowestChecks(10)).isEmpty();
+  }
+
+  @Test
+  public void should_only_keep_slowest_files() throws Exception {
+    AnalysisMetrics bounded = new AnalysisMetrics(1);
+    File slow = new File("Slow.java");
+    AnalysisMetrics.Probe probe = bounded.start();
+    Thread.sleep(5);
+    bounded.record(slow, AnalysisMetrics.PARSE, probe);
+    bounded.record(new File("Fast1.java"), AnalysisMetrics.PARSE, bounded.start());
+    bounded.record(new File("Fast2.java"), AnalysisMetrics.PARSE, bounded.start());
+
+    assertThat(bounded.fileCount()).isEqualTo(3);
+    assertThat(bounded.slowestFiles(10)).hasSize(1);
+    assertThat(bounded.slowestFiles(10).get(0).file()).isEqualTo(slow);
+    assertThat(bounded.file(new File("Fast1.java"))).isNull();
+    assertThat(bounded.phases().get(AnalysisMetrics.PARSE).count()).isEqualTo(3);
+  }
+
+  @Test
+  public void disabled_metrics_record_nothing() {
+    AnalysisMetrics disabled = AnalysisMetrics.disabled();
+    File file = new File("A.java");
+    disabled.record(file, AnalysisMetrics.PARSE, disabled.start());
+    disabled.record(AnalysisMetrics.BYTECODE_LOAD, disabled.start());
+    assertThat(disabled.recordCheck("check", file, disabled.start())).isEqualTo(0);
+
+    assertThat(disabled.isEnabled()).isFalse();
+    assertThat(disabled.fileCount()).isEqualTo(0);
+    assertThat(disabled.phases()).isEmpty();
+    assertThat(disabled.check("check")).isNull();
+    assertThat(metrics.isEnabled()).isTrue();
+  }
+
+  @Test
+  public void checks_only_metrics_only_record_time_of_checks() throws Exception {
+    AnalysisMetrics checksOnly = AnalysisMetrics.checksOnly();
+    File file = new File("A.java");
+    checksOnly.record(file, AnalysisMetrics.PARSE, checksOnly.start());
+    checksOnly.record(AnalysisMetrics.BYTECODE_LOAD, checksOnly.start());
+    AnalysisMetrics.Probe probe = checksOnly.start();
+    Thread.sleep(1);
+    assertThat(checksOnly.recordCheck("check", file, probe)).isGreaterThan(0);
+
+    assertThat(checksOnly.isEnabled()).isFalse();
+    assertThat(checksOnly.fileCount()).isEqualTo(0);
+    assertThat(checksOnly.phases()).isEmpty();
+    assertThat(checksOnly.check("check").count()).isEqualTo(1);
+    assertThat(checksOnly.check("check").allocatedBytes()).isEqualTo(0);
+    assertThat(checksOnly.check("check").slowestFile()).isEqualTo(file);
+  }
+
+  @Test
+  public void allocated_bytes_are_never_negative() {
+    metrics.record(AnalysisMetrics.PARSE, metrics.start());
+    assertThat(metrics.phases().get(AnalysisMetrics.PARSE).allocatedBytes()).isGreaterThanOrEqualTo(0);
+    if (!metrics.isAllocationTracked()) {
+      assertThat(metrics.phases().get(AnalysisMetrics.PARSE).allocatedBytes()).isEqualTo(0);
+    }
+  }
+
+}
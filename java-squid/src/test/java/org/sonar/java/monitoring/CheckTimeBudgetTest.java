@@ -0,0 +1,104 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * sonarqube@googlegroups.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.monitoring;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.fest.assertions.Fail.fail;
+
+public class CheckTimeBudgetTest {
+
+  private final CheckTimeBudget budget = new CheckTimeBudget(1);
+
+  @After
+  public void close() {
+    budget.close();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void budget_should_be_positive() {
+    new CheckTimeBudget(0);
+  }
+
+  @Test
+  public void should_not_abort_check_within_budget() {
+    CheckTimeBudget largeBudget = new CheckTimeBudget(60000);
+    try {
+      largeBudget.start();
+      largeBudget.checkNotExceeded();
+      assertThat(largeBudget.stop()).isFalse();
+    } finally {
+      largeBudget.close();
+    }
+  }
+
+  @Test
+  public void should_abort_check_exceeding_budget() {
+    budget.start();
+    try {
+      waitForAbort(budget);
+    } finally {
+      assertThat(budget.stop()).isTrue();
+    }
+    // the next check starts with a clean state
+    budget.checkNotExceeded();
+    budget.start();
+    assertThat(budget.stop()).isFalse();
+  }
+
+  @Test
+  public void stopped_budget_should_not_abort_later() throws Exception {
+    budget.start();
+    budget.stop();
+    Thread.sleep(50);
+    budget.checkNotExceeded();
+    assertThat(budget.stop()).isFalse();
+  }
+
+  @Test
+  public void exceeded_budget_should_not_abort_other_budgets() {
+    CheckTimeBudget largeBudget = new CheckTimeBudget(60000);
+    try {
+      largeBudget.start();
+      budget.start();
+      waitForAbort(budget);
+      largeBudget.checkNotExceeded();
+      assertThat(budget.stop()).isTrue();
+      assertThat(largeBudget.stop()).isFalse();
+    } finally {
+      largeBudget.close();
+    }
+  }
+
+  private static void waitForAbort(CheckTimeBudget budget) {
+    long end = System.currentTimeMillis() + 10000;
+    while (System.currentTimeMillis() < end) {
+      try {
+        budget.checkNotExceeded();
+      } catch (CheckTimeBudget.ExceededException e) {
+        return;
+      }
+    }
+    fail("Check should have been aborted");
+  }
+
+}
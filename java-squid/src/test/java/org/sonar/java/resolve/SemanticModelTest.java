@@ -0,0 +1,62 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * sonarqube@googlegroups.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.resolve;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import org.junit.Test;
+import org.sonar.java.ast.parser.JavaParser;
+import org.sonar.java.model.JavaTree;
+import org.sonar.plugins.java.api.tree.ClassTree;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.ExpressionStatementTree;
+import org.sonar.plugins.java.api.tree.MethodInvocationTree;
+import org.sonar.plugins.java.api.tree.MethodTree;
+import org.sonar.plugins.java.api.tree.Tree;
+
+import java.io.File;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class SemanticModelTest {
+
+  @Test
+  public void parents_are_linked_on_trees() {
+    CompilationUnitTree cut = (CompilationUnitTree) JavaParser.createParser(Charsets.UTF_8).parse("class A { void f() { g(1); } void g(int i) {} }");
+    assertThat(((JavaTree) cut.types().get(0)).getParent()).isNull();
+
+    SemanticModel semanticModel = SemanticModel.createFor(cut, Lists.<File>newArrayList());
+    ClassTree classTree = (ClassTree) cut.types().get(0);
+    MethodTree method = (MethodTree) classTree.members().get(0);
+    MethodInvocationTree invocation = (MethodInvocationTree) ((ExpressionStatementTree) method.block().body().get(0)).expression();
+
+    assertThat(((JavaTree) cut).getParent()).isNull();
+    assertThat(((JavaTree) classTree).getParent()).isSameAs(cut);
+    Tree tree = invocation.arguments().get(0);
+    int depth = 0;
+    while (tree != cut) {
+      tree = ((JavaTree) tree).getParent();
+      depth++;
+    }
+    assertThat(depth).isGreaterThan(4);
+    assertThat(semanticModel.getEnv(invocation.arguments().get(0))).isSameAs(semanticModel.getEnv(method.block()));
+  }
+
+}
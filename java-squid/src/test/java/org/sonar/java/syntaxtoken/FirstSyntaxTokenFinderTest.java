@@ -22,6 +22,8 @@ package org.sonar.java.syntaxtoken;
 import com.google.common.base.Charsets;
 import org.junit.Test;
 import org.sonar.java.ast.parser.JavaParser;
+import org.sonar.java.model.InternalSyntaxToken;
+import org.sonar.java.model.JavaTree;
 import org.sonar.plugins.java.api.tree.ClassTree;
 import org.sonar.plugins.java.api.tree.CompilationUnitTree;
 import org.sonar.plugins.java.api.tree.ExpressionStatementTree;
@@ -40,6 +42,24 @@ import static org.fest.assertions.Assertions.assertThat;
 
 public class FirstSyntaxTokenFinderTest {
 
+  @Test
+  public void token_is_kept_on_tree() {
+    JavaTree classTree = (JavaTree) getFirstClass(getCompilationUnit("class Test {}"));
+    SyntaxToken firstToken = classTree.firstToken();
+    assertThat(firstToken.text()).isEqualTo("class");
+    assertThat(classTree.firstToken()).isSameAs(firstToken);
+    assertThat(FirstSyntaxTokenFinder.firstSyntaxToken(classTree)).isSameAs(firstToken);
+    assertThat(FirstSyntaxTokenFinder.find(classTree)).isSameAs(firstToken);
+  }
+
+  @Test
+  public void token_is_its_own_first_token() {
+    ClassTree classTree = getFirstClass(getCompilationUnit("class Test {}"));
+    InternalSyntaxToken token = (InternalSyntaxToken) classTree.openBraceToken();
+    assertThat(token.firstToken()).isSameAs(token);
+    assertThat(FirstSyntaxTokenFinder.firstSyntaxToken(token)).isSameAs(token);
+  }
+
   @Test
   public void compilationUnit() {
     CompilationUnitTree compilationUnit = getCompilationUnit("class Test {}");
@@ -23,6 +23,7 @@ import com.google.common.base.Charsets;
 import org.junit.Test;
 import org.sonar.java.ast.parser.JavaParser;
 import org.sonar.java.model.InternalSyntaxToken;
+import org.sonar.java.model.JavaTree;
 import org.sonar.plugins.java.api.tree.CaseGroupTree;
 import org.sonar.plugins.java.api.tree.ClassTree;
 import org.sonar.plugins.java.api.tree.CompilationUnitTree;
@@ -40,6 +41,24 @@ import static org.fest.assertions.Assertions.assertThat;
 
 public class LastSyntaxTokenFinderTest {
 
+  @Test
+  public void token_is_kept_on_tree() {
+    JavaTree classTree = (JavaTree) getFirstClass(getCompilationUnit("class Test {}"));
+    SyntaxToken lastToken = classTree.lastToken();
+    assertThat(lastToken.text()).isEqualTo("}");
+    assertThat(classTree.lastToken()).isSameAs(lastToken);
+    assertThat(LastSyntaxTokenFinder.lastSyntaxToken(classTree)).isSameAs(lastToken);
+    assertThat(LastSyntaxTokenFinder.find(classTree)).isSameAs(lastToken);
+  }
+
+  @Test
+  public void token_is_its_own_last_token() {
+    ClassTree classTree = getFirstClass(getCompilationUnit("class Test {}"));
+    InternalSyntaxToken token = (InternalSyntaxToken) classTree.openBraceToken();
+    assertThat(token.lastToken()).isSameAs(token);
+    assertThat(LastSyntaxTokenFinder.lastSyntaxToken(token)).isSameAs(token);
+  }
+
   @Test
   public void compilationUnit() {
     CompilationUnitTree compilationUnit = getCompilationUnit("class Test {}");
@@ -21,6 +21,7 @@ package org.sonar.plugins.surefire;
 
 import com.google.common.collect.ImmutableList;
 import org.sonar.api.CoreProperties;
+import org.sonar.api.PropertyType;
 import org.sonar.api.config.PropertyDefinition;
 import org.sonar.api.resources.Qualifiers;
 import org.sonar.plugins.surefire.api.SurefireUtils;
@@ -41,6 +42,26 @@ public final class SurefireExtensions {
             .category(CoreProperties.CATEGORY_JAVA)
             .subCategory("JUnit")
             .build(),
+        PropertyDefinition.builder(SurefireUtils.STACK_TRACE_MAX_LENGTH_PROPERTY)
+            .name("Maximum length of stack traces")
+            .description("Maximum number of characters of a failing test stack trace that are kept, longer stack traces are truncated. " +
+              "Set to 0 to keep stack traces whatever their length.")
+            .defaultValue(String.valueOf(SurefireUtils.STACK_TRACE_MAX_LENGTH_DEFAULT_VALUE))
+            .type(PropertyType.INTEGER)
+            .onQualifiers(Qualifiers.PROJECT)
+            .category(CoreProperties.CATEGORY_JAVA)
+            .subCategory("JUnit")
+            .build(),
+        PropertyDefinition.builder(SurefireUtils.CAPTURE_STACK_TRACES_PROPERTY)
+            .name("Capture stack traces")
+            .description("Whether the stack traces of failing tests are read from the JUnit reports. " +
+              "When disabled, only the message of failures and errors is kept, which speeds up the import of large reports.")
+            .defaultValue("true")
+            .type(PropertyType.BOOLEAN)
+            .onQualifiers(Qualifiers.PROJECT)
+            .category(CoreProperties.CATEGORY_JAVA)
+            .subCategory("JUnit")
+            .build(),
 
         SurefireSensor.class,
         SurefireJavaParser.class);
@@ -19,12 +19,16 @@
  */
 package org.sonar.plugins.surefire;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.BatchExtension;
 import org.sonar.api.batch.SensorContext;
 import org.sonar.api.component.ResourcePerspectives;
+import org.sonar.api.config.Settings;
 import org.sonar.api.measures.CoreMetrics;
 import org.sonar.api.measures.Metric;
 import org.sonar.api.resources.Resource;
@@ -34,6 +38,7 @@ import org.sonar.api.utils.ParsingUtils;
 import org.sonar.api.utils.SonarException;
 import org.sonar.api.utils.StaxParser;
 import org.sonar.plugins.java.api.JavaResourceLocator;
+import org.sonar.plugins.surefire.api.SurefireUtils;
 import org.sonar.plugins.surefire.data.SurefireStaxHandler;
 import org.sonar.plugins.surefire.data.UnitTestClassReport;
 import org.sonar.plugins.surefire.data.UnitTestIndex;
@@ -42,7 +47,13 @@ import org.sonar.plugins.surefire.data.UnitTestResult;
 import javax.xml.stream.XMLStreamException;
 import java.io.File;
 import java.io.FilenameFilter;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @since 2.4
@@ -50,12 +61,26 @@ import java.util.Map;
 public class SurefireJavaParser implements BatchExtension {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(SurefireJavaParser.class);
+  @VisibleForTesting
+  static final int MIN_REPORTS_PER_THREAD = 50;
   private final ResourcePerspectives perspectives;
   private final JavaResourceLocator javaResourceLocator;
+  private final boolean captureStackTraces;
+  private final int stackTraceMaxLength;
+  private final int availableProcessors;
+  private final Object saveLock = new Object();
 
-  public SurefireJavaParser(ResourcePerspectives perspectives, JavaResourceLocator javaResourceLocator) {
+  public SurefireJavaParser(ResourcePerspectives perspectives, JavaResourceLocator javaResourceLocator, Settings settings) {
+    this(perspectives, javaResourceLocator, settings, Runtime.getRuntime().availableProcessors());
+  }
+
+  @VisibleForTesting
+  SurefireJavaParser(ResourcePerspectives perspectives, JavaResourceLocator javaResourceLocator, Settings settings, int availableProcessors) {
     this.perspectives = perspectives;
     this.javaResourceLocator = javaResourceLocator;
+    this.captureStackTraces = settings.getBoolean(SurefireUtils.CAPTURE_STACK_TRACES_PROPERTY);
+    this.stackTraceMaxLength = settings.getInt(SurefireUtils.STACK_TRACE_MAX_LENGTH_PROPERTY);
+    this.availableProcessors = availableProcessors;
   }
 
 
@@ -100,14 +125,91 @@ public class SurefireJavaParser implements BatchExtension {
     save(index, context);
   }
 
-  private static void parseFiles(File[] reports, UnitTestIndex index) {
-    SurefireStaxHandler staxParser = new SurefireStaxHandler(index);
-    StaxParser parser = new StaxParser(staxParser, false);
-    for (File report : reports) {
-      try {
-        parser.parse(report);
-      } catch (XMLStreamException e) {
-        throw new SonarException("Fail to parse the Surefire report: " + report, e);
+  private void parseFiles(File[] reports, UnitTestIndex index) {
+    int nbThreads = Math.min(availableProcessors, reports.length / MIN_REPORTS_PER_THREAD);
+    if (nbThreads <= 1) {
+      new ReportsParser(reports, new AtomicInteger(), index).run();
+      return;
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(nbThreads);
+    try {
+      // every thread fills its own shard, shards are merged once all the reports have been read
+      AtomicInteger nextReport = new AtomicInteger();
+      List<UnitTestIndex> shards = Lists.newArrayList();
+      List<Future<?>> futures = Lists.newArrayList();
+      for (int i = 0; i < nbThreads; i++) {
+        UnitTestIndex shard = new UnitTestIndex();
+        shards.add(shard);
+        futures.add(executor.submit(new ReportsParser(reports, nextReport, shard)));
+      }
+      for (Future<?> future : futures) {
+        waitFor(future);
+      }
+      for (UnitTestIndex shard : shards) {
+        index.merge(shard);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static void waitFor(Future<?> future) {
+    try {
+      future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SonarException("Interrupted while parsing Surefire reports", e);
+    } catch (ExecutionException e) {
+      Throwables.propagateIfPossible(e.getCause());
+      throw new SonarException("Fail to parse Surefire reports", e.getCause());
+    }
+  }
+
+  /**
+   * Test results of a report are saved as soon as the report is parsed and then released: only the counters
+   * required to compute measures are kept until the end of the analysis.
+   */
+  private void saveResults(UnitTestIndex reportIndex) {
+    synchronized (saveLock) {
+      for (Map.Entry<String, UnitTestClassReport> entry : reportIndex.getIndexByClassname().entrySet()) {
+        UnitTestClassReport report = entry.getValue();
+        if (report.getTests() > 0) {
+          // Surefire reports classes whereas sonar supports files
+          Resource resource = getUnitTestResource(StringUtils.substringBefore(entry.getKey(), "$"));
+          if (resource != null) {
+            saveResults(resource, report);
+          }
+        }
+        report.releaseResults();
+      }
+    }
+  }
+
+  private class ReportsParser implements Runnable {
+    private final File[] reports;
+    private final AtomicInteger nextReport;
+    private final UnitTestIndex index;
+
+    ReportsParser(File[] reports, AtomicInteger nextReport, UnitTestIndex index) {
+      this.reports = reports;
+      this.nextReport = nextReport;
+      this.index = index;
+    }
+
+    @Override
+    public void run() {
+      UnitTestIndex reportIndex = new UnitTestIndex();
+      StaxParser parser = new StaxParser(new SurefireStaxHandler(reportIndex, captureStackTraces, stackTraceMaxLength), false);
+      for (int i = nextReport.getAndIncrement(); i < reports.length; i = nextReport.getAndIncrement()) {
+        File report = reports[i];
+        try {
+          parser.parse(report);
+        } catch (XMLStreamException e) {
+          throw new SonarException("Fail to parse the Surefire report: " + report, e);
+        }
+        saveResults(reportIndex);
+        index.merge(reportIndex);
+        reportIndex.clear();
       }
     }
   }
@@ -153,7 +255,6 @@ public class SurefireJavaParser implements BatchExtension {
       double percentage = passedTests * 100d / testsCount;
       saveMeasure(context, resource, CoreMetrics.TEST_SUCCESS_DENSITY, ParsingUtils.scaleValue(percentage));
     }
-    saveResults(resource, report);
   }
 
   protected void saveResults(Resource testFile, UnitTestClassReport report) {
@@ -36,6 +36,9 @@ public final class SurefireUtils {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(SurefireUtils.class);
   public static final String SUREFIRE_REPORTS_PATH_PROPERTY = "sonar.junit.reportsPath";
+  public static final String STACK_TRACE_MAX_LENGTH_PROPERTY = "sonar.junit.stackTraceMaxLength";
+  public static final int STACK_TRACE_MAX_LENGTH_DEFAULT_VALUE = 65536;
+  public static final String CAPTURE_STACK_TRACES_PROPERTY = "sonar.junit.captureStackTraces";
 
   private SurefireUtils() {
   }
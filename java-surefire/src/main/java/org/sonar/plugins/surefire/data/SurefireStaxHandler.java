@@ -28,15 +28,37 @@ import org.sonar.api.utils.ParsingUtils;
 import org.sonar.api.utils.StaxParser.XmlStreamHandler;
 
 import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import java.text.ParseException;
 import java.util.Locale;
 
 public class SurefireStaxHandler implements XmlStreamHandler {
 
+  static final String TRUNCATED_STACK_TRACE_SUFFIX = "\n[...]";
+
   private final UnitTestIndex index;
+  private final boolean captureStackTraces;
+  private final int stackTraceMaxLength;
 
   public SurefireStaxHandler(UnitTestIndex index) {
+    this(index, true);
+  }
+
+  /**
+   * @param captureStackTraces when false, the text of failure and error elements is skipped and only their message is kept
+   */
+  public SurefireStaxHandler(UnitTestIndex index, boolean captureStackTraces) {
+    this(index, captureStackTraces, 0);
+  }
+
+  /**
+   * @param stackTraceMaxLength maximum number of characters kept for a stack trace, longer ones are truncated.
+   *                            Zero or a negative value means no limit.
+   */
+  public SurefireStaxHandler(UnitTestIndex index, boolean captureStackTraces, int stackTraceMaxLength) {
     this.index = index;
+    this.captureStackTraces = captureStackTraces;
+    this.stackTraceMaxLength = stackTraceMaxLength;
   }
 
   @Override
@@ -71,17 +93,46 @@ public class SurefireStaxHandler implements XmlStreamHandler {
     return StringUtils.defaultIfBlank(testClassName, defaultClassname);
   }
 
-  private static void parseTestCase(SMInputCursor testCaseCursor, UnitTestClassReport report) throws XMLStreamException {
+  private void parseTestCase(SMInputCursor testCaseCursor, UnitTestClassReport report) throws XMLStreamException {
     report.add(parseTestResult(testCaseCursor));
   }
 
-  private static void setStackAndMessage(UnitTestResult result, SMInputCursor stackAndMessageCursor) throws XMLStreamException {
+  private void setStackAndMessage(UnitTestResult result, SMInputCursor stackAndMessageCursor) throws XMLStreamException {
     result.setMessage(stackAndMessageCursor.getAttrValue("message"));
-    String stack = stackAndMessageCursor.collectDescendantText();
-    result.setStackTrace(stack);
+    if (captureStackTraces) {
+      String stack = stackTraceMaxLength > 0 ? collectTruncatedText(stackAndMessageCursor) : stackAndMessageCursor.collectDescendantText();
+      result.setStackTrace(stack);
+    }
   }
 
-  private static UnitTestResult parseTestResult(SMInputCursor testCaseCursor) throws XMLStreamException {
+  /**
+   * Same as {@link SMInputCursor#collectDescendantText()} but copies at most {@link #stackTraceMaxLength} characters
+   * out of the parser buffer, so that huge stack traces are never fully materialized.
+   */
+  private String collectTruncatedText(SMInputCursor cursor) throws XMLStreamException {
+    StringBuilder sb = new StringBuilder();
+    boolean truncated = false;
+    SMInputCursor textCursor = cursor.descendantMixedCursor();
+    XMLStreamReader reader = textCursor.getStreamReader();
+    for (SMEvent event = textCursor.getNext(); event != null; event = textCursor.getNext()) {
+      if (event == SMEvent.TEXT || event == SMEvent.CDATA) {
+        int remaining = stackTraceMaxLength - sb.length();
+        int length = reader.getTextLength();
+        if (length > remaining) {
+          truncated = true;
+        }
+        if (remaining > 0) {
+          sb.append(reader.getTextCharacters(), reader.getTextStart(), Math.min(length, remaining));
+        }
+      }
+    }
+    if (truncated) {
+      sb.append(TRUNCATED_STACK_TRACE_SUFFIX);
+    }
+    return sb.toString();
+  }
+
+  private UnitTestResult parseTestResult(SMInputCursor testCaseCursor) throws XMLStreamException {
     UnitTestResult detail = new UnitTestResult();
     String name = getTestCaseName(testCaseCursor);
     detail.setName(name);
@@ -89,8 +140,14 @@ public class SurefireStaxHandler implements XmlStreamHandler {
     String status = UnitTestResult.STATUS_OK;
     long duration = getTimeAttributeInMS(testCaseCursor);
 
-    SMInputCursor childNode = testCaseCursor.descendantElementCursor();
-    if (childNode.getNext() != null) {
+    // only the first status element is taken into account, the content of other elements (system-out, system-err...)
+    // is skipped by the cursor without being read
+    SMInputCursor childNode = testCaseCursor.childElementCursor();
+    while (childNode.getNext() != null) {
+      if (!UnitTestResult.STATUS_OK.equals(status)) {
+        // make sure we loop till the end of the elements cursor
+        continue;
+      }
       String elementName = childNode.getLocalName();
       if ("skipped".equals(elementName)) {
         status = UnitTestResult.STATUS_SKIPPED;
@@ -106,9 +163,6 @@ public class SurefireStaxHandler implements XmlStreamHandler {
         setStackAndMessage(detail, childNode);
       }
     }
-    while (childNode.getNext() != null) {
-      // make sure we loop till the end of the elements cursor
-    }
     detail.setDurationMilliseconds(duration);
     detail.setStatus(status);
     return detail;
@@ -36,8 +36,16 @@ public final class UnitTestClassReport {
   private List<UnitTestResult> results = null;
 
   public UnitTestClassReport add(UnitTestClassReport other) {
-    for (UnitTestResult otherResult : other.getResults()) {
-      add(otherResult);
+    // counters are summed rather than recomputed as the results of the other report may already have been released
+    errors += other.errors;
+    failures += other.failures;
+    skipped += other.skipped;
+    tests += other.tests;
+    durationMilliseconds += other.durationMilliseconds;
+    negativeTimeTestNumber += other.negativeTimeTestNumber;
+    if (other.results != null) {
+      initResults();
+      results.addAll(other.results);
     }
     return this;
   }
@@ -69,6 +77,13 @@ public final class UnitTestClassReport {
     }
   }
 
+  /**
+   * Drops the individual results once they have been saved, only counters are kept.
+   */
+  public void releaseResults() {
+    results = null;
+  }
+
   public long getErrors() {
     return errors;
   }
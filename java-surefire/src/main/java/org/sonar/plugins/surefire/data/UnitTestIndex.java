@@ -72,9 +72,22 @@ public class UnitTestIndex {
     return null;
   }
 
+  /**
+   * Merges all the class reports of another index into this one.
+   */
+  public void merge(UnitTestIndex other) {
+    for (Map.Entry<String, UnitTestClassReport> entry : other.indexByClassname.entrySet()) {
+      index(entry.getKey()).add(entry.getValue());
+    }
+  }
+
   public void remove(String classname) {
     indexByClassname.remove(classname);
   }
 
+  public void clear() {
+    indexByClassname.clear();
+  }
+
 
 }
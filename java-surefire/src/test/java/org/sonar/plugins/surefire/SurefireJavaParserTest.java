@@ -19,14 +19,22 @@
  */
 package org.sonar.plugins.surefire;
 
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.io.Files;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.ArgumentMatcher;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.sonar.api.batch.SensorContext;
 import org.sonar.api.component.ResourcePerspectives;
+import org.sonar.api.config.Settings;
 import org.sonar.api.measures.CoreMetrics;
+import org.sonar.api.measures.Measure;
 import org.sonar.api.measures.Metric;
 import org.sonar.api.resources.File;
 import org.sonar.api.resources.Project;
@@ -38,15 +46,22 @@ import org.sonar.api.test.MutableTestCase;
 import org.sonar.api.test.MutableTestPlan;
 import org.sonar.api.test.TestCase;
 import org.sonar.plugins.java.api.JavaResourceLocator;
+import org.sonar.plugins.surefire.api.SurefireUtils;
 
+import java.io.IOException;
 import java.net.URISyntaxException;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
+import static org.fest.assertions.Assertions.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyDouble;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.argThat;
+import static org.mockito.Matchers.contains;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -60,6 +75,9 @@ public class SurefireJavaParserTest {
   private JavaResourceLocator javaResourceLocator;
   private SurefireJavaParser parser;
 
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
   @Before
   public void before() {
     perspectives = mock(ResourcePerspectives.class);
@@ -72,7 +90,7 @@ public class SurefireJavaParserTest {
       }
     });
 
-    parser = new SurefireJavaParser(perspectives, javaResourceLocator);
+    parser = new SurefireJavaParser(perspectives, javaResourceLocator, mock(Settings.class));
   }
 
   @Test
@@ -96,6 +114,31 @@ public class SurefireJavaParserTest {
     verify(testPlan).addTestCase("testGetJDependsCollector");
   }
 
+  @Test
+  public void should_capture_stack_traces_unless_disabled() throws URISyntaxException {
+    MutableTestCase testCase = collectInnerClassesTestCases(true);
+    verify(testCase).setStackTrace(contains("java.io.InvalidClassException"));
+
+    testCase = collectInnerClassesTestCases(false);
+    verify(testCase, never()).setStackTrace(contains("java.io.InvalidClassException"));
+  }
+
+  private MutableTestCase collectInnerClassesTestCases(boolean captureStackTraces) throws URISyntaxException {
+    MutableTestCase testCase = mock(MutableTestCase.class);
+    when(testCase.setDurationInMs(anyLong())).thenReturn(testCase);
+    when(testCase.setStatus(any(TestCase.Status.class))).thenReturn(testCase);
+    when(testCase.setMessage(anyString())).thenReturn(testCase);
+    when(testCase.setStackTrace(anyString())).thenReturn(testCase);
+    when(testCase.setType(anyString())).thenReturn(testCase);
+    MutableTestPlan testPlan = mock(MutableTestPlan.class);
+    when(testPlan.addTestCase(anyString())).thenReturn(testCase);
+    when(perspectives.as(eq(MutableTestPlan.class), any(Resource.class))).thenReturn(testPlan);
+    Settings settings = new Settings();
+    settings.setProperty(SurefireUtils.CAPTURE_STACK_TRACES_PROPERTY, captureStackTraces);
+
+    new SurefireJavaParser(perspectives, javaResourceLocator, settings).collect(mockContext(), getDir("innerClasses"));
+    return testCase;
+  }
 
   @Test
   public void should_store_zero_tests_when_directory_is_null_or_non_existing_or_a_file() throws Exception {
@@ -221,6 +264,96 @@ public class SurefireJavaParserTest {
     verify(context, times(1)).saveMeasure(argThat(new IsResource(Scopes.FILE, Qualifiers.FILE)), eq(CoreMetrics.TEST_EXECUTION_TIME), eq(659.0));
   }
 
+  @Test
+  public void concurrent_parsing_should_give_the_same_results_as_sequential_parsing() throws Exception {
+    java.io.File reportsDir = temp.newFolder();
+    int nbReports = 4 * SurefireJavaParser.MIN_REPORTS_PER_THREAD + 17;
+    for (int i = 0; i < nbReports; i++) {
+      writeReport(reportsDir, i);
+    }
+
+    Map<String, Double> sequentialMeasures = Maps.newHashMap();
+    List<String> sequentialTestCases = Lists.newArrayList();
+    collect(reportsDir, 1, sequentialMeasures, sequentialTestCases);
+    Map<String, Double> concurrentMeasures = Maps.newHashMap();
+    List<String> concurrentTestCases = Lists.newArrayList();
+    collect(reportsDir, 4, concurrentMeasures, concurrentTestCases);
+
+    // inner classes and classes spread over several reports are merged into the same counters
+    assertThat(sequentialMeasures.get("org.foo.Test0 tests")).isEqualTo(3.0);
+    assertThat(sequentialMeasures.get("org.foo.Test0 test_errors")).isEqualTo(1.0);
+    assertThat(sequentialMeasures.get("org.foo.Shared0 tests")).isEqualTo((double) ((nbReports + 9) / 10));
+    assertThat(sequentialMeasures.containsKey("org.foo.Test0$Inner tests")).isFalse();
+    assertThat(concurrentMeasures).isEqualTo(sequentialMeasures);
+
+    assertThat(sequentialTestCases).hasSize(4 * nbReports);
+    Collections.sort(sequentialTestCases);
+    Collections.sort(concurrentTestCases);
+    assertThat(concurrentTestCases).isEqualTo(sequentialTestCases);
+  }
+
+  /**
+   * Report of a class with 2 test methods, a test method of an inner class and a test method of a class shared by other
+   * reports. Some of them are skipped, fail or have an error.
+   */
+  private static void writeReport(java.io.File reportsDir, int i) throws IOException {
+    String className = "org.foo.Test" + i;
+    StringBuilder sb = new StringBuilder();
+    sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n");
+    sb.append("<testsuite name=\"").append(className).append("\" tests=\"4\">\n");
+    sb.append("  <testcase classname=\"").append(className).append("\" name=\"first\" time=\"0.").append(i % 1000).append("\"/>\n");
+    sb.append("  <testcase classname=\"").append(className).append("\" name=\"second\" time=\"1.5\">");
+    if (i % 7 == 0) {
+      sb.append("<error message=\"error ").append(i).append("\">java.lang.IllegalStateException</error>");
+    } else if (i % 11 == 0) {
+      sb.append("<failure message=\"failure ").append(i).append("\">java.lang.AssertionError</failure>");
+    } else if (i % 13 == 0) {
+      sb.append("<skipped/>");
+    }
+    sb.append("</testcase>\n");
+    sb.append("  <testcase classname=\"").append(className).append("$Inner\" name=\"inner\" time=\"0.002\"/>\n");
+    sb.append("  <testcase classname=\"org.foo.Shared").append(i % 10).append("\" name=\"shared").append(i).append("\" time=\"0.003\"/>\n");
+    sb.append("</testsuite>\n");
+    Files.write(sb.toString(), new java.io.File(reportsDir, "TEST-" + className + ".xml"), Charsets.UTF_8);
+  }
+
+  private void collect(java.io.File reportsDir, int availableProcessors, final Map<String, Double> measures, final List<String> testCases) {
+    SensorContext context = mockContext();
+    when(context.saveMeasure(any(Resource.class), any(Metric.class), anyDouble())).thenAnswer(new Answer<Measure>() {
+      @Override
+      public Measure answer(InvocationOnMock invocation) throws Throwable {
+        Object[] arguments = invocation.getArguments();
+        measures.put(((Resource) arguments[0]).getKey() + " " + ((Metric) arguments[1]).getKey(), (Double) arguments[2]);
+        return null;
+      }
+    });
+    final MutableTestCase testCase = mock(MutableTestCase.class);
+    when(testCase.setDurationInMs(anyLong())).thenReturn(testCase);
+    when(testCase.setStatus(any(TestCase.Status.class))).thenReturn(testCase);
+    when(testCase.setMessage(anyString())).thenReturn(testCase);
+    when(testCase.setStackTrace(anyString())).thenReturn(testCase);
+    when(testCase.setType(anyString())).thenReturn(testCase);
+    // test results are saved under a lock: a test plan is always requested right before adding its test case
+    final String[] testPlanResource = new String[1];
+    final MutableTestPlan testPlan = mock(MutableTestPlan.class);
+    when(testPlan.addTestCase(anyString())).thenAnswer(new Answer<MutableTestCase>() {
+      @Override
+      public MutableTestCase answer(InvocationOnMock invocation) throws Throwable {
+        testCases.add(testPlanResource[0] + " " + invocation.getArguments()[0]);
+        return testCase;
+      }
+    });
+    when(perspectives.as(eq(MutableTestPlan.class), any(Resource.class))).thenAnswer(new Answer<MutableTestPlan>() {
+      @Override
+      public MutableTestPlan answer(InvocationOnMock invocation) throws Throwable {
+        testPlanResource[0] = ((Resource) invocation.getArguments()[1]).getKey();
+        return testPlan;
+      }
+    });
+
+    new SurefireJavaParser(perspectives, javaResourceLocator, mock(Settings.class), availableProcessors).collect(context, reportsDir);
+  }
+
   private java.io.File getDir(String dirname) throws URISyntaxException {
     return new java.io.File("src/test/resources/org/sonar/plugins/surefire/api/SurefireParserTest/" + dirname);
   }
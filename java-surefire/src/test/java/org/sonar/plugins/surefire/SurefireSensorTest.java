@@ -81,7 +81,7 @@ public class SurefireSensorTest {
       }
     });
 
-    surefireSensor = new SurefireSensor(new SurefireJavaParser(perspectives, javaResourceLocator), mock(Settings.class), fs, pathResolver);
+    surefireSensor = new SurefireSensor(new SurefireJavaParser(perspectives, javaResourceLocator, mock(Settings.class)), mock(Settings.class), fs, pathResolver);
   }
 
   private org.sonar.api.resources.File resource(String key) {
@@ -92,13 +92,13 @@ public class SurefireSensorTest {
 
   @Test
   public void should_execute_if_filesystem_contains_java_files() {
-    surefireSensor = new SurefireSensor(new SurefireJavaParser(perspectives, javaResourceLocator), mock(Settings.class), fs, pathResolver);
+    surefireSensor = new SurefireSensor(new SurefireJavaParser(perspectives, javaResourceLocator, mock(Settings.class)), mock(Settings.class), fs, pathResolver);
     Assertions.assertThat(surefireSensor.shouldExecuteOnProject(project)).isTrue();
   }
 
   @Test
   public void should_not_execute_if_filesystem_does_not_contains_java_files() {
-    surefireSensor = new SurefireSensor(new SurefireJavaParser(perspectives, javaResourceLocator), mock(Settings.class), new DefaultFileSystem(null), pathResolver);
+    surefireSensor = new SurefireSensor(new SurefireJavaParser(perspectives, javaResourceLocator, mock(Settings.class)), mock(Settings.class), new DefaultFileSystem(null), pathResolver);
     Assertions.assertThat(surefireSensor.shouldExecuteOnProject(project)).isFalse();
   }
 
@@ -28,6 +28,7 @@ import javax.xml.stream.XMLStreamException;
 import java.io.File;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.Matchers.startsWith;
 import static org.junit.Assert.assertThat;
 
@@ -114,9 +115,53 @@ public class SurefireStaxHandlerTest {
     assertThat(index.get("org.sonar.SecondTest").getTests(), is(4L));
   }
 
+  @Test
+  public void shouldIgnoreSystemOutAndSystemErr() throws XMLStreamException {
+    parse("systemOutBeforeFailure.xml");
+    UnitTestClassReport report = index.get("org.sonar.Foo");
+    assertThat(report.getTests(), is(2L));
+    assertThat(report.getFailures(), is(1L));
+
+    UnitTestResult failure = report.getResults().get(0);
+    assertThat(failure.getStatus(), is(UnitTestResult.STATUS_FAILURE));
+    assertThat(failure.getMessage(), startsWith("expected"));
+    assertThat(failure.getStackTrace(), startsWith("java.lang.AssertionError"));
+    assertThat(report.getResults().get(1).getStatus(), is(UnitTestResult.STATUS_OK));
+  }
+
+  @Test
+  public void shouldNotCaptureStackTracesWhenNotRequested() throws XMLStreamException {
+    parse("errorsAndFailures.xml", false);
+    UnitTestClassReport report = index.get("org.sonar.Foo");
+    assertThat(report.getFailures(), is(1L));
+
+    UnitTestResult failure = report.getResults().get(0);
+    assertThat(failure.getMessage(), startsWith("expected"));
+    assertThat(failure.getStackTrace(), nullValue());
+  }
+
+  @Test
+  public void shouldTruncateLongStackTraces() throws XMLStreamException {
+    parse("errorsAndFailures.xml", true, 30);
+    UnitTestClassReport report = index.get("org.sonar.Foo");
+
+    UnitTestResult failure = report.getResults().get(0);
+    assertThat(failure.getStackTrace(), is("java.lang.AssertionError:\n    " + SurefireStaxHandler.TRUNCATED_STACK_TRACE_SUFFIX));
+    UnitTestResult error = report.getResults().get(1);
+    assertThat(error.getStackTrace().length(), is(30 + SurefireStaxHandler.TRUNCATED_STACK_TRACE_SUFFIX.length()));
+  }
+
   private void parse(String path) throws XMLStreamException {
+    parse(path, true);
+  }
+
+  private void parse(String path, boolean captureStackTraces) throws XMLStreamException {
+    parse(path, captureStackTraces, 0);
+  }
+
+  private void parse(String path, boolean captureStackTraces, int stackTraceMaxLength) throws XMLStreamException {
     File xml = TestUtils.getResource(getClass(), path);
-    SurefireStaxHandler staxParser = new SurefireStaxHandler(index);
+    SurefireStaxHandler staxParser = new SurefireStaxHandler(index, captureStackTraces, stackTraceMaxLength);
     StaxParser parser = new StaxParser(staxParser, false);
     parser.parse(xml);
   }
@@ -54,4 +54,23 @@ public class UnitTestClassReportTest {
     assertThat(report.getErrors(), is(0L));
     assertThat(report.getFailures(), is(0L));
   }
+
+  @Test
+  public void shouldKeepCountersWhenResultsAreReleased() {
+    UnitTestClassReport report = new UnitTestClassReport();
+    report.add(new UnitTestResult().setStatus(UnitTestResult.STATUS_ERROR).setDurationMilliseconds(500L));
+    report.add(new UnitTestResult().setStatus(UnitTestResult.STATUS_FAILURE).setDurationMilliseconds(200L));
+    report.releaseResults();
+
+    UnitTestClassReport other = new UnitTestClassReport();
+    other.add(report);
+    other.add(new UnitTestResult().setStatus(UnitTestResult.STATUS_SKIPPED));
+
+    assertThat(other.getResults().size(), is(1));
+    assertThat(other.getTests(), is(3L));
+    assertThat(other.getErrors(), is(1L));
+    assertThat(other.getFailures(), is(1L));
+    assertThat(other.getSkipped(), is(1L));
+    assertThat(other.getDurationMilliseconds(), is(500L + 200L));
+  }
 }
@@ -104,6 +104,24 @@ public class UnitTestIndexTest {
     assertThat(report.getDurationMilliseconds(), is(500L + 200L));
   }
 
+  @Test
+  public void shouldMergeIndexes() {
+    UnitTestIndex index = new UnitTestIndex();
+    index.index("org.sonar.Foo").add(new UnitTestResult().setStatus(UnitTestResult.STATUS_ERROR).setDurationMilliseconds(500L));
+    UnitTestIndex shard = new UnitTestIndex();
+    shard.index("org.sonar.Foo").add(new UnitTestResult().setStatus(UnitTestResult.STATUS_OK).setDurationMilliseconds(200L));
+    shard.index("org.sonar.Bar").add(new UnitTestResult().setStatus(UnitTestResult.STATUS_FAILURE).setDurationMilliseconds(100L));
+
+    index.merge(shard);
+
+    assertThat(index.size(), is(2));
+    UnitTestClassReport report = index.get("org.sonar.Foo");
+    assertThat(report.getTests(), is(2L));
+    assertThat(report.getErrors(), is(1L));
+    assertThat(report.getDurationMilliseconds(), is(500L + 200L));
+    assertThat(index.get("org.sonar.Bar").getFailures(), is(1L));
+  }
+
   @Test
   public void shouldNotFailWhenMergingUnknownClass() {
     UnitTestIndex index = new UnitTestIndex();
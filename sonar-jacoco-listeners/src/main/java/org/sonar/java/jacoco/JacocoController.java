@@ -30,7 +30,16 @@ class JacocoController {
 
   private final IAgent agent;
 
-  private boolean testStarted;
+  /**
+   * Number of tests currently running in this JVM.
+   */
+  private int runningTests;
+
+  /**
+   * True when at least two tests have been running at the same time since the last dump: probes are global to the JVM,
+   * so in that case the coverage can't be attributed to one of them.
+   */
+  private boolean concurrentTests;
 
   private static JacocoController singleton;
 
@@ -56,18 +65,26 @@ class JacocoController {
   }
 
   public synchronized void onTestStart(String name) {
-    if (testStarted) {
-      throw new JacocoControllerError("Looks like several tests executed in parallel in the same JVM, thus coverage per test can't be recorded correctly.");
+    if (runningTests == 0) {
+      // Dump coverage between tests
+      dump("");
+      concurrentTests = false;
+    } else {
+      // Tests executed in parallel: don't fail, but stop recording coverage per test until all of them are finished
+      concurrentTests = true;
     }
-    // Dump coverage between tests
-    dump("");
-    testStarted = true;
+    runningTests++;
   }
 
   public synchronized void onTestFinish(String name) {
-    // Dump coverage for test
-    dump(name);
-    testStarted = false;
+    runningTests = Math.max(0, runningTests - 1);
+    if (!concurrentTests) {
+      // Dump coverage for test
+      dump(name);
+    } else if (runningTests == 0) {
+      // Dump coverage of tests executed in parallel without attributing it to any of them
+      dump("");
+    }
   }
 
   private void dump(String sessionId) {
@@ -77,11 +77,24 @@ public class JacocoControllerTest {
   }
 
   @Test
-  public void should_throw_exception_when_two_tests_started_in_parallel() {
+  public void should_not_attribute_coverage_when_tests_executed_in_parallel() throws Exception {
     jacoco.onTestStart("test1");
-    thrown.expect(JacocoControllerError.class);
-    thrown.expectMessage("Looks like several tests executed in parallel in the same JVM, thus coverage per test can't be recorded correctly.");
     jacoco.onTestStart("test2");
+    jacoco.onTestFinish("test1");
+    jacoco.onTestFinish("test2");
+    jacoco.onTestStart("test3");
+    jacoco.onTestFinish("test3");
+
+    InOrder inOrder = Mockito.inOrder(agent);
+    inOrder.verify(agent).setSessionId("");
+    inOrder.verify(agent).dump(true);
+    inOrder.verify(agent).setSessionId("");
+    inOrder.verify(agent).dump(true);
+    inOrder.verify(agent).setSessionId("");
+    inOrder.verify(agent).dump(true);
+    inOrder.verify(agent).setSessionId("test3");
+    inOrder.verify(agent).dump(true);
+    verifyNoMoreInteractions(agent);
   }
 
 }
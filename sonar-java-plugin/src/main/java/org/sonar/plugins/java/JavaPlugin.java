@@ -44,6 +44,12 @@ public class JavaPlugin extends SonarPlugin {
   public static final String SQUID_ANALYSE_ACCESSORS_PROPERTY = "sonar.squid.analyse.property.accessors";
   public static final boolean SQUID_ANALYSE_ACCESSORS_DEFAULT_VALUE = true;
   public static final String JSON_OUTPUT_FOLDER = "sonar.java.jsonoutput.folder";
+  public static final String SPARSE_DSM_PROPERTY = "sonar.java.design.sparseDsm";
+  public static final String ANALYSIS_METRICS_PROPERTY = "sonar.java.analysisMetrics";
+  public static final String CHECK_TIME_BUDGET_PROPERTY = "sonar.java.checkTimeBudget";
+  public static final String PARSE_TIME_BUDGET_PROPERTY = "sonar.java.parseTimeBudget";
+  public static final String SEMANTIC_TIME_BUDGET_PROPERTY = "sonar.java.semanticTimeBudget";
+  public static final String PARSE_ERROR_RECOVERY_PROPERTY = "sonar.java.parseErrorRecovery";
 
   @Override
   public List getExtensions() {
@@ -90,6 +96,63 @@ public class JavaPlugin extends SonarPlugin {
             .type(PropertyType.STRING)
             .hidden()
             .build(),
+        PropertyDefinition.builder(JavaPlugin.SPARSE_DSM_PROPERTY)
+            .defaultValue("false")
+            .category(JAVA_CATEGORY)
+            .subCategory(GENERAL_SUBCATEGORY)
+            .name("Sparse dependency matrix")
+            .description("Only serialize the non empty cells of dependency matrices. Viewers expecting one value per cell can not read this format.")
+            .type(PropertyType.BOOLEAN)
+            .hidden()
+            .build(),
+        PropertyDefinition.builder(JavaPlugin.ANALYSIS_METRICS_PROPERTY)
+            .defaultValue("false")
+            .category(JAVA_CATEGORY)
+            .subCategory(GENERAL_SUBCATEGORY)
+            .name("Analysis metrics")
+            .description("Measure the time and memory spent by each phase and each check of the analysis, log the costliest checks "
+              + "and write the slowest files and checks in the work directory.")
+            .type(PropertyType.BOOLEAN)
+            .hidden()
+            .build(),
+        PropertyDefinition.builder(JavaPlugin.CHECK_TIME_BUDGET_PROPERTY)
+            .defaultValue("0")
+            .category(JAVA_CATEGORY)
+            .subCategory(GENERAL_SUBCATEGORY)
+            .name("Check time budget")
+            .description("Time in milliseconds allowed to each check on each file. A check exceeding it is aborted on that file. 0 means no limit.")
+            .type(PropertyType.INTEGER)
+            .hidden()
+            .build(),
+        PropertyDefinition.builder(JavaPlugin.PARSE_TIME_BUDGET_PROPERTY)
+            .defaultValue("0")
+            .category(JAVA_CATEGORY)
+            .subCategory(GENERAL_SUBCATEGORY)
+            .name("Parse time budget")
+            .description("Time in milliseconds allowed to the parsing of each file. A file exceeding it is not analyzed. 0 means no limit.")
+            .type(PropertyType.INTEGER)
+            .hidden()
+            .build(),
+        PropertyDefinition.builder(JavaPlugin.SEMANTIC_TIME_BUDGET_PROPERTY)
+            .defaultValue("0")
+            .category(JAVA_CATEGORY)
+            .subCategory(GENERAL_SUBCATEGORY)
+            .name("Semantic analysis time budget")
+            .description("Time in milliseconds allowed to the semantic analysis of each file. "
+              + "A file exceeding it is analyzed by syntactic checks only. 0 means no limit.")
+            .type(PropertyType.INTEGER)
+            .hidden()
+            .build(),
+        PropertyDefinition.builder(JavaPlugin.PARSE_ERROR_RECOVERY_PROPERTY)
+            .defaultValue("0")
+            .category(JAVA_CATEGORY)
+            .subCategory(GENERAL_SUBCATEGORY)
+            .name("Parse error recovery")
+            .description("Maximum number of members with parse errors skipped in a file so that the rest of it is analyzed. "
+              + "Issues are not reported on skipped lines. 0 means that files with parse errors are not analyzed.")
+            .type(PropertyType.INTEGER)
+            .hidden()
+            .build(),
 
         JavaRulesDefinition.class,
         JavaSonarWayProfile.class,
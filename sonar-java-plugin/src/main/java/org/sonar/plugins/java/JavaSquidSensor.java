@@ -20,6 +20,8 @@
 package org.sonar.plugins.java;
 
 import com.google.common.collect.Lists;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.sonar.api.CoreProperties;
 import org.sonar.api.batch.DependedUpon;
 import org.sonar.api.batch.DependsUpon;
@@ -40,8 +42,10 @@ import org.sonar.java.Measurer;
 import org.sonar.java.SonarComponents;
 import org.sonar.java.api.JavaUtils;
 import org.sonar.java.checks.CheckList;
+import org.sonar.java.monitoring.AnalysisMetricsReport;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.charset.Charset;
 import java.util.Collections;
 import java.util.List;
@@ -51,6 +55,8 @@ import java.util.List;
 @DependedUpon(value = JavaUtils.BARRIER_AFTER_SQUID)
 public class JavaSquidSensor implements Sensor {
 
+  private static final Logger LOG = LoggerFactory.getLogger(JavaSquidSensor.class);
+
   private final JavaClasspath javaClasspath;
   private final SonarComponents sonarComponents;
   private final FileSystem fs;
@@ -84,9 +90,21 @@ public class JavaSquidSensor implements Sensor {
     Measurer measurer = new Measurer(fs, context, configuration.separatesAccessorsFromMethods());
     JavaSquid squid = new JavaSquid(configuration, sonarComponents, measurer, javaResourceLocator, sonarComponents.checkClasses());
     squid.scan(getSourceFiles(), getTestFiles(), getBytecodeFiles());
+    saveAnalysisMetrics(squid);
     new Bridges(squid, settings).save(context, project, sonarComponents, javaResourceLocator.getResourceMapping(), noSonarFilter, profile);
   }
 
+  private void saveAnalysisMetrics(JavaSquid squid) {
+    File workDir = fs.workDir();
+    if (workDir != null && squid.getMetrics().isEnabled()) {
+      try {
+        AnalysisMetricsReport.write(squid.getMetrics(), workDir);
+      } catch (IOException e) {
+        LOG.warn("Unable to write the Java analysis metrics report in " + workDir, e);
+      }
+    }
+  }
+
   private Iterable<File> getSourceFiles() {
     return toFile(fs.inputFiles(fs.predicates().and(fs.predicates().hasLanguage(Java.KEY), fs.predicates().hasType(InputFile.Type.MAIN))));
   }
@@ -115,6 +133,11 @@ public class JavaSquidSensor implements Sensor {
     Charset charset = fs.encoding();
     JavaConfiguration conf = new JavaConfiguration(charset);
     conf.setSeparateAccessorsFromMethods(analyzePropertyAccessors);
+    conf.setAnalysisMetricsEnabled(settings.getBoolean(JavaPlugin.ANALYSIS_METRICS_PROPERTY));
+    conf.setCheckTimeBudgetMillis(settings.getLong(JavaPlugin.CHECK_TIME_BUDGET_PROPERTY));
+    conf.setParseTimeBudgetMillis(settings.getLong(JavaPlugin.PARSE_TIME_BUDGET_PROPERTY));
+    conf.setSemanticTimeBudgetMillis(settings.getLong(JavaPlugin.SEMANTIC_TIME_BUDGET_PROPERTY));
+    conf.setMaxSkippedMembersOnParseError(settings.getInt(JavaPlugin.PARSE_ERROR_RECOVERY_PROPERTY));
     return conf;
   }
 
@@ -19,6 +19,8 @@
  */
 package org.sonar.plugins.java.bridges;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
 import com.google.common.collect.Lists;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,6 +49,11 @@ import org.sonar.java.checks.CycleBetweenPackagesCheck;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class DesignBridge {
 
@@ -56,12 +63,23 @@ public class DesignBridge {
   private final DirectedGraph<Resource, Dependency> graph;
   private final ResourceMapping resourceMapping;
   private final ResourcePerspectives resourcePerspectives;
+  private final boolean sparseDsm;
+  private final int availableProcessors;
 
-  public DesignBridge(SensorContext context, DirectedGraph<Resource, Dependency> graph, ResourceMapping resourceMapping, ResourcePerspectives resourcePerspectives) {
+  public DesignBridge(SensorContext context, DirectedGraph<Resource, Dependency> graph, ResourceMapping resourceMapping, ResourcePerspectives resourcePerspectives,
+    boolean sparseDsm) {
+    this(context, graph, resourceMapping, resourcePerspectives, sparseDsm, Runtime.getRuntime().availableProcessors());
+  }
+
+  @VisibleForTesting
+  DesignBridge(SensorContext context, DirectedGraph<Resource, Dependency> graph, ResourceMapping resourceMapping, ResourcePerspectives resourcePerspectives,
+    boolean sparseDsm, int availableProcessors) {
     this.context = context;
     this.graph = graph;
     this.resourceMapping = resourceMapping;
     this.resourcePerspectives = resourcePerspectives;
+    this.sparseDsm = sparseDsm;
+    this.availableProcessors = availableProcessors;
   }
 
   public void saveDesign(Project sonarProject) {
@@ -89,9 +107,7 @@ public class DesignBridge {
 
     profiler.stop();
 
-    for (Resource sonarPackage : directories) {
-      onPackage(sonarPackage);
-    }
+    analyzePackages(directories);
   }
 
   private void savePositiveMeasure(Resource sonarResource, Metric metric, double value) {
@@ -100,22 +116,38 @@ public class DesignBridge {
     }
   }
 
-  private void onPackage(Resource sonarPackage) {
-    Collection<Resource> squidFiles = getResourcesForDirectory(sonarPackage);
-    if (squidFiles != null && !squidFiles.isEmpty()) {
-      IncrementalCyclesAndFESSolver<Resource> cycleDetector = new IncrementalCyclesAndFESSolver<>(graph, squidFiles);
-      Set<Cycle> cycles = cycleDetector.getCycles();
-
-      MinimumFeedbackEdgeSetSolver solver = new MinimumFeedbackEdgeSetSolver(cycles);
-      Set<Edge> feedbackEdges = solver.getEdges();
-      int tangles = solver.getWeightOfFeedbackEdgeSet();
-
-      savePositiveMeasure(sonarPackage, CoreMetrics.FILE_CYCLES, cycles.size());
-      savePositiveMeasure(sonarPackage, CoreMetrics.FILE_FEEDBACK_EDGES, feedbackEdges.size());
-      savePositiveMeasure(sonarPackage, CoreMetrics.FILE_TANGLES, tangles);
-      savePositiveMeasure(sonarPackage, CoreMetrics.FILE_EDGES_WEIGHT, getEdgesWeight(squidFiles));
-      String dsmJson = serializeDsm(graph, squidFiles, feedbackEdges);
-      context.saveMeasure(sonarPackage, new Measure(CoreMetrics.DEPENDENCY_MATRIX, dsmJson));
+  /**
+   * Packages are independent from each other: cycles, feedback edges and DSM of each package are computed concurrently,
+   * while measures are saved from the calling thread in the order of packages.
+   */
+  private void analyzePackages(Collection<Resource> directories) {
+    List<PackageAnalysis> analyses = Lists.newArrayList();
+    for (Resource sonarPackage : directories) {
+      Collection<Resource> squidFiles = getResourcesForDirectory(sonarPackage);
+      if (!squidFiles.isEmpty()) {
+        analyses.add(new PackageAnalysis(sonarPackage, squidFiles));
+      }
+    }
+    if (analyses.isEmpty()) {
+      return;
+    }
+    int nbThreads = Math.min(availableProcessors, analyses.size());
+    ExecutorService executor = Executors.newFixedThreadPool(nbThreads);
+    try {
+      List<Future<PackageAnalysis>> futures = Lists.newArrayList();
+      for (PackageAnalysis analysis : analyses) {
+        futures.add(executor.submit(analysis));
+      }
+      for (Future<PackageAnalysis> future : futures) {
+        future.get().save();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while analyzing package design", e);
+    } catch (ExecutionException e) {
+      throw Throwables.propagate(e.getCause());
+    } finally {
+      executor.shutdownNow();
     }
   }
 
@@ -136,10 +168,10 @@ public class DesignBridge {
     return total;
   }
 
-  private static String serializeDsm(DirectedGraph<Resource, Dependency> graph, Collection<Resource> sources, Set<Edge> feedbackEdges) {
+  private String serializeDsm(DirectedGraph<Resource, Dependency> graph, Collection<Resource> sources, Set<Edge> feedbackEdges) {
     Dsm<Resource>  dsm = new Dsm<Resource>(graph, sources, feedbackEdges);
     DsmTopologicalSorter.sort(dsm);
-    return DsmSerializer.serialize(dsm);
+    return DsmSerializer.serialize(dsm, sparseDsm);
   }
 
   private void saveIssues(Set<Edge> feedbackEdges) {
@@ -166,5 +198,42 @@ public class DesignBridge {
     }
   }
 
+  private class PackageAnalysis implements Callable<PackageAnalysis> {
+    private final Resource sonarPackage;
+    private final Collection<Resource> squidFiles;
+    private int cycles;
+    private int feedbackEdges;
+    private int tangles;
+    private double edgesWeight;
+    private String dsmJson;
+
+    PackageAnalysis(Resource sonarPackage, Collection<Resource> squidFiles) {
+      this.sonarPackage = sonarPackage;
+      this.squidFiles = squidFiles;
+    }
+
+    @Override
+    public PackageAnalysis call() {
+      IncrementalCyclesAndFESSolver<Resource> cycleDetector = new IncrementalCyclesAndFESSolver<>(graph, squidFiles);
+      Set<Cycle> cycleSet = cycleDetector.getCycles();
+
+      MinimumFeedbackEdgeSetSolver solver = new MinimumFeedbackEdgeSetSolver(cycleSet);
+      Set<Edge> feedbackEdgeSet = solver.getEdges();
+      cycles = cycleSet.size();
+      feedbackEdges = feedbackEdgeSet.size();
+      tangles = solver.getWeightOfFeedbackEdgeSet();
+      edgesWeight = getEdgesWeight(squidFiles);
+      dsmJson = serializeDsm(graph, squidFiles, feedbackEdgeSet);
+      return this;
+    }
+
+    void save() {
+      savePositiveMeasure(sonarPackage, CoreMetrics.FILE_CYCLES, cycles);
+      savePositiveMeasure(sonarPackage, CoreMetrics.FILE_FEEDBACK_EDGES, feedbackEdges);
+      savePositiveMeasure(sonarPackage, CoreMetrics.FILE_TANGLES, tangles);
+      savePositiveMeasure(sonarPackage, CoreMetrics.FILE_EDGES_WEIGHT, edgesWeight);
+      context.saveMeasure(sonarPackage, new Measure(CoreMetrics.DEPENDENCY_MATRIX, dsmJson));
+    }
+  }
 
 }
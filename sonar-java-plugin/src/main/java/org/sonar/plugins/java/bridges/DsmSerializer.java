@@ -24,13 +24,19 @@ import org.sonar.api.resources.Resource;
 import org.sonar.graph.Dsm;
 import org.sonar.graph.DsmCell;
 
+/**
+ * Serializes a DSM to JSON, one object per row. In the default dense encoding, each row holds all its cells, empty ones included,
+ * under "v". In the sparse encoding, each row only holds its non empty cells under "c", with their column index in "x".
+ */
 public final class DsmSerializer {
 
   private Dsm dsm;
+  private final boolean sparse;
   private StringBuilder json;
 
-  private DsmSerializer(Dsm<Resource> dsm) {
+  private DsmSerializer(Dsm<Resource> dsm, boolean sparse) {
     this.dsm = dsm;
+    this.sparse = sparse;
     this.json = new StringBuilder();
   }
 
@@ -61,31 +67,70 @@ public final class DsmSerializer {
       json.append(sonarResource.getName());
       json.append("\",\"q\":\"");
       json.append(sonarResource.getQualifier());
-      json.append("\",\"v\":[");
-      for (int x = 0; x < dsm.getDimension(); x++) {
-        if (x > 0) {
-          json.append(',');
-        }
-        serializeCell(y, x);
+      if (sparse) {
+        json.append("\",\"c\":[");
+        serializeNonEmptyCells(y);
+      } else {
+        json.append("\",\"v\":[");
+        serializeCells(y);
       }
       json.append("]");
     }
     json.append("}");
   }
 
+  private void serializeCells(int y) {
+    for (int x = 0; x < dsm.getDimension(); x++) {
+      if (x > 0) {
+        json.append(',');
+      }
+      serializeCell(y, x);
+    }
+  }
+
+  private void serializeNonEmptyCells(int y) {
+    boolean first = true;
+    for (int x = 0; x < dsm.getDimension(); x++) {
+      DsmCell cell = dsm.getCell(x, y);
+      if (isNotEmpty(cell)) {
+        if (!first) {
+          json.append(',');
+        }
+        first = false;
+        json.append("{\"x\":");
+        json.append(x);
+        json.append(',');
+        serializeCellContent(cell);
+        json.append('}');
+      }
+    }
+  }
+
   private void serializeCell(int y, int x) {
     DsmCell cell = dsm.getCell(x, y);
     json.append('{');
-    if (cell.getEdge() != null && cell.getWeight() > 0) {
-      json.append("\"i\":");
-      json.append(((Dependency) cell.getEdge()).getId());
-      json.append(",\"w\":");
-      json.append(cell.getWeight());
+    if (isNotEmpty(cell)) {
+      serializeCellContent(cell);
     }
     json.append('}');
   }
 
+  private void serializeCellContent(DsmCell cell) {
+    json.append("\"i\":");
+    json.append(((Dependency) cell.getEdge()).getId());
+    json.append(",\"w\":");
+    json.append(cell.getWeight());
+  }
+
+  private static boolean isNotEmpty(DsmCell cell) {
+    return cell.getEdge() != null && cell.getWeight() > 0;
+  }
+
   public static String serialize(Dsm<Resource> dsm) {
-    return new DsmSerializer(dsm).serialize();
+    return serialize(dsm, false);
+  }
+
+  public static String serialize(Dsm<Resource> dsm, boolean sparse) {
+    return new DsmSerializer(dsm, sparse).serialize();
   }
 }
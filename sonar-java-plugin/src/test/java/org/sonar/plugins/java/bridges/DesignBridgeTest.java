@@ -19,21 +19,30 @@
  */
 package org.sonar.plugins.java.bridges;
 
+import com.google.common.collect.Lists;
 import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.sonar.api.batch.SensorContext;
 import org.sonar.api.component.ResourcePerspectives;
 import org.sonar.api.design.Dependency;
+import org.sonar.api.measures.Measure;
 import org.sonar.api.measures.Metric;
+import org.sonar.api.resources.File;
 import org.sonar.api.resources.Project;
 import org.sonar.api.resources.Resource;
 import org.sonar.graph.DirectedGraph;
 import org.sonar.java.bytecode.visitor.ResourceMapping;
 
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyDouble;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class DesignBridgeTest {
 
@@ -44,9 +53,83 @@ public class DesignBridgeTest {
     DirectedGraph<Resource, Dependency> graph = mock(DirectedGraph.class);
     ResourceMapping resourceMapping = mock(ResourceMapping.class);
     ResourcePerspectives resourcePerspectives = mock(ResourcePerspectives.class);
-    DesignBridge bridge = new DesignBridge(context, graph, resourceMapping, resourcePerspectives);
+    DesignBridge bridge = new DesignBridge(context, graph, resourceMapping, resourcePerspectives, false);
     bridge.saveDesign(mock(Project.class));
     verify(context, times(4)).saveMeasure(any(Resource.class), any(Metric.class), anyDouble());
 
   }
+
+  @Test
+  public void concurrent_package_analysis_should_save_the_same_measures_as_sequential_analysis() throws Exception {
+    int packages = 8;
+    ResourceMapping resourceMapping = new ResourceMapping();
+    DirectedGraph<Resource, Dependency> graph = new DirectedGraph<>();
+    for (int p = 0; p < packages; p++) {
+      // p + 1 pairs of files using each other, and 3 files using each other in a ring: p + 2 cycles, none of them sharing an edge
+      int files = 2 * (p + 1) + 3;
+      File[] classes = new File[files];
+      for (int c = 0; c < files; c++) {
+        classes[c] = File.create("p" + p + "/C" + c + ".java");
+        resourceMapping.addResource(classes[c], "p" + p + "/C" + c);
+      }
+      for (int c = 0; c < 2 * (p + 1); c += 2) {
+        graph.addEdge(new Dependency(classes[c], classes[c + 1]).setWeight(c + 1));
+        graph.addEdge(new Dependency(classes[c + 1], classes[c]).setWeight(1));
+      }
+      for (int c = files - 3; c < files; c++) {
+        graph.addEdge(new Dependency(classes[c], classes[c + 1 < files ? c + 1 : files - 3]).setWeight(2));
+      }
+    }
+    for (Resource directory : resourceMapping.directories()) {
+      graph.addVertex(directory);
+    }
+
+    List<String> sequentialMeasures = saveDesign(graph, resourceMapping, 1);
+    List<String> concurrentMeasures = saveDesign(graph, resourceMapping, 4);
+
+    assertThat(sequentialMeasures).contains("p0 file_cycles 2.0", "p0 file_feedback_edges 2.0", "p7 file_cycles 9.0", "p7 file_feedback_edges 9.0");
+    assertThat(concurrentMeasures).isEqualTo(sequentialMeasures);
+    // packages are saved in the order of the resource mapping
+    List<String> savedPackages = Lists.newArrayList();
+    for (String measure : concurrentMeasures) {
+      if (measure.contains(" file_cycles ")) {
+        savedPackages.add(measure.substring(0, measure.indexOf(' ')));
+      }
+    }
+    assertThat(savedPackages).containsExactly("p0", "p1", "p2", "p3", "p4", "p5", "p6", "p7");
+  }
+
+  /**
+   * @return measures in the order they were saved, package measures being identified by the package key
+   */
+  private static List<String> saveDesign(DirectedGraph<Resource, Dependency> graph, ResourceMapping resourceMapping, int availableProcessors) {
+    SensorContext context = mock(SensorContext.class);
+    when(context.getResource(any(Resource.class))).thenAnswer(new Answer<Resource>() {
+      @Override
+      public Resource answer(InvocationOnMock invocation) throws Throwable {
+        return (Resource) invocation.getArguments()[0];
+      }
+    });
+    final List<String> measures = Lists.newArrayList();
+    when(context.saveMeasure(any(Resource.class), any(Metric.class), anyDouble())).thenAnswer(new Answer<Measure>() {
+      @Override
+      public Measure answer(InvocationOnMock invocation) throws Throwable {
+        Object[] arguments = invocation.getArguments();
+        measures.add(((Resource) arguments[0]).getKey() + " " + ((Metric) arguments[1]).getKey() + " " + arguments[2]);
+        return null;
+      }
+    });
+    when(context.saveMeasure(any(Resource.class), any(Measure.class))).thenAnswer(new Answer<Measure>() {
+      @Override
+      public Measure answer(InvocationOnMock invocation) throws Throwable {
+        Object[] arguments = invocation.getArguments();
+        Measure measure = (Measure) arguments[1];
+        measures.add(((Resource) arguments[0]).getKey() + " " + measure.getMetricKey() + " " + measure.getData());
+        return null;
+      }
+    });
+    Project project = new Project("project");
+    new DesignBridge(context, graph, resourceMapping, mock(ResourcePerspectives.class), false, availableProcessors).saveDesign(project);
+    return measures;
+  }
 }
@@ -0,0 +1,62 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * sonarqube@googlegroups.com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.plugins.java.bridges;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.commons.lang.StringUtils;
+import org.junit.Test;
+import org.sonar.api.design.Dependency;
+import org.sonar.api.resources.File;
+import org.sonar.api.resources.Resource;
+import org.sonar.graph.DirectedGraph;
+import org.sonar.graph.Dsm;
+import org.sonar.graph.Edge;
+
+import java.util.Collections;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class DsmSerializerTest {
+
+  @Test
+  public void dense_and_sparse_encodings() {
+    File a = File.create("org/foo/A.java");
+    File b = File.create("org/foo/B.java");
+    File c = File.create("org/foo/C.java");
+    DirectedGraph<Resource, Dependency> graph = new DirectedGraph<>();
+    graph.addEdge(new Dependency(a, b).setWeight(3));
+
+    String dense = DsmSerializer.serialize(dsm(graph, a, b, c));
+    assertThat(StringUtils.countMatches(dense, "{}")).isEqualTo(8);
+    assertThat(StringUtils.countMatches(dense, "{\"i\":null,\"w\":3}")).isEqualTo(1);
+    assertThat(dense).contains("\"v\":[").excludes("\"c\":[");
+    assertThat(DsmSerializer.serialize(dsm(graph, a, b, c), false)).isEqualTo(dense);
+
+    String sparse = DsmSerializer.serialize(dsm(graph, a, b, c), true);
+    assertThat(StringUtils.countMatches(sparse, "\"c\":[]")).isEqualTo(2);
+    assertThat(StringUtils.countMatches(sparse, "\"i\":null,\"w\":3}")).isEqualTo(1);
+    assertThat(sparse).contains("{\"x\":").excludes("{}").excludes("\"v\":[");
+  }
+
+  private static Dsm<Resource> dsm(DirectedGraph<Resource, Dependency> graph, Resource... vertices) {
+    return new Dsm<Resource>(graph, ImmutableList.copyOf(vertices), Collections.<Edge>emptySet());
+  }
+
+}